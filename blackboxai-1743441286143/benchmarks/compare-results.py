@@ -0,0 +1,79 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files benchmark by benchmark.
+
+    ./compare-results.py results/baseline.json results/after-change.json [--threshold 10]
+
+Prints score and allocation (gc.alloc.rate.norm, bytes/op) per benchmark and
+parameter set with the relative change. Exits with status 1 when any score got
+worse by more than --threshold percent; lower is better for time-per-op modes,
+higher is better for throughput.
+"""
+import argparse
+import json
+import sys
+
+ALLOC = "gc.alloc.rate.norm"
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(run.get("params", {}).items()))
+            key = run["benchmark"].rsplit(".", 2)[-2] + "." + run["benchmark"].rsplit(".", 1)[-1]
+            if params:
+                key += f" [{params}]"
+            alloc = run.get("secondaryMetrics", {}).get(ALLOC, {}).get("score")
+            results[key] = (run["mode"], run["primaryMetric"]["score"],
+                            run["primaryMetric"]["scoreUnit"], alloc)
+        return results
+
+
+def change(old, new):
+    if old is None or new is None or old == 0:
+        return None
+    return (new - old) / old * 100.0
+
+
+def fmt_change(value):
+    return "n/a" if value is None else f"{value:+.1f}%"
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="regression in percent that fails the comparison (default 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+    regressions = []
+
+    print(f"{'benchmark':<70} {'baseline':>12} {'candidate':>12} {'unit':>8} {'score':>8} "
+          f"{'B/op old':>10} {'B/op new':>10} {'alloc':>8}")
+    for key in sorted(baseline.keys() | candidate.keys()):
+        if key not in baseline or key not in candidate:
+            print(f"{key:<70} only in {'baseline' if key in baseline else 'candidate'}")
+            continue
+        mode, old_score, unit, old_alloc = baseline[key]
+        _, new_score, _, new_alloc = candidate[key]
+        score_change = change(old_score, new_score)
+        # Throughput: higher is better; all other modes report time per operation
+        worse = score_change is not None and (-score_change if mode == "thrpt" else score_change) > args.threshold
+        if worse:
+            regressions.append(key)
+        print(f"{key:<70} {old_score:>12.3f} {new_score:>12.3f} {unit:>8} {fmt_change(score_change):>8} "
+              f"{old_alloc if old_alloc is not None else float('nan'):>10.1f} "
+              f"{new_alloc if new_alloc is not None else float('nan'):>10.1f} "
+              f"{fmt_change(change(old_alloc, new_alloc)):>8}{'  REGRESSION' if worse else ''}")
+
+    if regressions:
+        print(f"\n{len(regressions)} benchmark(s) regressed by more than {args.threshold}%", file=sys.stderr)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
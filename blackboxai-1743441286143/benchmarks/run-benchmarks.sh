@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Builds the benchmark jar and runs JMH with the GC (allocation) profiler,
+# writing results as JSON to results/<name>.json.
+#
+#   ./run-benchmarks.sh <name> [JMH options...]
+#   ./run-benchmarks.sh baseline
+#   ./run-benchmarks.sh after-change 'StatisticsAggregation.*' -p payments=1000000
+set -euo pipefail
+
+if [ $# -lt 1 ]; then
+    echo "usage: $0 <result-name> [JMH options...]" >&2
+    exit 1
+fi
+name="$1"
+shift
+
+cd "$(dirname "$0")"
+(cd .. && mvn -B -q install -DskipTests)
+mvn -B -q package
+mkdir -p results
+java -jar target/benchmarks.jar -prof gc -rf json -rff "results/${name}.json" "$@"
+echo "Results written to results/${name}.json"
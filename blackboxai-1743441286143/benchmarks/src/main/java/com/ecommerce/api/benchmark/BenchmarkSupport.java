@@ -0,0 +1,31 @@
+package com.ecommerce.api.benchmark;
+
+import java.lang.reflect.Field;
+
+/**
+ * Helpers for wiring application beans without a Spring context.
+ */
+final class BenchmarkSupport {
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Sets a (field-injected) private field, walking up the class hierarchy.
+     */
+    static void setField(Object target, String name, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set " + name + " on " + target.getClass(), e);
+            }
+        }
+        throw new IllegalStateException("No field " + name + " on " + target.getClass());
+    }
+}
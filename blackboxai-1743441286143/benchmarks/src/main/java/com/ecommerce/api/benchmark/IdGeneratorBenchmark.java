@@ -0,0 +1,45 @@
+package com.ecommerce.api.benchmark;
+
+import com.ecommerce.api.util.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SnowflakeIdGenerator} under contention, against the millisecond-based
+ * transaction ids it replaced. Run with {@code -t} to vary the thread count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+    @Benchmark
+    public long snowflakeId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String snowflakeIdString() {
+        return generator.nextIdString("TXN");
+    }
+
+    @Benchmark
+    public String millisecondId() {
+        return "TXN" + System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.api.benchmark;
+
+import com.ecommerce.api.security.JwtUtils;
+import com.ecommerce.api.security.UserDetailsImpl;
+import io.jsonwebtoken.JwtException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtUtils} token generation and validation.
+ *
+ * JwtUtils currently derives a fresh random HS256 key on every call, so a token
+ * never validates against the key used to sign it: {@link #validate()} measures
+ * the parse up to the signature check plus the failure path. Keep that in mind
+ * when comparing results across a fix of the key handling.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        BenchmarkSupport.setField(jwtUtils, "jwtSecret", "benchmark-secret-benchmark-secret-0123456789");
+        BenchmarkSupport.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "benchmark-user", "bench@example.com", "n/a",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public Object validate() {
+        try {
+            return jwtUtils.validateJwtToken(token);
+        } catch (JwtException e) {
+            // Signature mismatch, see class comment
+            return e;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.api.benchmark;
+
+import com.ecommerce.api.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing and averaging amounts as {@link BigDecimal} versus {@link Money}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyArithmeticBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private BigDecimal[] decimals;
+    private Money[] amounts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        decimals = new BigDecimal[size];
+        amounts = new Money[size];
+        for (int i = 0; i < size; i++) {
+            long minor = 100 + random.nextLong(50_000);
+            decimals[i] = BigDecimal.valueOf(minor, Money.SCALE);
+            amounts[i] = Money.ofMinor(minor);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalAverage() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            total = total.add(amount);
+        }
+        return total.divide(BigDecimal.valueOf(size), Money.SCALE, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Money moneyAverage() {
+        Money total = Money.ZERO;
+        for (Money amount : amounts) {
+            total = total.plus(amount);
+        }
+        return total.dividedBy(size);
+    }
+
+    @Benchmark
+    public long minorUnitsAverage() {
+        long total = 0;
+        for (Money amount : amounts) {
+            total = Math.addExact(total, amount.getMinorUnits());
+        }
+        return Money.divideHalfUp(total, size);
+    }
+}
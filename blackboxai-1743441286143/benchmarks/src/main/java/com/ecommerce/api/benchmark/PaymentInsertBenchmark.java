@@ -0,0 +1,118 @@
+package com.ecommerce.api.benchmark;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost per payment row of the ledger write pattern: {@code rowsPerStatement = 1}
+ * is one INSERT and commit per payment (the per-request JPA save), larger values
+ * are the multi-row INSERT in one transaction that PaymentLedgerWriter issues per
+ * micro-batch. Uses a file-backed H2 database in a temporary directory; H2 does
+ * not fsync per commit, so against MySQL the gap is larger.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentInsertBenchmark {
+    private static final int ROWS_PER_INVOCATION = 256;
+    private static final String INSERT_PREFIX = "INSERT INTO payments (id, user_id, tenant_id, amount, " +
+        "payment_method, transaction_id, status, payment_date) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"1", "16", "256"})
+    private int rowsPerStatement;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("payment-insert-bench");
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:file:" + directory.resolve("bench") + ";MODE=MySQL");
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE payments (id BIGINT NOT NULL PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "tenant_id BIGINT, amount DECIMAL(10,2) NOT NULL, payment_method VARCHAR(50) NOT NULL, " +
+                "transaction_id VARCHAR(100) NOT NULL UNIQUE, status VARCHAR(20) NOT NULL, " +
+                "payment_date DATETIME NOT NULL)");
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < rowsPerStatement; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDERS);
+        }
+        insert = connection.prepareStatement(sql.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        insert.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public void insert() throws SQLException {
+        boolean batched = rowsPerStatement > 1;
+        connection.setAutoCommit(!batched);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int statement = 0; statement < ROWS_PER_INVOCATION / rowsPerStatement; statement++) {
+            int index = 1;
+            for (int row = 0; row < rowsPerStatement; row++) {
+                long id = ++nextId;
+                insert.setLong(index++, id);
+                insert.setLong(index++, 1 + id % 1000);
+                insert.setLong(index++, 1L);
+                insert.setBigDecimal(index++, BigDecimal.valueOf(100 + id % 50_000, 2));
+                insert.setString(index++, "CARD");
+                insert.setString(index++, "TXN" + id);
+                insert.setString(index++, "PENDING");
+                insert.setTimestamp(index++, now);
+            }
+            insert.executeUpdate();
+        }
+        if (batched) {
+            connection.commit();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.api.benchmark;
+
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.model.User;
+import com.ecommerce.api.service.PaymentLedgerWriter;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Payments per second written by concurrent request threads: through
+ * {@link PaymentLedgerWriter} (group commit) against one INSERT and commit per
+ * payment, the path the writer replaced. Both run against a pooled, file-backed
+ * H2 database in a temporary directory. Run with {@code -t} to vary the number
+ * of request threads; the writer only batches when callers overlap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class PaymentLedgerBenchmark {
+    private static final String INSERT = "INSERT INTO payments (id, user_id, tenant_id, amount, payment_method, " +
+        "transaction_id, status, payment_date, attempt_count, next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final User user = new User();
+
+    private Path directory;
+    private JdbcConnectionPool dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private PaymentLedgerWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("payment-ledger-bench");
+        dataSource = JdbcConnectionPool.create("jdbc:h2:file:" + directory.resolve("bench") + ";MODE=MySQL", "sa", "");
+        dataSource.setMaxConnections(32);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE payments (id BIGINT NOT NULL PRIMARY KEY, user_id BIGINT NOT NULL, " +
+            "tenant_id BIGINT, amount DECIMAL(10,2) NOT NULL, payment_method VARCHAR(50) NOT NULL, " +
+            "transaction_id VARCHAR(100) NOT NULL UNIQUE, status VARCHAR(20) NOT NULL, " +
+            "payment_date DATETIME NOT NULL, attempt_count INT NOT NULL, next_attempt_at DATETIME)");
+        user.setId(1L);
+
+        writer = new PaymentLedgerWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(writer, "batchSize", 256);
+        ReflectionTestUtils.setField(writer, "maxDelayMicros", 2000L);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10_000);
+        writer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        writer.stop();
+        jdbcTemplate.execute("SHUTDOWN");
+        dataSource.dispose();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Payment ledger() throws Exception {
+        return writer.append(payment()).get();
+    }
+
+    @Benchmark
+    public Payment commitPerPayment() {
+        Payment payment = payment();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT,
+            payment.getId(), payment.getUser().getId(), payment.getTenantId(), payment.getAmount().toBigDecimal(),
+            payment.getPaymentMethod(), payment.getTransactionId(), payment.getStatus(),
+            Timestamp.valueOf(payment.getPaymentDate()), payment.getAttemptCount(),
+            Timestamp.valueOf(payment.getNextAttemptAt())));
+        return payment;
+    }
+
+    private Payment payment() {
+        long id = nextId.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setUser(user);
+        payment.setTenantId(1L);
+        payment.setAmount(Money.ofMinor(100 + id % 50_000));
+        payment.setPaymentMethod("CARD");
+        payment.setTransactionId("TXN" + id);
+        payment.setStatus("PENDING");
+        payment.setPaymentDate(now);
+        payment.setAttemptCount(0);
+        payment.setNextAttemptAt(now);
+        return payment;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.api.benchmark;
+
+import com.ecommerce.api.model.Category;
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Product;
+import com.ecommerce.api.model.ProductImage;
+import com.ecommerce.api.payload.response.ProductStockItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a page of products as {@link Product} entities (what
+ * the product endpoints return) versus {@link ProductStockItem} DTOs, with an
+ * ObjectMapper configured like Spring Boot's.
+ *
+ * The entity images are built without their {@code product} back-reference: with
+ * it, the entity graph is cyclic and neither Jackson nor Lombok's hashCode
+ * terminate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSerializationBenchmark {
+    @Param({"20", "200"})
+    private int pageSize;
+
+    @Param({"0", "3"})
+    private int imagesPerProduct;
+
+    private ObjectMapper objectMapper;
+    private List<Product> entities;
+    private List<ProductStockItem> items;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Electronics");
+        category.setDescription("Phones, laptops and accessories");
+
+        entities = new ArrayList<>(pageSize);
+        items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName("Product " + i);
+            product.setDescription("Description of product " + i + " with a few more words in it");
+            product.setPrice(Money.ofMinor(1999 + i * 100L));
+            product.setStockQuantity(i % 50);
+            product.setTenantId(1L);
+            product.setCategory(category);
+            for (int j = 0; j < imagesPerProduct; j++) {
+                ProductImage image = new ProductImage();
+                image.setId((long) i * imagesPerProduct + j + 1);
+                image.setImageUrl("https://cdn.example.com/products/" + i + "/" + j + ".jpg");
+                product.getImages().add(image);
+            }
+            entities.add(product);
+            items.add(new ProductStockItem(product.getId(), product.getName(), product.getStockQuantity(),
+                product.getPrice()));
+        }
+    }
+
+    @Benchmark
+    public byte[] entity() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] dto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.api.benchmark;
+
+import com.ecommerce.api.analytics.PaymentColumnStore;
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.model.PaymentStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Revenue statistics (total, count and daily breakdown of completed payments in a
+ * date range) over a synthetic tenant's payments:
+ * <ul>
+ *   <li>{@link #streamBigDecimal} - streams over loaded {@link Payment} entities
+ *   summing {@link BigDecimal}s, the shape StatisticsService had before the rollups;</li>
+ *   <li>{@link #streamMinorUnits} - the same stream summing {@link Money} minor units;</li>
+ *   <li>{@link #columnStore} - {@link PaymentColumnStore}, which StatisticsService
+ *   reads when {@code analytics.column-store.enabled} is set.</li>
+ * </ul>
+ * The range covers the middle half of the data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticsAggregationBenchmark {
+    private static final long TENANT_ID = 1L;
+    private static final int DAYS = 365;
+    private static final String[] STATUSES = {
+        PaymentStatus.COMPLETED.name(), PaymentStatus.COMPLETED.name(), PaymentStatus.COMPLETED.name(),
+        PaymentStatus.FAILED.name(), PaymentStatus.PENDING.name()
+    };
+
+    @Param({"10000", "1000000"})
+    private int payments;
+
+    private List<Payment> paymentList;
+    private PaymentColumnStore columnStore;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime start = LocalDate.of(2024, 1, 1).atStartOfDay();
+        paymentList = new ArrayList<>(payments);
+        columnStore = new PaymentColumnStore();
+        for (int i = 0; i < payments; i++) {
+            Payment payment = new Payment();
+            payment.setTenantId(TENANT_ID);
+            payment.setAmount(Money.ofMinor(100 + random.nextLong(50_000)));
+            payment.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            payment.setPaymentMethod(random.nextBoolean() ? "CARD" : "PAYPAL");
+            // Ascending dates, as rows are appended in practice
+            payment.setPaymentDate(start.plusSeconds((long) i * DAYS * 86_400 / payments));
+            paymentList.add(payment);
+            columnStore.append(TENANT_ID, (long) random.nextInt(10_000), payment.getAmount(),
+                payment.getPaymentDate(), payment.getStatus(), payment.getPaymentMethod());
+        }
+        from = start.plusDays(DAYS / 4);
+        to = start.plusDays(DAYS * 3 / 4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        columnStore.clear();
+    }
+
+    @Benchmark
+    public void streamBigDecimal(Blackhole blackhole) {
+        List<Payment> completed = paymentList.stream()
+            .filter(p -> PaymentStatus.COMPLETED.name().equals(p.getStatus()))
+            .filter(p -> !p.getPaymentDate().isBefore(from) && p.getPaymentDate().isBefore(to))
+            .collect(Collectors.toList());
+        BigDecimal total = completed.stream()
+            .map(p -> p.getAmount().toBigDecimal())
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<LocalDate, BigDecimal> daily = completed.stream()
+            .collect(Collectors.groupingBy(p -> p.getPaymentDate().toLocalDate(), TreeMap::new,
+                Collectors.reducing(BigDecimal.ZERO, p -> p.getAmount().toBigDecimal(), BigDecimal::add)));
+        blackhole.consume(total);
+        blackhole.consume(completed.size());
+        blackhole.consume(daily);
+    }
+
+    @Benchmark
+    public void streamMinorUnits(Blackhole blackhole) {
+        List<Payment> completed = paymentList.stream()
+            .filter(p -> PaymentStatus.COMPLETED.name().equals(p.getStatus()))
+            .filter(p -> !p.getPaymentDate().isBefore(from) && p.getPaymentDate().isBefore(to))
+            .collect(Collectors.toList());
+        long total = completed.stream().mapToLong(p -> p.getAmount().getMinorUnits()).sum();
+        Map<LocalDate, Long> daily = completed.stream()
+            .collect(Collectors.groupingBy(p -> p.getPaymentDate().toLocalDate(), TreeMap::new,
+                Collectors.summingLong(p -> p.getAmount().getMinorUnits())));
+        blackhole.consume(total);
+        blackhole.consume(completed.size());
+        blackhole.consume(daily);
+    }
+
+    @Benchmark
+    public void columnStore(Blackhole blackhole) {
+        int fromDay = (int) from.toLocalDate().toEpochDay();
+        int toDay = (int) to.toLocalDate().toEpochDay() - 1;
+        blackhole.consume(columnStore.sumAndCount(TENANT_ID, fromDay, toDay, PaymentStatus.COMPLETED.name()));
+        blackhole.consume(columnStore.dailySumAndCount(TENANT_ID, fromDay, toDay, PaymentStatus.COMPLETED.name()));
+    }
+}
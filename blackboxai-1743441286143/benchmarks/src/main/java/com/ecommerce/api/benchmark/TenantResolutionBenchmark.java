@@ -0,0 +1,93 @@
+package com.ecommerce.api.benchmark;
+
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.interceptor.TenantInterceptor;
+import com.ecommerce.api.model.Tenant;
+import com.ecommerce.api.service.TenantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request tenant resolution: {@link TenantInterceptor#preHandle} plus
+ * {@link TenantInterceptor#afterCompletion}, with the tenant lookup served from
+ * memory. This isolates the interceptor's own cost (host parsing, request
+ * attribute, thread-local) from the database round trip of the real lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TenantResolutionBenchmark {
+    @Param({"1", "1000"})
+    private int tenantCount;
+
+    private TenantInterceptor interceptor;
+    private MockHttpServletRequest[] requests;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, Tenant> tenants = new HashMap<>();
+        requests = new MockHttpServletRequest[tenantCount];
+        for (int i = 0; i < tenantCount; i++) {
+            Tenant tenant = new Tenant();
+            tenant.setId((long) i + 1);
+            tenant.setDomain("shop" + i + ".example.com");
+            tenant.setName("Shop " + i);
+            tenants.put(tenant.getDomain(), tenant);
+
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+            request.setServerName(tenant.getDomain());
+            requests[i] = request;
+        }
+
+        interceptor = new TenantInterceptor();
+        BenchmarkSupport.setField(interceptor, "tenantService", new InMemoryTenantService(tenants));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Tenant resolve() throws Exception {
+        MockHttpServletRequest request = requests[next];
+        next = next + 1 == requests.length ? 0 : next + 1;
+        interceptor.preHandle(request, response, null);
+        Tenant tenant = TenantContext.getCurrentTenant();
+        interceptor.afterCompletion(request, response, null, null);
+        return tenant;
+    }
+
+    private static final class InMemoryTenantService extends TenantService {
+        private final Map<String, Tenant> tenants;
+
+        private InMemoryTenantService(Map<String, Tenant> tenants) {
+            this.tenants = tenants;
+        }
+
+        @Override
+        public Tenant getTenantByDomain(String domain) {
+            Tenant tenant = tenants.get(domain);
+            if (tenant == null) {
+                throw new RuntimeException("Tenant not found");
+            }
+            return tenant;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Time from JVM launch to the first answered request, for the executable jar and
+# for the fast-start build with and without its CDS archive. The probe is a
+# sign-in of an unknown user, which goes through tenant lookup, security and JPA.
+#
+#   ./measure.sh [runs]
+#   JAVA_OPTS="-Dspring.datasource.url=jdbc:mysql://... -Did.generator.node-id=0" ./measure.sh 10
+#
+# Needs `mvn -Pfast-start package` first; PLAIN_JAR and FAST_START_DIR override
+# the jar and directory it picks up from target/.
+set -euo pipefail
+
+runs="${1:-5}"
+port="${PORT:-18080}"
+tenant_host="${TENANT_HOST:-main.example.com}"
+java_opts=(${JAVA_OPTS:-})
+
+cd "$(dirname "$0")/.."
+plain_jar="$(realpath "${PLAIN_JAR:-$(ls target/*-exec.jar)}")"
+fast_start_dir="$(realpath "${FAST_START_DIR:-target/fast-start}")"
+fast_start_jar="$(basename "$(ls "$fast_start_dir"/*.jar)")"
+log="$fast_start_dir/measure.log"
+
+# Starts "$@" in $fast_start_dir and prints the milliseconds until the probe gets any HTTP status
+time_to_first_request() {
+    local start pid code
+    start=$(date +%s%N)
+    (cd "$fast_start_dir" && exec java "${java_opts[@]}" "$@" --server.port="$port") > "$log" 2>&1 &
+    pid=$!
+    while true; do
+        code=$(curl -s -o /dev/null -w '%{http_code}' -H "Host: $tenant_host" -H 'Content-Type: application/json' \
+            -d '{"username":"startup-probe","password":"startup-probe"}' \
+            "http://127.0.0.1:$port/ecommerce/api/auth/signin" || true)
+        if [ "$code" != "000" ]; then
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited before answering, see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    echo $(( ($(date +%s%N) - start) / 1000000 ))
+    kill "$pid"
+    wait "$pid" || true
+}
+
+series() {
+    local name="$1" times=() i
+    shift
+    for ((i = 0; i < runs; i++)); do
+        times+=("$(time_to_first_request "$@")")
+    done
+    local sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    printf '%-18s median %6d ms   runs: %s\n' "$name" "${sorted[$((runs / 2))]}" "${times[*]}"
+}
+
+fast_start=(-Dspring.aot.enabled=true -Dspring.profiles.active=fast-start)
+series "executable jar" -jar "$plain_jar"
+series "fast-start, no CDS" "${fast_start[@]}" -jar "$fast_start_jar"
+series "fast-start" -XX:SharedArchiveFile=app.jsa "${fast_start[@]}" -jar "$fast_start_jar"
@@ -0,0 +1,127 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * HTTP client for the API under test. Requests go to one address and select the
+ * tenant with the Host header. Requests with an endpoint name are recorded in that
+ * endpoint's {@link EndpointStats}; seeding requests pass {@code null}.
+ */
+public class ApiClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final URI baseUri;
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public ApiClient(URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    public Response get(String endpoint, String host, String token, String pathAndQuery, long startNanos) {
+        return send(endpoint, request(host, token, pathAndQuery).GET().build(), startNanos);
+    }
+
+    public Response post(String endpoint, String host, String token, String pathAndQuery, Object body,
+                         Map<String, String> headers, long startNanos) {
+        HttpRequest.Builder builder = request(host, token, pathAndQuery);
+        headers.forEach(builder::header);
+        if (body != null) {
+            builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body)));
+        } else {
+            builder.POST(HttpRequest.BodyPublishers.noBody());
+        }
+        return send(endpoint, builder.build(), startNanos);
+    }
+
+    public JsonNode readJson(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Map<String, EndpointStats> getEndpointStats() {
+        return new TreeMap<>(endpoints);
+    }
+
+    public void resetStats() {
+        endpoints.values().forEach(EndpointStats::reset);
+    }
+
+    private HttpRequest.Builder request(String host, String token, String pathAndQuery) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + pathAndQuery))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Host", host)
+            .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(String endpoint, HttpRequest request, long startNanos) {
+        int status = 0;
+        String body = null;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+        } catch (IOException e) {
+            body = e.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            body = e.toString();
+        }
+        if (endpoint != null) {
+            endpoints.computeIfAbsent(endpoint, name -> new EndpointStats())
+                .record(System.nanoTime() - startNanos, status);
+        }
+        return new Response(status, body);
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Response(int status, String body) {
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * Fails seeding with the response details unless the call succeeded.
+         */
+        public Response requireSuccess(String action) {
+            if (!isSuccess()) {
+                throw new IllegalStateException(action + " failed with status " + status + ": " + body);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds) and outcome counters of one endpoint.
+ */
+public final class EndpointStats {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * @param status HTTP status, 0 for an I/O error or timeout
+     */
+    void record(long latencyNanos, int status) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        latency.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        latency.reset();
+        errors.reset();
+        statuses.clear();
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public long getCount() {
+        return latency.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public Map<Integer, Long> getStatuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
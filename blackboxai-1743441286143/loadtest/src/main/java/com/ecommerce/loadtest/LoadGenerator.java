@@ -0,0 +1,109 @@
+package com.ecommerce.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: journeys arrive as a Poisson process at the
+ * configured rate no matter how fast the server answers, and each runs on its own
+ * virtual thread. Arrival times, scenarios, tenants and users are drawn from the
+ * seeded random, so a run is reproducible. Arrivals beyond {@code max-in-flight}
+ * concurrent journeys are dropped and counted rather than queued.
+ */
+public class LoadGenerator {
+    private final ApiClient api;
+    private final List<TenantFixture> tenants;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final double rate;
+    private final int maxInFlight;
+    private long phases;
+
+    public LoadGenerator(ApiClient api, List<TenantFixture> tenants, LoadTestConfig config) {
+        this.api = api;
+        this.tenants = tenants;
+        this.rate = config.rate();
+        this.maxInFlight = config.maxInFlight();
+        Map<Scenario, Integer> mix = config.mix();
+        this.scenarios = mix.keySet().toArray(new Scenario[0]);
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += mix.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Generates arrivals for {@code duration} and waits for the started journeys to
+     * finish.
+     */
+    public PhaseResult run(Duration duration, SplittableRandom random) {
+        long run = phases++;
+        AtomicInteger inFlight = new AtomicInteger();
+        long scheduled = 0;
+        long dropped = 0;
+        long maxLagNanos = 0;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double nextArrival = start;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (true) {
+                // Exponential inter-arrival times give a Poisson process
+                nextArrival += -Math.log(1.0 - random.nextDouble()) / rate * 1_000_000_000L;
+                long scheduledNanos = (long) nextArrival;
+                if (scheduledNanos >= end) {
+                    break;
+                }
+                Scenario scenario = pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+                TenantFixture tenant = tenants.get(random.nextInt(tenants.size()));
+                int user = random.nextInt(tenant.usernames().size());
+                scheduled++;
+
+                long now;
+                while ((now = System.nanoTime()) < scheduledNanos) {
+                    LockSupport.parkNanos(scheduledNanos - now);
+                }
+                maxLagNanos = Math.max(maxLagNanos, now - scheduledNanos);
+                if (inFlight.get() >= maxInFlight) {
+                    dropped++;
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                Scenario.Arrival arrival = new Scenario.Arrival(tenant, user, run, scheduled, scheduledNanos);
+                executor.execute(() -> {
+                    try {
+                        scenario.run(api, arrival);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        return new PhaseResult(scheduled, dropped, Duration.ofNanos(System.nanoTime() - start),
+            Duration.ofNanos(maxLagNanos));
+    }
+
+    private Scenario pick(int ticket) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    /**
+     * @param elapsed        arrivals plus draining the journeys still in flight
+     * @param maxArrivalLag  worst delay of the generator itself behind schedule
+     */
+    public record PhaseResult(long scheduled, long dropped, Duration elapsed, Duration maxArrivalLag) {
+    }
+}
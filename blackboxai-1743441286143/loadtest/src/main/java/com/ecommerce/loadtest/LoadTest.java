@@ -0,0 +1,77 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.EcommerceApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * End-to-end load test on one machine: boots the API in this JVM on an embedded
+ * H2 database (profile {@code loadtest}), seeds tenants through the endpoints,
+ * runs a warmup and a measured phase of open-model load and reports throughput
+ * and latency percentiles per endpoint. Exits with status 1 when a limit from the
+ * thresholds file is violated, which fails the Maven build.
+ *
+ * Usage: {@code LoadTest [--rate=200] [--warmup=15s] [--duration=60s] [--tenants=3]
+ * [--mix=browse=40,banners=25,signin=10,pay=10,dashboard=15] [--seed=42]
+ * [--thresholds=thresholds.properties] [--baseline=previous/summary.json]
+ * [--output=target/loadtest]}
+ */
+public class LoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    public static void main(String[] args) throws Exception {
+        // Must be set before the HTTP client is loaded; tenants are selected by Host header
+        if (System.getProperty("jdk.httpclient.allowRestrictedHeaders") == null) {
+            System.setProperty("jdk.httpclient.allowRestrictedHeaders", "host");
+        }
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        Thresholds thresholds = Thresholds.load(config.thresholds());
+        Summary baseline = config.baseline() != null ? Report.read(config.baseline()) : null;
+
+        List<String> violations;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                EcommerceApplication.class, LoadTestSecurityConfig.class)
+                .profiles("loadtest")
+                .run()) {
+            Environment environment = context.getEnvironment();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ApiClient api = new ApiClient(URI.create("http://127.0.0.1:" + port
+                + environment.getProperty("server.servlet.context-path", "")));
+            TokenIssuer tokenIssuer = new TokenIssuer(environment.getRequiredProperty("loadtest.jwt.secret"));
+
+            logger.info("Seeding {} tenants", config.tenants());
+            List<TenantFixture> tenants = new Seeder(api, tokenIssuer, config).seed();
+
+            LoadGenerator generator = new LoadGenerator(api, tenants, config);
+            SplittableRandom random = new SplittableRandom(config.seed());
+            logger.info("Warming up for {} at {} arrivals/s", config.warmup(), config.rate());
+            generator.run(config.warmup(), random);
+            api.resetStats();
+
+            logger.info("Measuring for {} at {} arrivals/s", config.duration(), config.rate());
+            LoadGenerator.PhaseResult phase = generator.run(config.duration(), random);
+            Summary summary = Summary.of(config, phase, api.getEndpointStats());
+            Report.print(summary, phase, System.out);
+            Report.write(summary, api.getEndpointStats(), config.output());
+            logger.info("Results written to {}", config.output().toAbsolutePath());
+
+            violations = thresholds.check(summary, baseline);
+        }
+
+        if (!violations.isEmpty()) {
+            System.out.println();
+            violations.forEach(violation -> System.out.println("FAILED: " + violation));
+            System.exit(1);
+        }
+        System.out.println("\nAll load test thresholds met");
+        System.exit(0);
+    }
+}
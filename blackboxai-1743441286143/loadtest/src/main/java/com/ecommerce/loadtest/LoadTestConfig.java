@@ -0,0 +1,87 @@
+package com.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings from {@code --name=value} arguments.
+ */
+public record LoadTestConfig(
+    double rate,
+    Duration warmup,
+    Duration duration,
+    int tenants,
+    int usersPerTenant,
+    int productsPerTenant,
+    int bannersPerTenant,
+    int paymentsPerTenant,
+    long seed,
+    Map<Scenario, Integer> mix,
+    int maxInFlight,
+    Path thresholds,
+    Path baseline,
+    Path output) {
+
+    private static final String DEFAULT_MIX = "browse=40,banners=25,signin=10,pay=10,dashboard=15";
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        String baseline = options.getOrDefault("baseline", "");
+        return new LoadTestConfig(
+            Double.parseDouble(options.getOrDefault("rate", "200")),
+            parseDuration(options.getOrDefault("warmup", "15s")),
+            parseDuration(options.getOrDefault("duration", "60s")),
+            Integer.parseInt(options.getOrDefault("tenants", "3")),
+            Integer.parseInt(options.getOrDefault("users-per-tenant", "20")),
+            Integer.parseInt(options.getOrDefault("products-per-tenant", "200")),
+            Integer.parseInt(options.getOrDefault("banners-per-tenant", "5")),
+            Integer.parseInt(options.getOrDefault("payments-per-tenant", "100")),
+            Long.parseLong(options.getOrDefault("seed", "42")),
+            parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+            Integer.parseInt(options.getOrDefault("max-in-flight", "5000")),
+            Path.of(options.getOrDefault("thresholds", "thresholds.properties")),
+            baseline.isBlank() ? null : Path.of(baseline),
+            Path.of(options.getOrDefault("output", "target/loadtest")));
+    }
+
+    /**
+     * Parses {@code 500ms}, {@code 30s} or {@code 2m}.
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] entry = part.trim().split("=");
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                mix.put(Scenario.fromName(entry[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix is empty");
+        }
+        return mix;
+    }
+}
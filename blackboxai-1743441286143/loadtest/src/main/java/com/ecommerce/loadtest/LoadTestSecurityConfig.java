@@ -0,0 +1,25 @@
+package com.ecommerce.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verifies bearer tokens with the harness's HMAC key, replacing the decoder
+ * Spring Boot would build from the external issuer-uri.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestSecurityConfig {
+    @Bean
+    public JwtDecoder jwtDecoder(@Value("${loadtest.jwt.secret}") String secret) {
+        return NimbusJwtDecoder.withSecretKey(
+            new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256")).build();
+    }
+}
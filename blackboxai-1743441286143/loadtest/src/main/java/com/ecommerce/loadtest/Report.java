@@ -0,0 +1,52 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Prints the per-endpoint table and writes summary.json plus one HdrHistogram
+ * percentile distribution ({@code <endpoint>.hgrm}, milliseconds) per endpoint.
+ */
+public final class Report {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private Report() {
+    }
+
+    public static void print(Summary summary, LoadGenerator.PhaseResult phase, PrintStream out) {
+        out.printf("%nTarget %.1f arrivals/s, achieved %.1f/s (%d scheduled, %d dropped, generator lag max %d ms)%n%n",
+            summary.targetRate(), summary.achievedRate(), summary.scheduled(), summary.dropped(),
+            phase.maxArrivalLag().toMillis());
+        out.printf("%-22s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+            "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        summary.endpoints().forEach((name, endpoint) -> out.printf(
+            "%-22s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            name, endpoint.count(), endpoint.errors(), endpoint.throughput(), endpoint.p50Ms(), endpoint.p90Ms(),
+            endpoint.p99Ms(), endpoint.p999Ms(), endpoint.maxMs()));
+        summary.endpoints().forEach((name, endpoint) -> {
+            if (endpoint.errors() > 0) {
+                out.printf("%s status codes: %s%n", name, endpoint.statuses());
+            }
+        });
+    }
+
+    public static void write(Summary summary, Map<String, EndpointStats> stats, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        MAPPER.writeValue(directory.resolve("summary.json").toFile(), summary);
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+                entry.getValue().getLatency().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    public static Summary read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), Summary.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.loadtest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * User journeys driven by the load generator. The first request of a journey is
+ * timed from the arrival's scheduled time, so queueing behind a slow server counts
+ * against it (no coordinated omission); later requests are timed from when they
+ * are sent.
+ */
+public enum Scenario {
+    BROWSE("browse") {
+        @Override
+        void run(ApiClient api, Arrival arrival) {
+            TenantFixture tenant = arrival.tenant();
+            String token = tenant.userTokens().get(arrival.user());
+            api.get("products.list", tenant.domain(), token, "/api/products", arrival.scheduledNanos());
+            api.get("categories.list", tenant.domain(), token, "/api/categories", System.nanoTime());
+        }
+    },
+    BANNERS("banners") {
+        @Override
+        void run(ApiClient api, Arrival arrival) {
+            TenantFixture tenant = arrival.tenant();
+            api.get("banners.active", tenant.domain(), tenant.userTokens().get(arrival.user()),
+                "/api/banners/active", arrival.scheduledNanos());
+        }
+    },
+    SIGNIN("signin") {
+        @Override
+        void run(ApiClient api, Arrival arrival) {
+            TenantFixture tenant = arrival.tenant();
+            Map<String, String> login = Map.of(
+                "username", tenant.usernames().get(arrival.user()),
+                "password", tenant.password());
+            api.post("auth.signin", tenant.domain(), null, "/api/auth/signin", login, Map.of(),
+                arrival.scheduledNanos());
+        }
+    },
+    PAY("pay") {
+        @Override
+        void run(ApiClient api, Arrival arrival) {
+            TenantFixture tenant = arrival.tenant();
+            BigDecimal amount = BigDecimal.valueOf(100 + Math.floorMod(arrival.sequence() * 7919, 50_000), 2);
+            api.post("payments.create", tenant.domain(), tenant.userTokens().get(arrival.user()),
+                "/api/payments?amount=" + amount + "&paymentMethod=CARD", null,
+                Map.of("Idempotency-Key", "lt-" + arrival.run() + "-" + arrival.sequence()),
+                arrival.scheduledNanos());
+        }
+    },
+    DASHBOARD("dashboard") {
+        @Override
+        void run(ApiClient api, Arrival arrival) {
+            TenantFixture tenant = arrival.tenant();
+            String token = tenant.adminToken();
+            LocalDate today = LocalDate.now();
+            String range = "startDate=" + today.minusDays(30) + "&endDate=" + today;
+            api.get("statistics.revenue", tenant.domain(), token, "/api/statistics/revenue?" + range,
+                arrival.scheduledNanos());
+            api.get("statistics.series", tenant.domain(), token,
+                "/api/statistics/revenue/series?interval=day&" + range, System.nanoTime());
+            api.get("statistics.inventory", tenant.domain(), token, "/api/statistics/inventory",
+                System.nanoTime());
+        }
+    };
+
+    private final String key;
+
+    Scenario(String key) {
+        this.key = key;
+    }
+
+    abstract void run(ApiClient api, Arrival arrival);
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Scenario fromName(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.key.equalsIgnoreCase(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario " + name);
+    }
+
+    /**
+     * One scheduled journey.
+     *
+     * @param run      distinguishes runs against the same database (idempotency keys)
+     * @param sequence arrival number within the run
+     */
+    record Arrival(TenantFixture tenant, int user, long run, long sequence, long scheduledNanos) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeds tenants through the public endpoints, the way a tenant admin and its
+ * customers would: tenant, users, a category, products, banners and a history
+ * of payments. Tenants are seeded in parallel; the data of each tenant only
+ * depends on the seed.
+ */
+public class Seeder {
+    private static final Logger logger = LoggerFactory.getLogger(Seeder.class);
+
+    private static final Duration TOKEN_VALIDITY = Duration.ofHours(12);
+    private static final String PASSWORD = "loadtest-password";
+
+    private final ApiClient api;
+    private final TokenIssuer tokenIssuer;
+    private final LoadTestConfig config;
+
+    public Seeder(ApiClient api, TokenIssuer tokenIssuer, LoadTestConfig config) {
+        this.api = api;
+        this.tokenIssuer = tokenIssuer;
+        this.config = config;
+    }
+
+    public List<TenantFixture> seed() throws InterruptedException {
+        String adminToken = tokenIssuer.issue("loadtest-admin", TOKEN_VALIDITY);
+        List<Future<TenantFixture>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= config.tenants(); i++) {
+                int tenant = i;
+                futures.add(executor.submit(() -> seedTenant(tenant, adminToken)));
+            }
+        }
+        List<TenantFixture> tenants = new ArrayList<>(futures.size());
+        for (Future<TenantFixture> future : futures) {
+            try {
+                tenants.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding failed", e.getCause());
+            }
+        }
+        return tenants;
+    }
+
+    private TenantFixture seedTenant(int tenant, String adminToken) {
+        SplittableRandom random = new SplittableRandom(config.seed() * 31 + tenant);
+        String domain = "tenant" + tenant + ".loadtest.local";
+
+        Map<String, Object> tenantBody = new LinkedHashMap<>();
+        tenantBody.put("domain", domain);
+        tenantBody.put("name", "Load test tenant " + tenant);
+        api.post(null, "localhost", adminToken, "/api/tenants", tenantBody, Map.of(), System.nanoTime())
+            .requireSuccess("Creating tenant " + domain);
+
+        List<String> usernames = new ArrayList<>();
+        List<String> userTokens = new ArrayList<>();
+        for (int u = 1; u <= config.usersPerTenant(); u++) {
+            String username = "lt" + tenant + "u" + u;
+            Map<String, Object> signup = new LinkedHashMap<>();
+            signup.put("username", username);
+            signup.put("email", username + "@loadtest.local");
+            signup.put("password", PASSWORD);
+            api.post(null, domain, null, "/api/auth/signup", signup, Map.of(), System.nanoTime())
+                .requireSuccess("Signing up " + username);
+            usernames.add(username);
+            userTokens.add(tokenIssuer.issue(username, TOKEN_VALIDITY));
+        }
+
+        Map<String, Object> category = new LinkedHashMap<>();
+        category.put("name", "Category " + tenant);
+        category.put("description", "Seeded by the load test");
+        JsonNode createdCategory = api.readJson(api.post(null, domain, adminToken, "/api/categories", category,
+            Map.of(), System.nanoTime()).requireSuccess("Creating category").body());
+
+        for (int p = 1; p <= config.productsPerTenant(); p++) {
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("name", "Product " + tenant + "-" + p);
+            product.put("description", "Seeded product " + p);
+            product.put("price", BigDecimal.valueOf(100 + random.nextLong(100_000), 2));
+            product.put("stockQuantity", random.nextInt(200));
+            product.put("category", Map.of("id", createdCategory.get("id").asLong()));
+            api.post(null, domain, adminToken, "/api/products", product, Map.of(), System.nanoTime())
+                .requireSuccess("Creating product");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int b = 1; b <= config.bannersPerTenant(); b++) {
+            Map<String, Object> banner = new LinkedHashMap<>();
+            banner.put("title", "Banner " + b);
+            banner.put("imageUrl", "https://cdn.loadtest.local/banners/" + b + ".jpg");
+            banner.put("displayOrder", b);
+            banner.put("isActive", true);
+            banner.put("startDate", now.minusDays(1).toString());
+            banner.put("endDate", now.plusDays(30).toString());
+            banner.put("createdAt", now.toString());
+            api.post(null, domain, adminToken, "/api/banners", banner, Map.of(), System.nanoTime())
+                .requireSuccess("Creating banner");
+        }
+
+        for (int p = 0; p < config.paymentsPerTenant(); p++) {
+            String token = userTokens.get(random.nextInt(userTokens.size()));
+            String query = "/api/payments?amount=" + BigDecimal.valueOf(100 + random.nextLong(50_000), 2)
+                + "&paymentMethod=CARD";
+            api.post(null, domain, token, query, null, Map.of(), System.nanoTime())
+                .requireSuccess("Creating payment");
+        }
+
+        logger.info("Seeded {}: {} users, {} products, {} banners, {} payments", domain, usernames.size(),
+            config.productsPerTenant(), config.bannersPerTenant(), config.paymentsPerTenant());
+        return new TenantFixture(domain, adminToken, usernames, userTokens, PASSWORD);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of a measured phase, written as summary.json and read back as a
+ * baseline. Latencies are in milliseconds, rates per second.
+ */
+public record Summary(double targetRate, double achievedRate, long scheduled, long dropped,
+                      double durationSeconds, long seed, Map<String, Endpoint> endpoints) {
+
+    public static Summary of(LoadTestConfig config, LoadGenerator.PhaseResult phase,
+                             Map<String, EndpointStats> stats) {
+        double seconds = config.duration().toMillis() / 1000.0;
+        Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+        stats.forEach((name, endpoint) -> {
+            Histogram latency = endpoint.getLatency();
+            endpoints.put(name, new Endpoint(
+                endpoint.getCount(),
+                endpoint.getErrors(),
+                endpoint.getCount() / seconds,
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()),
+                endpoint.getStatuses()));
+        });
+        return new Summary(config.rate(), (phase.scheduled() - phase.dropped()) / seconds, phase.scheduled(),
+            phase.dropped(), seconds, config.seed(), endpoints);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public record Endpoint(long count, long errors, double throughput, double p50Ms, double p90Ms,
+                           double p99Ms, double p999Ms, double maxMs, Map<Integer, Long> statuses) {
+        public double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+}
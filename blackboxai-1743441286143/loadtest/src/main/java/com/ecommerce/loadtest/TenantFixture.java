@@ -0,0 +1,10 @@
+package com.ecommerce.loadtest;
+
+import java.util.List;
+
+/**
+ * A seeded tenant: its host name, an admin token and its users with their tokens.
+ */
+public record TenantFixture(String domain, String adminToken, List<String> usernames, List<String> userTokens,
+                            String password) {
+}
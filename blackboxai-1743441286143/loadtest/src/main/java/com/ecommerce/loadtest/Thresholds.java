@@ -0,0 +1,87 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Pass/fail limits from a properties file, see thresholds.properties. A limit
+ * {@code <endpoint>.<name>} overrides the default {@code <name>}.
+ */
+public class Thresholds {
+    private final Properties limits;
+
+    private Thresholds(Properties limits) {
+        this.limits = limits;
+    }
+
+    public static Thresholds load(Path file) throws IOException {
+        Properties limits = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            limits.load(reader);
+        }
+        return new Thresholds(limits);
+    }
+
+    /**
+     * Violated limits, empty when the run passes. {@code baseline} may be null.
+     */
+    public List<String> check(Summary summary, Summary baseline) {
+        List<String> violations = new ArrayList<>();
+        Double minRatio = limit(null, "min-throughput-ratio");
+        if (minRatio != null && summary.achievedRate() < summary.targetRate() * minRatio) {
+            violations.add(String.format("achieved %.1f arrivals/s, below %.0f%% of target %.1f/s",
+                summary.achievedRate(), minRatio * 100, summary.targetRate()));
+        }
+
+        for (Map.Entry<String, Summary.Endpoint> entry : summary.endpoints().entrySet()) {
+            String name = entry.getKey();
+            Summary.Endpoint endpoint = entry.getValue();
+            Double maxErrorRate = limit(name, "max-error-rate");
+            if (maxErrorRate != null && endpoint.errorRate() > maxErrorRate) {
+                violations.add(String.format("%s error rate %.2f%% above %.2f%%",
+                    name, endpoint.errorRate() * 100, maxErrorRate * 100));
+            }
+            checkMax(violations, name, "p99-ms", endpoint.p99Ms());
+            checkMax(violations, name, "p999-ms", endpoint.p999Ms());
+
+            Summary.Endpoint previous = baseline != null ? baseline.endpoints().get(name) : null;
+            if (previous == null) {
+                continue;
+            }
+            Double maxP99Regression = limit(name, "max-p99-regression-percent");
+            if (maxP99Regression != null && previous.p99Ms() > 0
+                && endpoint.p99Ms() > previous.p99Ms() * (1 + maxP99Regression / 100)) {
+                violations.add(String.format("%s p99 %.2f ms regressed more than %.0f%% from baseline %.2f ms",
+                    name, endpoint.p99Ms(), maxP99Regression, previous.p99Ms()));
+            }
+            Double maxThroughputRegression = limit(name, "max-throughput-regression-percent");
+            if (maxThroughputRegression != null
+                && endpoint.throughput() < previous.throughput() * (1 - maxThroughputRegression / 100)) {
+                violations.add(String.format("%s throughput %.1f req/s regressed more than %.0f%% from baseline %.1f",
+                    name, endpoint.throughput(), maxThroughputRegression, previous.throughput()));
+            }
+        }
+        return violations;
+    }
+
+    private void checkMax(List<String> violations, String endpoint, String name, double value) {
+        Double max = limit(endpoint, name);
+        if (max != null && value > max) {
+            violations.add(String.format("%s %s %.2f above %.2f", endpoint, name, value, max));
+        }
+    }
+
+    private Double limit(String endpoint, String name) {
+        String value = endpoint != null ? limits.getProperty(endpoint + "." + name) : null;
+        if (value == null) {
+            value = limits.getProperty(name);
+        }
+        return value != null ? Double.valueOf(value.trim()) : null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.loadtest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Issues bearer tokens accepted by {@link LoadTestSecurityConfig}.
+ */
+public class TokenIssuer {
+    private final Key key;
+
+    public TokenIssuer(String secret) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String issue(String username, Duration validity) {
+        Date now = new Date();
+        return Jwts.builder()
+            .setSubject(username)
+            .setIssuedAt(now)
+            .setExpiration(new Date(now.getTime() + validity.toMillis()))
+            .signWith(key, SignatureAlgorithm.HS256)
+            .compact();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.api.analytics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dictionary encoding of low-cardinality strings (status, payment method) to a
+ * byte code. Codes are never reused; once 255 values exist every new value maps
+ * to {@link #OVERFLOW_CODE}.
+ */
+final class ByteDictionary {
+    static final byte OVERFLOW_CODE = (byte) 255;
+    static final String OVERFLOW_VALUE = "other";
+
+    private final ConcurrentMap<String, Byte> codes = new ConcurrentHashMap<>();
+    private final String[] values = new String[256];
+    private int nextCode;
+
+    ByteDictionary() {
+        values[255] = OVERFLOW_VALUE;
+    }
+
+    byte encode(String value) {
+        Byte code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (nextCode >= 255) {
+                return OVERFLOW_CODE;
+            }
+            byte assigned = (byte) nextCode++;
+            values[assigned & 0xFF] = value;
+            codes.put(value, assigned);
+            return assigned;
+        }
+    }
+
+    /**
+     * Code for an already known value, or -1 (as int) when the value never occurred.
+     */
+    int lookup(String value) {
+        Byte code = codes.get(value);
+        return code == null ? -1 : code & 0xFF;
+    }
+
+    String decode(byte code) {
+        return values[code & 0xFF];
+    }
+}
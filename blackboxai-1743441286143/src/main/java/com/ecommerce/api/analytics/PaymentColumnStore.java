@@ -0,0 +1,457 @@
+package com.ecommerce.api.analytics;
+
+import com.ecommerce.api.model.Money;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Append-only, per-tenant columnar copy of terminal payments for fast scans.
+ *
+ * Each tenant owns a growing list of {@link PaymentSegment}s holding primitive
+ * columns: amount in minor units, epoch day, epoch second, user id and
+ * dictionary-encoded status and payment method (about 30 bytes per payment). Scan
+ * kernels split the segment list with fork-join, skip segments whose day zone map
+ * misses the range and merge per-segment partial results.
+ *
+ * Appends for one tenant are serialized; scans never lock and see a consistent
+ * prefix of every segment.
+ *
+ * The store only answers queries once {@link #isReady()}: {@link PaymentColumnStoreLoader}
+ * fills it in the background while live terminal transitions are held back by
+ * payment id, and {@link #finishLoad} replays those the load did not already see.
+ * Live appends outside a load, or while the store is disabled, are dropped.
+ */
+@Component
+public class PaymentColumnStore {
+    // Segments per leaf task; small enough to spread a large tenant over all cores
+    private static final int SEGMENTS_PER_TASK = 4;
+
+    private final ConcurrentMap<Long, TenantColumns> tenants = new ConcurrentHashMap<>();
+    private final ByteDictionary statuses = new ByteDictionary();
+    private final ByteDictionary methods = new ByteDictionary();
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private final Object loadLock = new Object();
+    // Live appends held back while a load runs, by payment id; null outside a load
+    private Map<Long, Runnable> deferred;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Records a payment that just reached a terminal status.
+     */
+    public void appendLive(Long paymentId, Long tenantId, Long userId, Money amount, LocalDateTime paymentDate,
+                           String status, String paymentMethod) {
+        if (!ready) {
+            synchronized (loadLock) {
+                if (deferred != null) {
+                    deferred.put(paymentId, () -> append(tenantId, userId, amount, paymentDate, status, paymentMethod));
+                    return;
+                }
+                if (!ready) {
+                    return;
+                }
+            }
+        }
+        append(tenantId, userId, amount, paymentDate, status, paymentMethod);
+    }
+
+    /**
+     * Starts holding back live appends; call before the load's first read.
+     */
+    public void beginLoad() {
+        synchronized (loadLock) {
+            deferred = new HashMap<>();
+        }
+    }
+
+    /**
+     * Replays the held-back appends except those {@code loadedAmong} reports the
+     * load already contained, then makes the store ready. Live appends wait meanwhile.
+     */
+    public void finishLoad(Function<Set<Long>, Set<Long>> loadedAmong) {
+        synchronized (loadLock) {
+            Set<Long> loaded = deferred.isEmpty() ? Set.of() : loadedAmong.apply(deferred.keySet());
+            deferred.forEach((paymentId, append) -> {
+                if (!loaded.contains(paymentId)) {
+                    append.run();
+                }
+            });
+            deferred = null;
+            ready = true;
+        }
+    }
+
+    public void abortLoad() {
+        synchronized (loadLock) {
+            deferred = null;
+            tenants.clear();
+        }
+    }
+
+    public void append(Long tenantId, Long userId, Money amount, LocalDateTime paymentDate,
+                       String status, String paymentMethod) {
+        if (tenantId == null || amount == null || paymentDate == null) {
+            return;
+        }
+        long amountMinor = amount.getMinorUnits();
+        long epochSecond = paymentDate.toEpochSecond(ZoneOffset.UTC);
+        int epochDay = (int) paymentDate.toLocalDate().toEpochDay();
+        byte statusCode = statuses.encode(status);
+        byte methodCode = methods.encode(paymentMethod == null ? "" : paymentMethod);
+        tenants.computeIfAbsent(tenantId, id -> new TenantColumns())
+            .append(amountMinor, epochDay, epochSecond, userId == null ? 0L : userId, statusCode, methodCode);
+    }
+
+    public long rowCount(Long tenantId) {
+        TenantColumns columns = tenants.get(tenantId);
+        if (columns == null) {
+            return 0;
+        }
+        long rows = 0;
+        for (PaymentSegment segment : columns.segments) {
+            rows += segment.size;
+        }
+        return rows;
+    }
+
+    /**
+     * Sum (minor units) and count of payments with the given status whose day lies
+     * in {@code [fromDay, toDay]}; returns {@code {sum, count}}.
+     */
+    public long[] sumAndCount(Long tenantId, int fromDay, int toDay, String status) {
+        TenantColumns columns = tenants.get(tenantId);
+        int statusCode = statuses.lookup(status);
+        if (columns == null || statusCode < 0) {
+            return new long[2];
+        }
+        PaymentSegment[] segments = columns.segments;
+        return pool.invoke(new SumTask(segments, 0, segments.length, fromDay, toDay, (byte) statusCode));
+    }
+
+    /**
+     * Daily sums (minor units) for {@code [fromDay, toDay]}; index 0 is {@code fromDay}.
+     * Returns {@code {sums, counts}}.
+     */
+    public long[][] dailySumAndCount(Long tenantId, int fromDay, int toDay, String status) {
+        int days = toDay - fromDay + 1;
+        TenantColumns columns = tenants.get(tenantId);
+        int statusCode = statuses.lookup(status);
+        if (columns == null || statusCode < 0 || days <= 0) {
+            return new long[][]{new long[Math.max(days, 0)], new long[Math.max(days, 0)]};
+        }
+        PaymentSegment[] segments = columns.segments;
+        return pool.invoke(new DailyTask(segments, 0, segments.length, fromDay, toDay, (byte) statusCode));
+    }
+
+    /**
+     * Sums (minor units) and counts per bucket {@code [boundaries[i], boundaries[i + 1])},
+     * boundaries being ascending payment-date epoch seconds as appended (i.e.
+     * {@code paymentDate.toEpochSecond(UTC)}). Returns {@code {sums, counts}}.
+     */
+    public long[][] bucketSumAndCount(Long tenantId, long[] boundaries, String status) {
+        int buckets = Math.max(boundaries.length - 1, 0);
+        TenantColumns columns = tenants.get(tenantId);
+        int statusCode = statuses.lookup(status);
+        if (columns == null || statusCode < 0 || buckets == 0) {
+            return new long[][]{new long[buckets], new long[buckets]};
+        }
+        PaymentSegment[] segments = columns.segments;
+        // Each leaf allocates a full set of bucket arrays, so only split as far as there are cores to use
+        int grain = Math.max(SEGMENTS_PER_TASK, segments.length / (pool.getParallelism() * 4));
+        return pool.invoke(new BucketTask(segments, 0, segments.length, grain, boundaries, (byte) statusCode));
+    }
+
+    /**
+     * Per payment-method sums (minor units) and counts, indexed by dictionary code;
+     * use {@link #paymentMethodName(int)} to decode.
+     */
+    public long[][] sumAndCountByMethod(Long tenantId, int fromDay, int toDay, String status) {
+        TenantColumns columns = tenants.get(tenantId);
+        int statusCode = statuses.lookup(status);
+        if (columns == null || statusCode < 0) {
+            return new long[][]{new long[256], new long[256]};
+        }
+        PaymentSegment[] segments = columns.segments;
+        return pool.invoke(new MethodTask(segments, 0, segments.length, fromDay, toDay, (byte) statusCode));
+    }
+
+    public String paymentMethodName(int code) {
+        return methods.decode((byte) code);
+    }
+
+    public void clear() {
+        tenants.clear();
+    }
+
+    private static final class TenantColumns {
+        // Copy-on-write array of segments; only the last one is still being filled
+        private volatile PaymentSegment[] segments = {new PaymentSegment()};
+
+        synchronized void append(long amount, int day, long second, long user, byte status, byte method) {
+            PaymentSegment[] current = segments;
+            PaymentSegment last = current[current.length - 1];
+            if (last.isFull()) {
+                last = new PaymentSegment();
+                PaymentSegment[] grown = Arrays.copyOf(current, current.length + 1);
+                grown[current.length] = last;
+                segments = grown;
+            }
+            last.append(amount, day, second, user, status, method);
+        }
+    }
+
+    private static final class SumTask extends RecursiveTask<long[]> {
+        private final PaymentSegment[] segments;
+        private final int from;
+        private final int to;
+        private final int fromDay;
+        private final int toDay;
+        private final byte status;
+
+        SumTask(PaymentSegment[] segments, int from, int to, int fromDay, int toDay, byte status) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.status = status;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > SEGMENTS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                SumTask left = new SumTask(segments, from, mid, fromDay, toDay, status);
+                left.fork();
+                long[] right = new SumTask(segments, mid, to, fromDay, toDay, status).compute();
+                long[] leftResult = left.join();
+                return new long[]{Math.addExact(leftResult[0], right[0]), leftResult[1] + right[1]};
+            }
+            long sum = 0;
+            long count = 0;
+            for (int s = from; s < to; s++) {
+                PaymentSegment segment = segments[s];
+                int size = segment.size;
+                if (!segment.overlaps(fromDay, toDay)) {
+                    continue;
+                }
+                boolean fullyInside = segment.minDay >= fromDay && segment.maxDay <= toDay;
+                long[] amounts = segment.amountMinor;
+                int[] days = segment.epochDay;
+                byte[] statuses = segment.status;
+                for (int i = 0; i < size; i++) {
+                    if (statuses[i] == status && (fullyInside || (days[i] >= fromDay && days[i] <= toDay))) {
+                        sum += amounts[i];
+                        count++;
+                    }
+                }
+            }
+            return new long[]{sum, count};
+        }
+    }
+
+    private static final class DailyTask extends RecursiveTask<long[][]> {
+        private final PaymentSegment[] segments;
+        private final int from;
+        private final int to;
+        private final int fromDay;
+        private final int toDay;
+        private final byte status;
+
+        DailyTask(PaymentSegment[] segments, int from, int to, int fromDay, int toDay, byte status) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.status = status;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (to - from > SEGMENTS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                DailyTask left = new DailyTask(segments, from, mid, fromDay, toDay, status);
+                left.fork();
+                long[][] right = new DailyTask(segments, mid, to, fromDay, toDay, status).compute();
+                long[][] merged = left.join();
+                for (int d = 0; d < merged[0].length; d++) {
+                    merged[0][d] += right[0][d];
+                    merged[1][d] += right[1][d];
+                }
+                return merged;
+            }
+            int days = toDay - fromDay + 1;
+            long[] sums = new long[days];
+            long[] counts = new long[days];
+            for (int s = from; s < to; s++) {
+                PaymentSegment segment = segments[s];
+                int size = segment.size;
+                if (!segment.overlaps(fromDay, toDay)) {
+                    continue;
+                }
+                long[] amounts = segment.amountMinor;
+                int[] epochDays = segment.epochDay;
+                byte[] statuses = segment.status;
+                for (int i = 0; i < size; i++) {
+                    int offset = epochDays[i] - fromDay;
+                    if (statuses[i] == status && offset >= 0 && offset < days) {
+                        sums[offset] += amounts[i];
+                        counts[offset]++;
+                    }
+                }
+            }
+            return new long[][]{sums, counts};
+        }
+    }
+
+    private static final class MethodTask extends RecursiveTask<long[][]> {
+        private final PaymentSegment[] segments;
+        private final int from;
+        private final int to;
+        private final int fromDay;
+        private final int toDay;
+        private final byte status;
+
+        MethodTask(PaymentSegment[] segments, int from, int to, int fromDay, int toDay, byte status) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.status = status;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (to - from > SEGMENTS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                MethodTask left = new MethodTask(segments, from, mid, fromDay, toDay, status);
+                left.fork();
+                long[][] right = new MethodTask(segments, mid, to, fromDay, toDay, status).compute();
+                long[][] merged = left.join();
+                for (int m = 0; m < 256; m++) {
+                    merged[0][m] += right[0][m];
+                    merged[1][m] += right[1][m];
+                }
+                return merged;
+            }
+            long[] sums = new long[256];
+            long[] counts = new long[256];
+            for (int s = from; s < to; s++) {
+                PaymentSegment segment = segments[s];
+                int size = segment.size;
+                if (!segment.overlaps(fromDay, toDay)) {
+                    continue;
+                }
+                long[] amounts = segment.amountMinor;
+                int[] days = segment.epochDay;
+                byte[] statuses = segment.status;
+                byte[] methods = segment.method;
+                for (int i = 0; i < size; i++) {
+                    if (statuses[i] == status && days[i] >= fromDay && days[i] <= toDay) {
+                        int m = methods[i] & 0xFF;
+                        sums[m] += amounts[i];
+                        counts[m]++;
+                    }
+                }
+            }
+            return new long[][]{sums, counts};
+        }
+    }
+
+    /**
+     * Index of the bucket {@code [boundaries[i], boundaries[i + 1])} containing
+     * {@code second}; with equal boundaries the last (only non-empty) one wins.
+     */
+    public static int bucketOf(long[] boundaries, long second) {
+        int bucket = Arrays.binarySearch(boundaries, second);
+        if (bucket < 0) {
+            return -bucket - 2;
+        }
+        while (bucket + 2 < boundaries.length && boundaries[bucket + 1] == second) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static final class BucketTask extends RecursiveTask<long[][]> {
+        private final PaymentSegment[] segments;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final long[] boundaries;
+        private final byte status;
+
+        BucketTask(PaymentSegment[] segments, int from, int to, int grain, long[] boundaries, byte status) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.boundaries = boundaries;
+            this.status = status;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (to - from > grain) {
+                int mid = (from + to) >>> 1;
+                BucketTask left = new BucketTask(segments, from, mid, grain, boundaries, status);
+                left.fork();
+                long[][] right = new BucketTask(segments, mid, to, grain, boundaries, status).compute();
+                long[][] merged = left.join();
+                for (int b = 0; b < merged[0].length; b++) {
+                    merged[0][b] += right[0][b];
+                    merged[1][b] += right[1][b];
+                }
+                return merged;
+            }
+            int buckets = boundaries.length - 1;
+            long[] sums = new long[buckets];
+            long[] counts = new long[buckets];
+            long first = boundaries[0];
+            long end = boundaries[buckets];
+            int fromDay = (int) Math.floorDiv(first, 86_400L);
+            int toDay = (int) Math.floorDiv(end - 1, 86_400L);
+            for (int s = from; s < to; s++) {
+                PaymentSegment segment = segments[s];
+                int size = segment.size;
+                if (!segment.overlaps(fromDay, toDay)) {
+                    continue;
+                }
+                long[] amounts = segment.amountMinor;
+                long[] seconds = segment.epochSecond;
+                byte[] statuses = segment.status;
+                // Rows arrive roughly in time order, so the previous row's bucket is the best guess
+                int bucket = 0;
+                for (int i = 0; i < size; i++) {
+                    long second = seconds[i];
+                    if (statuses[i] != status || second < first || second >= end) {
+                        continue;
+                    }
+                    if (second < boundaries[bucket] || second >= boundaries[bucket + 1]) {
+                        bucket = bucketOf(boundaries, second);
+                    }
+                    sums[bucket] += amounts[i];
+                    counts[bucket]++;
+                }
+            }
+            return new long[][]{sums, counts};
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.api.analytics;
+
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.PaymentStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fills the {@link PaymentColumnStore} from the payments table once the
+ * application is up, on a background thread; statistics are served from SQL
+ * until the store is ready.
+ *
+ * All pages are read in one repeatable-read transaction, i.e. from one InnoDB
+ * snapshot. Live terminal transitions are held back from just before the first
+ * read, and only those the snapshot did not already contain as terminal are
+ * replayed, so every terminal payment is counted exactly once. Rows are read in
+ * id-ordered pages to keep driver memory bounded.
+ */
+@Component
+public class PaymentColumnStoreLoader {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentColumnStoreLoader.class);
+
+    private static final String PAGE_QUERY = "SELECT id, tenant_id, user_id, amount, payment_date, status, payment_method " +
+        "FROM payments WHERE id > :lastId AND status IN (:statuses) ORDER BY id LIMIT :limit";
+    private static final String TERMINAL_AMONG_QUERY = "SELECT id FROM payments WHERE id IN (:ids) AND status IN (:statuses)";
+    private static final int IDS_PER_QUERY = 1000;
+    private static final List<String> TERMINAL_STATUSES = List.of(PaymentStatus.COMPLETED.name(), PaymentStatus.FAILED.name());
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PaymentColumnStore columnStore;
+
+    @Value("${analytics.column-store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${analytics.column-store.load-page-size:50000}")
+    private int pageSize;
+
+    private Thread loaderThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        if (!enabled) {
+            return;
+        }
+        loaderThread = new Thread(this::load, "column-store-loader");
+        loaderThread.setDaemon(true);
+        loaderThread.start();
+    }
+
+    void load() {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        long start = System.nanoTime();
+        columnStore.beginLoad();
+        try {
+            long rows = snapshot.execute(status -> {
+                long loaded = loadPages();
+                columnStore.finishLoad(this::terminalAmong);
+                return loaded;
+            });
+            logger.info("Loaded {} payments into the column store in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            columnStore.abortLoad();
+            logger.error("Column store load failed; statistics stay on SQL", e);
+        }
+    }
+
+    private long loadPages() {
+        long lastId = Long.MIN_VALUE;
+        long rows = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            long[] pageState = {lastId, 0};
+            MapSqlParameterSource params = new MapSqlParameterSource("lastId", lastId)
+                .addValue("statuses", TERMINAL_STATUSES)
+                .addValue("limit", pageSize);
+            jdbcTemplate.query(PAGE_QUERY, params, rs -> {
+                pageState[0] = rs.getLong("id");
+                pageState[1]++;
+                columnStore.append(rs.getObject("tenant_id", Long.class), rs.getLong("user_id"),
+                    Money.of(rs.getBigDecimal("amount")), rs.getTimestamp("payment_date").toLocalDateTime(),
+                    rs.getString("status"), rs.getString("payment_method"));
+            });
+            rows += pageState[1];
+            lastId = pageState[0];
+            if (pageState[1] < pageSize) {
+                return rows;
+            }
+        }
+        throw new IllegalStateException("Column store load interrupted");
+    }
+
+    // Runs inside the snapshot: which of the held-back payments the load already saw as terminal
+    private Set<Long> terminalAmong(Set<Long> paymentIds) {
+        Set<Long> terminal = new HashSet<>();
+        List<Long> ids = new ArrayList<>(paymentIds);
+        for (int from = 0; from < ids.size(); from += IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IDS_PER_QUERY, ids.size()));
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", chunk)
+                .addValue("statuses", TERMINAL_STATUSES);
+            terminal.addAll(jdbcTemplate.queryForList(TERMINAL_AMONG_QUERY, params, Long.class));
+        }
+        return terminal;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (loaderThread != null) {
+            loaderThread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.api.analytics;
+
+/**
+ * Sketches for one tenant and day: distinct paying users and order values in
+ * minor units. Not thread-safe; callers serialize access.
+ */
+public final class PaymentDaySketch {
+    private final HyperLogLog buyers;
+    private final QuantileSketch orderValues;
+
+    public PaymentDaySketch() {
+        this(new HyperLogLog(), new QuantileSketch());
+    }
+
+    public PaymentDaySketch(HyperLogLog buyers, QuantileSketch orderValues) {
+        this.buyers = buyers;
+        this.orderValues = orderValues;
+    }
+
+    public void add(long userId, long amountMinor) {
+        buyers.add(userId);
+        orderValues.add(amountMinor);
+    }
+
+    public void merge(PaymentDaySketch other) {
+        buyers.merge(other.buyers);
+        orderValues.merge(other.orderValues);
+    }
+
+    public PaymentDaySketch copy() {
+        return new PaymentDaySketch(buyers.copy(), orderValues.copy());
+    }
+
+    public HyperLogLog getBuyers() {
+        return buyers;
+    }
+
+    public QuantileSketch getOrderValues() {
+        return orderValues;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.api.analytics;
+
+/**
+ * Fixed-capacity block of payment columns. Only the owning tenant's writer
+ * appends; readers see rows {@code [0, size)} because {@link #size} is published
+ * after the column values and zone map are written.
+ */
+final class PaymentSegment {
+    static final int CAPACITY = 8192;
+
+    final long[] amountMinor = new long[CAPACITY];
+    final int[] epochDay = new int[CAPACITY];
+    final long[] epochSecond = new long[CAPACITY];
+    final long[] userId = new long[CAPACITY];
+    final byte[] status = new byte[CAPACITY];
+    final byte[] method = new byte[CAPACITY];
+
+    // Zone map: lets range scans skip whole segments
+    int minDay = Integer.MAX_VALUE;
+    int maxDay = Integer.MIN_VALUE;
+
+    volatile int size;
+
+    boolean isFull() {
+        return size == CAPACITY;
+    }
+
+    void append(long amount, int day, long second, long user, byte statusCode, byte methodCode) {
+        int row = size;
+        amountMinor[row] = amount;
+        epochDay[row] = day;
+        epochSecond[row] = second;
+        userId[row] = user;
+        status[row] = statusCode;
+        method[row] = methodCode;
+        if (day < minDay) {
+            minDay = day;
+        }
+        if (day > maxDay) {
+            maxDay = day;
+        }
+        size = row + 1;
+    }
+
+    boolean overlaps(int fromDay, int toDay) {
+        return size > 0 && minDay <= toDay && maxDay >= fromDay;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.api.analytics;
+
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar bucket sizes for time series, evaluated in the caller's time zone so
+ * that days, weeks (ISO, starting Monday) and months follow local midnight and
+ * hours stay one real hour long across DST changes.
+ */
+public enum TimeBucket {
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH;
+
+    public ZonedDateTime truncate(ZonedDateTime time) {
+        switch (this) {
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.toLocalDate().atStartOfDay(time.getZone());
+            case WEEK:
+                return time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    .atStartOfDay(time.getZone());
+            case MONTH:
+                return time.toLocalDate().withDayOfMonth(1).atStartOfDay(time.getZone());
+            default:
+                throw new IllegalStateException("Unknown bucket " + this);
+        }
+    }
+
+    /**
+     * Start of the bucket following the one containing {@code time}.
+     */
+    public ZonedDateTime next(ZonedDateTime time) {
+        ZonedDateTime start = truncate(time);
+        switch (this) {
+            case HOUR:
+                return start.plusHours(1);
+            case DAY:
+                return start.toLocalDate().plusDays(1).atStartOfDay(time.getZone());
+            case WEEK:
+                return start.toLocalDate().plusWeeks(1).atStartOfDay(time.getZone());
+            case MONTH:
+                return start.toLocalDate().plusMonths(1).atStartOfDay(time.getZone());
+            default:
+                throw new IllegalStateException("Unknown bucket " + this);
+        }
+    }
+}
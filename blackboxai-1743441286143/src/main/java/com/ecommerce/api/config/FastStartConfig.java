@@ -0,0 +1,60 @@
+package com.ecommerce.api.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Support for the fast-start profile (see fast-start/README.md): which beans stay
+ * eager under {@code spring.main.lazy-initialization}, and the training run that
+ * records the class-data-sharing archive.
+ */
+@Configuration
+public class FastStartConfig {
+    private static final Logger logger = LoggerFactory.getLogger(FastStartConfig.class);
+
+    @Value("${startup.training-run:false}")
+    private boolean trainingRun;
+
+    /**
+     * Scheduled jobs are only registered once their bean exists, and the entity
+     * manager factory should start building (in the background with lazy
+     * repository bootstrap) at startup rather than on the first request.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) -> EntityManagerFactory.class.isAssignableFrom(beanType)
+            || AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType)
+            || hasScheduledMethods(beanType);
+    }
+
+    /**
+     * Ends a training run once everything that runs at startup has been loaded;
+     * the JVM writes the archive given by -XX:ArchiveClassesAtExit on exit.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void exitAfterTrainingRun(ApplicationReadyEvent event) {
+        if (trainingRun) {
+            logger.info("Training run finished, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+        }
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return AnnotationUtils.isCandidateClass(beanType, Scheduled.class)
+            && !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.api.config;
+
+import com.ecommerce.api.metrics.MeteredDataSource;
+import com.ecommerce.api.metrics.SqlStatementRecorder;
+import com.ecommerce.api.metrics.TenantServerRequestObservationConvention;
+import com.ecommerce.api.metrics.TenantTagLimiter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Request, JDBC and connection-pool metrics. Timers and histograms are configured
+ * under {@code management.metrics.*}; the uri tag is capped here as a last guard
+ * against unbounded series from unmatched paths.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public static BeanPostProcessor meteredDataSourcePostProcessor(ObjectProvider<SqlStatementRecorder> statementRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only pools: proxies and routing data sources in front of them are already covered
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                    return new MeteredDataSource(dataSource, statementRecorder);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public TenantServerRequestObservationConvention tenantServerRequestObservationConvention(
+            TenantTagLimiter tenantTagLimiter) {
+        return new TenantServerRequestObservationConvention(tenantTagLimiter);
+    }
+
+    @Bean
+    public MeterFilter httpUriTagLimit(@Value("${metrics.uri-tag.max-values:200}") int maxUris) {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", maxUris, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter jpaRequestUriTagLimit(@Value("${metrics.uri-tag.max-values:200}") int maxUris) {
+        return MeterFilter.maximumAllowableTags("jpa.request", "uri", maxUris, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.api.config;
+
+import com.ecommerce.api.datasource.ReadYourWritesFilter;
+import com.ecommerce.api.datasource.ReadYourWritesTracker;
+import com.ecommerce.api.datasource.ReplicaHealth;
+import com.ecommerce.api.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary and replica pools behind a {@link ReplicaRoutingDataSource}, enabled by
+ * {@code datasource.replica.enabled}. The primary is configured by the usual
+ * {@code spring.datasource.*} properties, the replica by {@code datasource.replica.*}
+ * (pool settings under {@code datasource.replica.hikari.*}). Flyway migrates the
+ * primary pool, not the routing data source. Without a replica Boot's single
+ * auto-configured pool is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    @Value("${datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}")
+    private String replicaDriverClassName;
+
+    @Value("${datasource.replica.migrate:false}")
+    private boolean migrateReplica;
+
+    @Value("${spring.flyway.locations:classpath:db/migration}")
+    private String[] migrationLocations;
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(replicaUrl)
+            .username(replicaUsername)
+            .password(replicaPassword);
+        if (StringUtils.hasText(replicaDriverClassName)) {
+            builder.driverClassName(replicaDriverClassName);
+        }
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealth replicaHealth(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                       @Value("${datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                                       @Value("${datasource.replica.max-lag-seconds:5}") long maxLagSeconds) {
+        if (migrateReplica) {
+            // Local setups with an embedded replica: apply the primary's migrations to it too
+            Flyway.configure().dataSource(replicaDataSource).locations(migrationLocations).load().migrate();
+        }
+        // Reads stay on the primary until the first scheduled check has seen the replica
+        return new ReplicaHealth(replicaDataSource, lagQuery, maxLagSeconds);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${datasource.replica.read-your-writes-seconds:10}") long windowSeconds) {
+        return new ReadYourWritesTracker(windowSeconds);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        return new ReadYourWritesFilter(readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaHealth replicaHealth, ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+            replicaHealth, readYourWritesTracker));
+    }
+}
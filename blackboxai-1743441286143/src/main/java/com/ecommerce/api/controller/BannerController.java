@@ -1,7 +1,9 @@
 package com.ecommerce.api.controller;
 
 import com.ecommerce.api.model.Banner;
+import com.ecommerce.api.payload.request.BannerBulkUpdateRequest;
 import com.ecommerce.api.service.BannerService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,17 +14,23 @@ import java.util.List;
 @RequestMapping("/api/banners")
 public class BannerController {
 
+    private static final String BANNER_SET_VERSION_HEADER = "X-Banner-Set-Version";
+
     @Autowired
     private BannerService bannerService;
 
     @GetMapping
     public ResponseEntity<List<Banner>> getAllBanners() {
-        return ResponseEntity.ok(bannerService.getAllBanners());
+        return ResponseEntity.ok()
+            .header(BANNER_SET_VERSION_HEADER, String.valueOf(bannerService.getBannerSetVersion()))
+            .body(bannerService.getAllBanners());
     }
 
     @GetMapping("/active")
     public ResponseEntity<List<Banner>> getActiveBanners() {
-        return ResponseEntity.ok(bannerService.getActiveBanners());
+        return ResponseEntity.ok()
+            .header(BANNER_SET_VERSION_HEADER, String.valueOf(bannerService.getBannerSetVersion()))
+            .body(bannerService.getActiveBanners());
     }
 
     @GetMapping("/{id}")
@@ -55,6 +63,14 @@ public class BannerController {
         return ResponseEntity.ok(bannerService.updateBannerOrder(id, order));
     }
 
+    @PutMapping("/bulk")
+    public ResponseEntity<List<Banner>> bulkUpdateBanners(@Valid @RequestBody BannerBulkUpdateRequest request) {
+        List<Banner> banners = bannerService.bulkUpdateBanners(request);
+        return ResponseEntity.ok()
+            .header(BANNER_SET_VERSION_HEADER, String.valueOf(bannerService.getBannerSetVersion()))
+            .body(banners);
+    }
+
     @PutMapping("/{id}/toggle-active")
     public ResponseEntity<Banner> toggleBannerActive(@PathVariable Long id) {
         return ResponseEntity.ok(bannerService.toggleBannerActive(id));
@@ -1,14 +1,18 @@
 package com.ecommerce.api.controller;
 
-import com.ecommerce.api.model.Payment;
 import com.ecommerce.api.model.User;
+import com.ecommerce.api.payload.response.PaymentHistoryResponse;
+import com.ecommerce.api.payload.response.PaymentResponse;
+import com.ecommerce.api.service.AuthService;
 import com.ecommerce.api.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -16,12 +20,38 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private AuthService authService;
+
     @PostMapping
-    public Payment processPayment(@RequestParam BigDecimal amount,
-                                @RequestParam String paymentMethod) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = (User) authentication.getPrincipal();
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public PaymentResponse processPayment(@RequestParam BigDecimal amount,
+                                          @RequestParam String paymentMethod,
+                                          @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return PaymentResponse.of(paymentService.processPayment(currentUser(), amount, paymentMethod, idempotencyKey));
+    }
+
+    @GetMapping("/me")
+    public PaymentHistoryResponse getMyPayments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate) {
+        return paymentService.getPaymentHistory(currentUser().getId(), cursor, size, status, startDate, endDate);
+    }
+
+    @GetMapping("/{id}")
+    public PaymentResponse getPayment(@PathVariable Long id) {
+        return paymentService.getPayment(currentUser().getId(), id);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPaymentStatus(@PathVariable Long id) {
+        return paymentService.subscribeToPayment(currentUser().getId(), id);
+    }
 
-        return paymentService.processPayment(user, amount, paymentMethod);
+    private User currentUser() {
+        return authService.getCurrentUser();
     }
 }
\ No newline at end of file
@@ -23,9 +23,44 @@ public class StatisticsController {
         return ResponseEntity.ok(statistics);
     }
 
+    @GetMapping("/revenue/series")
+    public ResponseEntity<?> getRevenueSeries(
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(required = false) String interval,
+            @RequestParam(required = false) String timeZone,
+            @RequestParam(defaultValue = "false") boolean compare) {
+        return ResponseEntity.ok(statisticsService.getRevenueSeries(startDate, endDate, interval, timeZone, compare));
+    }
+
+    @PostMapping("/revenue/rebuild")
+    public ResponseEntity<?> rebuildRevenueRollup() {
+        return ResponseEntity.ok(statisticsService.rebuildRevenueRollup());
+    }
+
+    @GetMapping("/payments/approximate")
+    public ResponseEntity<?> getApproximatePaymentStatistics(
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate) {
+        return ResponseEntity.ok(statisticsService.getApproximatePaymentStatistics(startDate, endDate));
+    }
+
+    @PostMapping("/payments/approximate/rebuild")
+    public ResponseEntity<?> rebuildPaymentSketches() {
+        return ResponseEntity.ok(statisticsService.rebuildPaymentSketches());
+    }
+
     @GetMapping("/inventory")
     public ResponseEntity<?> getInventoryStatistics() {
         Map<String, Object> statistics = statisticsService.getInventoryStatistics();
         return ResponseEntity.ok(statistics);
     }
+
+    @GetMapping("/inventory/products")
+    public ResponseEntity<?> getProductsByStockStatus(
+            @RequestParam String status,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(statisticsService.getProductsByStockStatus(status, page, size));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.ecommerce.api.controller;
+
+import com.ecommerce.api.model.StockAlert;
+import com.ecommerce.api.service.StockAlertService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory/alerts")
+public class StockAlertController {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @GetMapping
+    public List<StockAlert> getAlerts(@RequestParam(required = false) Long beforeId,
+                                      @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return stockAlertService.getAlerts(beforeId, pageSize);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts() {
+        return stockAlertService.subscribe();
+    }
+}
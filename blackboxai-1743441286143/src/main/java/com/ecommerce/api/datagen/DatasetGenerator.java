@@ -0,0 +1,473 @@
+package com.ecommerce.api.datagen;
+
+import com.ecommerce.api.model.PaymentStatus;
+import com.ecommerce.api.model.StockAlertLevel;
+import com.ecommerce.api.service.InventoryStatsService;
+import com.ecommerce.api.service.PaymentSketchService;
+import com.ecommerce.api.service.RevenueRollupService;
+import com.ecommerce.api.util.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the schema with a synthetic dataset for scale testing when the
+ * {@code datagen} profile is active, then exits.
+ *
+ * Tenant sizes follow a Zipf distribution, each tenant gets its own category tree
+ * and products are spread over its leaves. Payments are spread over
+ * {@code datagen.history-days} by {@link SeasonalCalendar} and skewed towards a
+ * minority of heavy buyers. Ids are assigned here from the current maximum of
+ * each table (each product owns a block of {@code max-images-per-product} image
+ * ids) and every chunk draws from a random seeded by
+ * {@code (datagen.seed, stage, tenant, chunk)}, so the same settings on the same
+ * starting database produce the same rows whatever the thread count. Chunks are
+ * written as multi-row INSERTs in their own transaction by
+ * {@code datagen.threads} workers; stages run one after another so foreign keys
+ * always point at committed rows.
+ */
+@Component
+@Profile("datagen")
+public class DatasetGenerator implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String[] TIME_ZONES = {
+        "UTC", "Asia/Ho_Chi_Minh", "Europe/Berlin", "America/New_York", "Asia/Tokyo", "Australia/Sydney"
+    };
+    private static final String[] ADJECTIVES = {
+        "Classic", "Compact", "Deluxe", "Eco", "Essential", "Premium", "Pro", "Smart", "Ultra", "Vintage"
+    };
+    private static final String[] NOUNS = {
+        "Backpack", "Blender", "Camera", "Chair", "Headphones", "Jacket", "Lamp", "Monitor", "Sneakers", "Watch"
+    };
+    private static final String[] PAYMENT_METHODS = {"CARD", "PAYPAL", "BANK_TRANSFER", "WALLET"};
+    private static final double[] PAYMENT_METHOD_CDF = {0.60, 0.85, 0.95, 1.0};
+
+    private static final long STAGE_TENANTS = 1;
+    private static final long STAGE_CATEGORIES = 3;
+    private static final long STAGE_PRODUCTS = 4;
+    private static final long STAGE_PAYMENTS = 5;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private InventoryStatsService inventoryStatsService;
+
+    @Autowired
+    private PaymentSketchService paymentSketchService;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.tenants:20}")
+    private int tenantCount;
+
+    @Value("${datagen.tenant-skew:1.1}")
+    private double tenantSkew;
+
+    @Value("${datagen.users:200000}")
+    private int userCount;
+
+    @Value("${datagen.products:1000000}")
+    private int productCount;
+
+    @Value("${datagen.max-images-per-product:4}")
+    private int maxImagesPerProduct;
+
+    @Value("${datagen.category-depth:4}")
+    private int categoryDepth;
+
+    @Value("${datagen.category-fanout:5}")
+    private int categoryFanout;
+
+    @Value("${datagen.payments:5000000}")
+    private int paymentCount;
+
+    @Value("${datagen.history-days:730}")
+    private int historyDays;
+
+    @Value("${datagen.end-date:}")
+    private String endDate;
+
+    @Value("${datagen.threads:8}")
+    private int threads;
+
+    @Value("${datagen.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${datagen.rows-per-statement:500}")
+    private int rowsPerStatement;
+
+    @Value("${datagen.rebuild-statistics:true}")
+    private boolean rebuildStatistics;
+
+    @Value("${datagen.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        LocalDate lastDay = endDate.isBlank() ? LocalDate.now() : LocalDate.parse(endDate);
+        SeasonalCalendar calendar = new SeasonalCalendar(lastDay, historyDays);
+        String passwordHash = passwordEncoder.encode("password");
+        int userRoleId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_USER'", Integer.class);
+        List<TenantPlan> plans = plan(calendar.getFirstDay());
+
+        long started = System.nanoTime();
+        long rows = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "datagen");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            rows += runStage(executor, "tenants", List.of(connection -> insertTenants(connection, plans)));
+
+            List<Chunk> userChunks = new ArrayList<>();
+            List<Chunk> categoryChunks = new ArrayList<>();
+            List<Chunk> productChunks = new ArrayList<>();
+            List<Chunk> paymentChunks = new ArrayList<>();
+            for (TenantPlan plan : plans) {
+                forEachChunk(plan.users(), (chunk, from, to) -> userChunks.add(connection ->
+                    insertUsers(connection, plan, from, to, passwordHash, userRoleId)));
+                categoryChunks.add(connection -> insertCategories(connection, plan));
+                forEachChunk(plan.products(), (chunk, from, to) -> productChunks.add(connection ->
+                    insertProducts(connection, plan, chunk, from, to)));
+                forEachChunk(plan.payments(), (chunk, from, to) -> paymentChunks.add(connection ->
+                    insertPayments(connection, plan, calendar, chunk, from, to)));
+            }
+            rows += runStage(executor, "users", userChunks);
+            rows += runStage(executor, "categories", categoryChunks);
+            rows += runStage(executor, "products", productChunks);
+            rows += runStage(executor, "payments", paymentChunks);
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        logger.info("Generated {} rows for {} tenants in {} s ({} rows/min)", rows, plans.size(),
+            String.format("%.1f", seconds), Math.round(rows / seconds * 60));
+
+        // The tenants are inserted directly, so their inventory counters are never created by TenantService
+        for (TenantPlan plan : plans) {
+            inventoryStatsService.rebuild(plan.tenantId());
+        }
+        if (rebuildStatistics) {
+            for (TenantPlan plan : plans) {
+                revenueRollupService.rebuild(plan.tenantId());
+                paymentSketchService.rebuild(plan.tenantId());
+            }
+            logger.info("Rebuilt revenue rollup and payment sketches for {} tenants", plans.size());
+        }
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private List<TenantPlan> plan(LocalDate firstDay) {
+        double[] weights = new double[tenantCount];
+        double total = 0;
+        for (int i = 0; i < tenantCount; i++) {
+            weights[i] = 1 / Math.pow(i + 1, tenantSkew);
+            total += weights[i];
+        }
+
+        long tenantId = nextId("tenants");
+        long userId = nextId("users");
+        long categoryId = nextId("categories");
+        long productId = nextId("products");
+        long imageId = nextId("product_images");
+        long paymentId = nextId("payments");
+
+        List<TenantPlan> plans = new ArrayList<>(tenantCount);
+        for (int i = 0; i < tenantCount; i++) {
+            double share = weights[i] / total;
+            int users = Math.max(1, (int) Math.round(userCount * share));
+            int products = Math.max(1, (int) Math.round(productCount * share));
+            int payments = (int) Math.round(paymentCount * share);
+            CategoryTree tree = CategoryTree.generate(random(STAGE_CATEGORIES, i, 0), categoryId,
+                categoryDepth, categoryFanout);
+            plans.add(new TenantPlan(i, tenantId + i, firstDay.atStartOfDay(), userId, users, tree,
+                productId, products, imageId, paymentId, payments));
+            userId += users;
+            categoryId += tree.ids().length;
+            productId += products;
+            imageId += (long) products * maxImagesPerProduct;
+            paymentId += payments;
+        }
+        return plans;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max + 1 : 1;
+    }
+
+    private void forEachChunk(int count, ChunkRange consumer) {
+        int size = Math.max(1, chunkSize);
+        for (int chunk = 0, from = 0; from < count; chunk++, from += size) {
+            consumer.accept(chunk, from, Math.min(from + size, count));
+        }
+    }
+
+    private long runStage(ExecutorService executor, String stage, List<Chunk> chunks)
+            throws InterruptedException, SQLException {
+        long started = System.nanoTime();
+        List<Future<Long>> futures = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            futures.add(executor.submit(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    connection.setAutoCommit(false);
+                    try {
+                        long rows = chunk.write(connection);
+                        connection.commit();
+                        return rows;
+                    } catch (SQLException | RuntimeException e) {
+                        connection.rollback();
+                        throw e;
+                    }
+                }
+            }));
+        }
+        long rows = 0;
+        try {
+            for (Future<Long> future : futures) {
+                rows += future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new RuntimeException("Generating " + stage + " failed", e.getCause());
+        }
+        long nanos = System.nanoTime() - started;
+        logger.info("Generated {}: {} rows in {} ms ({} rows/min)", stage, rows,
+            TimeUnit.NANOSECONDS.toMillis(nanos), Math.round(rows / (nanos / 1e9) * 60));
+        return rows;
+    }
+
+    private long insertTenants(Connection connection, List<TenantPlan> plans) throws SQLException {
+        SplittableRandom random = random(STAGE_TENANTS, 0, 0);
+        try (BatchInsert tenants = batch(connection, "tenants",
+                "id", "domain", "name", "description", "is_active", "created_at", "time_zone")) {
+            for (TenantPlan plan : plans) {
+                tenants.add(plan.tenantId(), "t" + plan.tenantId() + "-s" + seed + ".datagen.local",
+                    "Datagen Store " + plan.tenantId(),
+                    "Synthetic tenant " + (plan.index() + 1) + " of " + plans.size(),
+                    true, plan.createdAt(), TIME_ZONES[random.nextInt(TIME_ZONES.length)]);
+            }
+            tenants.flush();
+            return tenants.getRows();
+        }
+    }
+
+    private long insertUsers(Connection connection, TenantPlan plan, int from, int to,
+                             String passwordHash, int userRoleId) throws SQLException {
+        try (BatchInsert users = batch(connection, "users", "id", "username", "email", "password", "tenant_id");
+             BatchInsert userRoles = batch(connection, "user_roles", "user_id", "role_id")) {
+            for (int i = from; i < to; i++) {
+                long id = plan.firstUserId() + i;
+                users.add(id, "u" + id, "u" + id + "@t" + plan.tenantId() + ".datagen.local",
+                    passwordHash, plan.tenantId());
+            }
+            users.flush();
+            for (int i = from; i < to; i++) {
+                userRoles.add(plan.firstUserId() + i, userRoleId);
+            }
+            userRoles.flush();
+            return users.getRows() + userRoles.getRows();
+        }
+    }
+
+    private long insertCategories(Connection connection, TenantPlan plan) throws SQLException {
+        CategoryTree tree = plan.categories();
+        try (BatchInsert categories = batch(connection, "categories",
+                "id", "name", "description", "parent_id", "tenant_id")) {
+            // Level order, so each parent is written in an earlier or the same statement
+            for (int i = 0; i < tree.ids().length; i++) {
+                categories.add(tree.ids()[i], "Category " + tree.paths()[i], null,
+                    tree.parentIds()[i] == 0 ? null : tree.parentIds()[i], plan.tenantId());
+            }
+            categories.flush();
+            return categories.getRows();
+        }
+    }
+
+    private long insertProducts(Connection connection, TenantPlan plan, int chunk, int from, int to)
+            throws SQLException {
+        SplittableRandom random = random(STAGE_PRODUCTS, plan.index(), chunk);
+        long[] leaves = plan.categories().leafIds();
+        int[] imageCounts = new int[to - from];
+        try (BatchInsert products = batch(connection, "products", "id", "name", "description", "price",
+                "stock_quantity", "stock_alert_level", "category_id", "tenant_id");
+             BatchInsert images = batch(connection, "product_images", "id", "image_url", "product_id")) {
+            for (int i = from; i < to; i++) {
+                long id = plan.firstProductId() + i;
+                double kind = random.nextDouble();
+                int stock = kind < 0.05 ? 0
+                    : kind < 0.15 ? 1 + random.nextInt(InventoryStatsService.LOW_STOCK_THRESHOLD)
+                    : InventoryStatsService.LOW_STOCK_THRESHOLD + 1 + random.nextInt(500);
+                products.add(id,
+                    ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + id,
+                    null,
+                    logNormalAmount(random, Math.log(35), 0.9),
+                    stock,
+                    (stock == 0 ? StockAlertLevel.OUT
+                        : stock <= InventoryStatsService.LOW_STOCK_THRESHOLD ? StockAlertLevel.LOW
+                        : StockAlertLevel.NONE).name(),
+                    leaves[random.nextInt(leaves.length)],
+                    plan.tenantId());
+                imageCounts[i - from] = random.nextInt(maxImagesPerProduct + 1);
+            }
+            products.flush();
+            for (int i = from; i < to; i++) {
+                long id = plan.firstProductId() + i;
+                long firstImageId = plan.firstImageId() + (long) i * maxImagesPerProduct;
+                for (int image = 0; image < imageCounts[i - from]; image++) {
+                    images.add(firstImageId + image, "https://cdn.datagen.local/p/" + id + "/" + (image + 1) + ".jpg", id);
+                }
+            }
+            images.flush();
+            return products.getRows() + images.getRows();
+        }
+    }
+
+    private long insertPayments(Connection connection, TenantPlan plan, SeasonalCalendar calendar,
+                                int chunk, int from, int to) throws SQLException {
+        SplittableRandom random = random(STAGE_PAYMENTS, plan.index(), chunk);
+        try (BatchInsert payments = batch(connection, "payments", "id", "user_id", "amount", "payment_method",
+                "transaction_id", "status", "payment_date", "attempt_count", "failure_reason", "tenant_id")) {
+            for (int i = from; i < to; i++) {
+                long id = plan.firstPaymentId() + i;
+                // Squaring the uniform draw concentrates payments on the lower user ids
+                double u = random.nextDouble();
+                long userId = plan.firstUserId() + (long) (plan.users() * u * u);
+                boolean failed = random.nextDouble() < 0.06;
+                payments.add(id, userId,
+                    logNormalAmount(random, Math.log(40), 0.8),
+                    PAYMENT_METHODS[pick(PAYMENT_METHOD_CDF, random.nextDouble())],
+                    "TXN" + SnowflakeIdGenerator.encode(id),
+                    failed ? PaymentStatus.FAILED.name() : PaymentStatus.COMPLETED.name(),
+                    calendar.sample(random),
+                    1,
+                    failed ? "Card declined" : null,
+                    plan.tenantId());
+            }
+            payments.flush();
+            return payments.getRows();
+        }
+    }
+
+    private BatchInsert batch(Connection connection, String table, String... columns) {
+        return new BatchInsert(connection, table, columns, Math.max(1, rowsPerStatement));
+    }
+
+    private SplittableRandom random(long stage, int tenant, int chunk) {
+        long state = seed;
+        state = state * 0x9E3779B97F4A7C15L + stage;
+        state = state * 0x9E3779B97F4A7C15L + tenant;
+        state = state * 0x9E3779B97F4A7C15L + chunk;
+        return new SplittableRandom(state);
+    }
+
+    private static BigDecimal logNormalAmount(SplittableRandom random, double mu, double sigma) {
+        // Box-Muller; SplittableRandom has no nextGaussian
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        long cents = Math.max(100, Math.min(99_999_999L, Math.round(Math.exp(mu + sigma * gaussian) * 100)));
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int pick(double[] cdf, double u) {
+        for (int i = 0; i < cdf.length - 1; i++) {
+            if (u < cdf[i]) {
+                return i;
+            }
+        }
+        return cdf.length - 1;
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        long write(Connection connection) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ChunkRange {
+        void accept(int chunk, int from, int to);
+    }
+
+    private record TenantPlan(int index, long tenantId, LocalDateTime createdAt,
+                              long firstUserId, int users, CategoryTree categories,
+                              long firstProductId, int products, long firstImageId,
+                              long firstPaymentId, int payments) {
+    }
+
+    /**
+     * A tenant's category tree in level order with ids from {@code firstId}; the
+     * fanout of each level is drawn from {@code [2, maxFanout]}.
+     */
+    private record CategoryTree(long[] ids, long[] parentIds, String[] paths, long[] leafIds) {
+        static CategoryTree generate(SplittableRandom random, long firstId, int depth, int maxFanout) {
+            List<Long> ids = new ArrayList<>();
+            List<Long> parents = new ArrayList<>();
+            List<String> paths = new ArrayList<>();
+            List<Integer> level = new ArrayList<>();
+            level.add(-1);
+            for (int d = 0; d < Math.max(1, depth); d++) {
+                int fanout = 2 + random.nextInt(Math.max(1, maxFanout - 1));
+                List<Integer> next = new ArrayList<>();
+                for (int parent : level) {
+                    for (int child = 1; child <= fanout; child++) {
+                        next.add(ids.size());
+                        ids.add(firstId + ids.size());
+                        parents.add(parent < 0 ? 0 : ids.get(parent));
+                        paths.add(parent < 0 ? String.valueOf(child) : paths.get(parent) + "." + child);
+                    }
+                }
+                level = next;
+            }
+            long[] leafIds = new long[level.size()];
+            for (int i = 0; i < leafIds.length; i++) {
+                leafIds[i] = ids.get(level.get(i));
+            }
+            return new CategoryTree(ids.stream().mapToLong(Long::longValue).toArray(),
+                parents.stream().mapToLong(Long::longValue).toArray(), paths.toArray(new String[0]), leafIds);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.api.datagen;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples payment timestamps over a history window with growth, weekly and yearly
+ * seasonality (a late-November peak and a higher December) and a daily profile
+ * peaking at lunch and in the evening.
+ */
+final class SeasonalCalendar {
+    // Relative activity per hour of day
+    private static final double[] HOUR_WEIGHTS = {
+        0.3, 0.2, 0.15, 0.1, 0.1, 0.15, 0.3, 0.6, 0.9, 1.0, 1.1, 1.3,
+        1.5, 1.4, 1.2, 1.1, 1.1, 1.2, 1.4, 1.7, 1.9, 1.8, 1.3, 0.7
+    };
+
+    private final LocalDate firstDay;
+    private final double[] dayCdf;
+    private final double[] hourCdf;
+
+    SeasonalCalendar(LocalDate lastDay, int days) {
+        this.firstDay = lastDay.minusDays(days - 1L);
+        double[] dayWeights = new double[days];
+        for (int i = 0; i < days; i++) {
+            dayWeights[i] = dayWeight(firstDay.plusDays(i), days == 1 ? 1 : (double) i / (days - 1));
+        }
+        this.dayCdf = cumulative(dayWeights);
+        this.hourCdf = cumulative(HOUR_WEIGHTS);
+    }
+
+    LocalDateTime sample(SplittableRandom random) {
+        int day = pick(dayCdf, random.nextDouble());
+        int hour = pick(hourCdf, random.nextDouble());
+        return firstDay.plusDays(day).atTime(hour, random.nextInt(60), random.nextInt(60));
+    }
+
+    LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    private static double dayWeight(LocalDate day, double progress) {
+        double trend = 0.6 + 0.4 * progress;
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        double weekly = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY ? 1.25
+            : dayOfWeek == DayOfWeek.MONDAY ? 0.9 : 1.0;
+        int dayOfYear = day.getDayOfYear();
+        double peak = 1.5 * Math.exp(-Math.pow(dayOfYear - 332, 2) / (2 * 6.0 * 6.0));
+        double winter = 0.2 * Math.cos(2 * Math.PI * (dayOfYear - 355) / 365.25);
+        return trend * weekly * (1 + peak + winter);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cdf[i] = total;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+}
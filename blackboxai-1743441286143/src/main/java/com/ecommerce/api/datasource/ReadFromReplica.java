@@ -0,0 +1,18 @@
+package com.ecommerce.api.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the annotated method (or every method of the annotated class) read from
+ * the replica, also when it runs no transaction at all; the application's
+ * {@code @Transactional(readOnly = true)} methods are treated the same. Read-write
+ * transactions, including ones started inside, still go to the primary. Without
+ * a configured replica this has no effect.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromReplica {
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.api.datasource;
+
+import com.ecommerce.api.model.Tenant;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Pins the user to the primary after a successful modifying request. This also
+ * covers writes that do not run in a transaction, such as payments written
+ * through the ledger.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        if (!SAFE_METHODS.contains(request.getMethod()) && response.getStatus() < 400) {
+            // The tenant context is already cleared here, the request attribute is not
+            Object tenant = request.getAttribute("CURRENT_TENANT");
+            tracker.recordWrite(tenant instanceof Tenant ? (Tenant) tenant : null);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.api.datasource;
+
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.model.Tenant;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a user's reads on the primary for {@code datasource.replica.read-your-writes-seconds}
+ * after one of their own writes, so they do not see the replica's older state.
+ * Users are identified by tenant and principal name; requests without an
+ * authenticated user are never pinned. The state is per instance.
+ */
+public class ReadYourWritesTracker {
+    private final ConcurrentMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(long windowSeconds) {
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+    }
+
+    public void recordWrite(Tenant tenant) {
+        String user = userKey(tenant);
+        if (user != null) {
+            pinnedUntil.put(user, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public boolean isPinnedToPrimary() {
+        if (pinnedUntil.isEmpty()) {
+            return false;
+        }
+        String user = userKey(TenantContext.getCurrentTenant());
+        Long until = user != null ? pinnedUntil.get(user) : null;
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval-ms:1000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private static String userKey(Tenant tenant) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return (tenant != null ? tenant.getId() : null) + ":" + authentication.getName();
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.api.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Tracks whether the replica may serve reads: it must answer the lag query and
+ * be at most {@code datasource.replica.max-lag-seconds} behind. The lag query is
+ * {@code SHOW REPLICA STATUS} on MySQL (read from {@code Seconds_Behind_Source},
+ * null while replication is stopped); any other query must return the lag in
+ * seconds as its first column. A failed connection attempt takes the replica out
+ * until the next successful check.
+ */
+public class ReplicaHealth implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealth.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private volatile boolean available;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaHealth(DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        Long lag;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            lag = rs.next() ? readLag(rs) : null;
+        } catch (SQLException | RuntimeException e) {
+            markDown(e);
+            return;
+        }
+        boolean nowAvailable = lag != null && lag <= maxLagSeconds;
+        if (nowAvailable != available) {
+            logger.warn(nowAvailable ? "Replica available again, lag {} s" : "Replica lag {} s over tolerance, reading from primary",
+                lag);
+        }
+        lagSeconds = lag != null ? lag : -1;
+        available = nowAvailable;
+    }
+
+    /**
+     * Takes the replica out after a failure; the next successful check restores it.
+     */
+    public void markDown(Exception cause) {
+        if (available) {
+            logger.warn("Replica unavailable, reading from primary: {}", cause.toString());
+        }
+        available = false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.replica.available", this, health -> health.available ? 1 : 0)
+            .description("Whether reads are routed to the replica")
+            .register(registry);
+        Gauge.builder("datasource.replica.lag", this, health -> health.lagSeconds)
+            .description("Replica lag in seconds, -1 when unknown")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    private static Long readLag(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int column = 1;
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String name = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(name) || "Seconds_Behind_Master".equalsIgnoreCase(name)) {
+                column = i;
+                break;
+            }
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.api.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Whether the current thread runs inside a {@link ReadFromReplica} method. Work
+ * handed to other threads must carry the flag over explicitly, like the tenant
+ * context.
+ */
+public final class ReplicaRouting {
+    private static final ThreadLocal<Boolean> replicaPreferred = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static boolean isReplicaPreferred() {
+        return Boolean.TRUE.equals(replicaPreferred.get());
+    }
+
+    public static <T> T withReplicaPreferred(boolean preferred, Supplier<T> action) {
+        Boolean previous = replicaPreferred.get();
+        set(preferred);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static Boolean set(boolean preferred) {
+        Boolean previous = replicaPreferred.get();
+        replicaPreferred.set(preferred);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous != null) {
+            replicaPreferred.set(previous);
+        } else {
+            replicaPreferred.remove();
+        }
+    }
+}
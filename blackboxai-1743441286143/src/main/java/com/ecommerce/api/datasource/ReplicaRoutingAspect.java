@@ -0,0 +1,47 @@
+package com.ecommerce.api.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Marks {@link ReadFromReplica} methods and the application's own
+ * {@code @Transactional(readOnly = true)} methods as replica reads. The implicit
+ * read-only transactions of Spring Data repository methods are deliberately not
+ * matched: code such as the payment worker reads rows right after writing them
+ * outside of a transaction and must keep seeing the primary.
+ */
+@Aspect
+@Component
+public class ReplicaRoutingAspect {
+    @Around("@annotation(com.ecommerce.api.datasource.ReadFromReplica) || "
+        + "@within(com.ecommerce.api.datasource.ReadFromReplica)")
+    public Object readFromReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedOnReplica(joinPoint);
+    }
+
+    @Around("execution(* com.ecommerce..*(..)) && "
+        + "(@annotation(org.springframework.transaction.annotation.Transactional) || "
+        + "@within(org.springframework.transaction.annotation.Transactional))")
+    public Object readOnlyTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(signature.getDeclaringType(), Transactional.class);
+        }
+        return transactional != null && transactional.readOnly() ? proceedOnReplica(joinPoint) : joinPoint.proceed();
+    }
+
+    private static Object proceedOnReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        Boolean previous = ReplicaRouting.set(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRouting.restore(previous);
+        }
+    }
+}
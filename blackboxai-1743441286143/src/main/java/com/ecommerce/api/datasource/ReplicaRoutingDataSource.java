@@ -0,0 +1,84 @@
+package com.ecommerce.api.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends replica reads ({@link ReadFromReplica} and the application's read-only
+ * transactions, see {@link ReplicaRoutingAspect}) to the replica unless they run
+ * inside a read-write transaction, and everything else to the primary. Reads also
+ * stay on the primary while the
+ * replica is unhealthy ({@link ReplicaHealth}) or the user recently wrote
+ * ({@link ReadYourWritesTracker}), and when a replica connection cannot be
+ * obtained.
+ *
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction's
+ * read-only flag is only known once the transaction manager has started it, so
+ * the physical connection may only be picked at the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealth replicaHealth;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealth replicaHealth,
+                                    ReadYourWritesTracker readYourWrites) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaHealth = replicaHealth;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!ReplicaRouting.isReplicaPreferred()) {
+            return PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (!replicaHealth.isAvailable() || readYourWrites.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == PRIMARY) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaHealth.markDown(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() == PRIMARY) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            replicaHealth.markDown(e);
+            return primary.getConnection(username, password);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.api.gateway;
+
+import com.ecommerce.api.model.Payment;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedTimeLimiterMetrics;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Isolates outbound gateway calls per payment method.
+ *
+ * Each method gets its own bulkhead (concurrency cap, no waiting), a circuit
+ * breaker that also opens on a high share of slow calls, and a time limiter. A
+ * rejected, timed-out or short-circuited call surfaces as a retryable
+ * {@link PaymentGatewayException}, so the payment falls back to PENDING and is
+ * retried with backoff instead of tying up a worker. A timed-out charge may
+ * still have been accepted by the provider, so every attempt carries the
+ * payment's transaction id as idempotency key and a retry gets the original
+ * outcome instead of a second charge. Breaker state, bulkhead saturation and
+ * timeouts are published as Micrometer metrics tagged by name.
+ */
+@Component
+public class GatewayCallGuard {
+    // Payment methods are client input; beyond this many providers share one guard
+    private static final int MAX_PROVIDERS = 32;
+    private static final String OVERFLOW_PROVIDER = "other";
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final TimeLimiterRegistry timeLimiters;
+    private final ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public GatewayCallGuard(MeterRegistry meterRegistry,
+                            @Value("${payment.provider.bulkhead.max-concurrent-calls:10}") int maxConcurrentCalls,
+                            @Value("${payment.provider.timeout-ms:3000}") long timeoutMs,
+                            @Value("${payment.provider.circuit.failure-rate-threshold:50}") float failureRateThreshold,
+                            @Value("${payment.provider.circuit.slow-call-duration-ms:2000}") long slowCallDurationMs,
+                            @Value("${payment.provider.circuit.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+                            @Value("${payment.provider.circuit.window-size:50}") int windowSize,
+                            @Value("${payment.provider.circuit.open-seconds:30}") long openSeconds) {
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(windowSize)
+            .minimumNumberOfCalls(Math.min(windowSize, 10))
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+            .slowCallRateThreshold(slowCallRateThreshold)
+            .waitDurationInOpenState(Duration.ofSeconds(openSeconds))
+            .permittedNumberOfCallsInHalfOpenState(3)
+            .automaticTransitionFromOpenToHalfOpenEnabled(true)
+            .recordExceptions(PaymentGatewayException.class, TimeoutException.class, RuntimeException.class)
+            .ignoreExceptions(BulkheadFullException.class)
+            .build());
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+        this.timeLimiters = TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+            .timeoutDuration(Duration.ofMillis(timeoutMs))
+            .cancelRunningFuture(true)
+            .build());
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        TaggedTimeLimiterMetrics.ofTimeLimiterRegistry(timeLimiters).bindTo(meterRegistry);
+    }
+
+    public GatewayResult charge(PaymentGateway gateway, Payment payment) throws PaymentGatewayException {
+        String provider = providerName(payment.getPaymentMethod());
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(provider);
+        Bulkhead bulkhead = bulkheads.bulkhead(provider);
+        TimeLimiter timeLimiter = timeLimiters.timeLimiter(provider);
+
+        try {
+            return circuitBreaker.executeCallable(() -> bulkhead.executeCallable(() ->
+                timeLimiter.executeFutureSupplier(() -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return gateway.charge(payment, payment.getTransactionId());
+                    } catch (PaymentGatewayException e) {
+                        throw new CompletionException(e);
+                    }
+                }, callExecutor))));
+        } catch (CallNotPermittedException e) {
+            throw new PaymentGatewayException("Provider " + provider + " unavailable: circuit open", e);
+        } catch (BulkheadFullException e) {
+            throw new PaymentGatewayException("Provider " + provider + " busy: concurrency limit reached", e);
+        } catch (TimeoutException e) {
+            throw new PaymentGatewayException("Provider " + provider + " timed out", e);
+        } catch (PaymentGatewayException e) {
+            throw e;
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof PaymentGatewayException) {
+                throw (PaymentGatewayException) cause;
+            }
+            throw new PaymentGatewayException("Provider " + provider + " call failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState(String paymentMethod) {
+        return circuitBreakers.circuitBreaker(providerName(paymentMethod)).getState();
+    }
+
+    private String providerName(String paymentMethod) {
+        String name = paymentMethod == null || paymentMethod.isBlank() ? "default" : paymentMethod.trim().toLowerCase();
+        if (circuitBreakers.find(name).isEmpty() && circuitBreakers.getAllCircuitBreakers().size() >= MAX_PROVIDERS) {
+            return OVERFLOW_PROVIDER;
+        }
+        return name;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.api.gateway;
+
+public class GatewayResult {
+    private final boolean approved;
+    private final String reference;
+    private final String message;
+
+    private GatewayResult(boolean approved, String reference, String message) {
+        this.approved = approved;
+        this.reference = reference;
+        this.message = message;
+    }
+
+    public static GatewayResult approved(String reference) {
+        return new GatewayResult(true, reference, null);
+    }
+
+    public static GatewayResult declined(String message) {
+        return new GatewayResult(false, null, message);
+    }
+
+    public boolean isApproved() {
+        return approved;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
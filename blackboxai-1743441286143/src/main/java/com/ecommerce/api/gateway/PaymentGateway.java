@@ -0,0 +1,22 @@
+package com.ecommerce.api.gateway;
+
+import com.ecommerce.api.model.Payment;
+
+/**
+ * SPI for external payment processors. Implementations are Spring beans; the
+ * pipeline picks the first one that {@link #supports(String) supports} the
+ * payment method. Throwing {@link PaymentGatewayException} marks the attempt as
+ * retryable, a declined {@link GatewayResult} is final.
+ *
+ * Every attempt for one payment passes the same {@code idempotencyKey}.
+ * Implementations send it to the provider (e.g. as its idempotency header), which
+ * answers a repeated key with the original outcome, so an attempt retried after a
+ * timeout or a crash never charges twice.
+ */
+public interface PaymentGateway {
+    String getName();
+
+    boolean supports(String paymentMethod);
+
+    GatewayResult charge(Payment payment, String idempotencyKey) throws PaymentGatewayException;
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.api.gateway;
+
+public class PaymentGatewayException extends Exception {
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
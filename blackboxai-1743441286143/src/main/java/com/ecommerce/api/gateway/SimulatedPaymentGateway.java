@@ -0,0 +1,74 @@
+package com.ecommerce.api.gateway;
+
+import com.ecommerce.api.model.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a real processor with configurable latency, transient
+ * failure rate and decline rate. Like a real provider it answers a repeated
+ * idempotency key with the outcome recorded for it. Only active in the dev, test
+ * and loadtest profiles, so no real deployment charges against it.
+ */
+@Component
+@Profile({"dev", "test", "loadtest"})
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private static final int MAX_REMEMBERED_KEYS = 100_000;
+
+    private final Map<String, GatewayResult> outcomes = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GatewayResult> eldest) {
+                return size() > MAX_REMEMBERED_KEYS;
+            }
+        });
+
+    @Value("${payment.gateway.simulator.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${payment.gateway.simulator.failure-rate:0}")
+    private double failureRate;
+
+    @Value("${payment.gateway.simulator.decline-rate:0}")
+    private double declineRate;
+
+    @Override
+    public String getName() {
+        return "simulator";
+    }
+
+    @Override
+    public boolean supports(String paymentMethod) {
+        return true;
+    }
+
+    @Override
+    public GatewayResult charge(Payment payment, String idempotencyKey) throws PaymentGatewayException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while waiting for gateway", e);
+        }
+        GatewayResult previous = outcomes.get(idempotencyKey);
+        if (previous != null) {
+            return previous;
+        }
+        double roll = random.nextDouble();
+        if (roll < failureRate) {
+            throw new PaymentGatewayException("Simulated gateway timeout");
+        }
+        GatewayResult result = roll < failureRate + declineRate
+            ? GatewayResult.declined("Simulated decline")
+            : GatewayResult.approved("SIM" + Long.toHexString(random.nextLong()));
+        GatewayResult recorded = outcomes.putIfAbsent(idempotencyKey, result);
+        return recorded != null ? recorded : result;
+    }
+}
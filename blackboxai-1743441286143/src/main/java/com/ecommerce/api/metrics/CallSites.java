@@ -0,0 +1,61 @@
+package com.ecommerce.api.metrics;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Short description of where in the application the current statement comes
+ * from: the innermost few application frames, skipping this package and Spring
+ * proxies. Statements issued outside application code, e.g. lazy loads while
+ * Jackson serializes a response, are attributed to the first frame outside the
+ * JDBC, pool, Hibernate and JDK layers instead.
+ */
+final class CallSites {
+    private static final String APPLICATION_PREFIX = "com.ecommerce.";
+    private static final String OWN_PACKAGE = CallSites.class.getPackageName() + ".";
+    private static final String[] INFRASTRUCTURE_PREFIXES = {
+        "java.", "jdk.", "sun.", "jakarta.", "com.sun.", "com.zaxxer.", "org.hibernate.", "com.mysql.", "org.h2.",
+        "org.springframework.orm.", "org.springframework.jdbc.", "org.springframework.aop.",
+        "org.springframework.transaction.", "org.springframework.data.", OWN_PACKAGE
+    };
+    private static final int MAX_FRAMES = 3;
+
+    private CallSites() {
+    }
+
+    static String current() {
+        return StackWalker.getInstance().walk(frames -> {
+            List<StackWalker.StackFrame> all = frames.collect(Collectors.toList());
+            String application = all.stream()
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PREFIX))
+                .filter(frame -> !frame.getClassName().startsWith(OWN_PACKAGE))
+                .filter(frame -> !frame.getClassName().contains("$$"))
+                .limit(MAX_FRAMES)
+                .map(CallSites::format)
+                .collect(Collectors.joining(" <- "));
+            if (!application.isEmpty()) {
+                return application;
+            }
+            return all.stream()
+                .filter(frame -> !isInfrastructure(frame.getClassName()))
+                .findFirst()
+                .map(CallSites::format)
+                .orElse("<unknown>");
+        });
+    }
+
+    private static boolean isInfrastructure(String className) {
+        for (String prefix : INFRASTRUCTURE_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return className.contains("$$");
+    }
+
+    private static String format(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName()
+            + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.api.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts entity loads and lazy collection initializations into the current
+ * request's {@link RequestQueryStats}.
+ */
+@Component
+public class HibernateLoadListeners {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+            RequestQueryStats stats = RequestQueryStats.current();
+            if (stats != null) {
+                stats.entityLoaded();
+            }
+        });
+        registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> {
+            RequestQueryStats stats = RequestQueryStats.current();
+            if (stats != null) {
+                stats.collectionFetched();
+            }
+        });
+    }
+}
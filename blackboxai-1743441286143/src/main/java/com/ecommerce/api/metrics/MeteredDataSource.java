@@ -0,0 +1,131 @@
+package com.ecommerce.api.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out connections whose statements report each execution, with its SQL,
+ * duration and bind values, to the {@link SqlStatementRecorder}. Everything else
+ * is passed through, including {@code unwrap} to the pool's own classes.
+ *
+ * The recorder is looked up on first use so wrapping the pool does not pull the
+ * meter registry into bean post-processing.
+ */
+public class MeteredDataSource extends DelegatingDataSource {
+    private final ObjectProvider<SqlStatementRecorder> recorderProvider;
+    private volatile SqlStatementRecorder recorder;
+
+    public MeteredDataSource(DataSource target, ObjectProvider<SqlStatementRecorder> recorderProvider) {
+        super(target);
+        this.recorderProvider = recorderProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private SqlStatementRecorder recorder() {
+        SqlStatementRecorder resolved = recorder;
+        if (resolved == null) {
+            resolved = recorderProvider.getIfAvailable();
+            recorder = resolved;
+        }
+        return resolved;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = MeteredDataSource.invoke(target, method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+            Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final List<Object> parameters = new ArrayList<>();
+        private String batchSql;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s
+                    : preparedSql != null ? preparedSql : batchSql;
+                long started = System.nanoTime();
+                try {
+                    return MeteredDataSource.invoke(target, method, args);
+                } finally {
+                    SqlStatementRecorder statementRecorder = recorder();
+                    if (statementRecorder != null) {
+                        statementRecorder.record(sql, System.nanoTime() - started, parameters);
+                    }
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && preparedSql != null) {
+                while (parameters.size() < index) {
+                    parameters.add(null);
+                }
+                // setNull's second argument is the SQL type, not a value
+                parameters.set(index - 1, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1 && batchSql == null) {
+                batchSql = (String) args[0];
+            }
+            return MeteredDataSource.invoke(target, method, args);
+        }
+    }
+}
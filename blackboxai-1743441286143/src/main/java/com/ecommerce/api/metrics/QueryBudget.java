@@ -0,0 +1,18 @@
+package com.ecommerce.api.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a request to the annotated handler (or every
+ * handler of the annotated controller) is expected to execute, overriding
+ * {@code metrics.query-budget.default-max-statements}. Requests over budget are
+ * logged with the statements they ran and where they came from.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
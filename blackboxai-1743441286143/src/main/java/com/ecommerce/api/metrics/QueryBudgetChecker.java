@@ -0,0 +1,79 @@
+package com.ecommerce.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares a finished request's statement count with its {@link QueryBudget}
+ * (or {@code metrics.query-budget.default-max-statements}) and, when it is over,
+ * counts it in {@code jpa.request.budget.exceeded} and logs the most executed
+ * statements with their call sites, so an N+1 shows up as one statement run many
+ * times from the same place.
+ */
+@Component
+public class QueryBudgetChecker {
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetChecker.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${metrics.query-budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${metrics.query-budget.default-max-statements:20}")
+    private int defaultMaxStatements;
+
+    @Value("${metrics.query-budget.logged-statements:5}")
+    private int loggedStatements;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void check(HttpServletRequest request, String uri, RequestQueryStats stats) {
+        if (!enabled) {
+            return;
+        }
+        int budget = budgetFor(request);
+        if (stats.getStatements() <= budget) {
+            return;
+        }
+        Counter.builder("jpa.request.budget.exceeded")
+            .description("Requests that executed more SQL statements than their budget")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .increment();
+        List<RequestQueryStats.StatementGroup> groups = stats.getStatementGroups();
+        logger.warn("{} {} executed {} SQL statements ({} distinct, {} ms), budget is {}:\n  {}",
+            request.getMethod(), uri, stats.getStatements(), groups.size(),
+            TimeUnit.NANOSECONDS.toMillis(stats.getStatementNanos()), budget,
+            groups.stream().limit(loggedStatements).map(Object::toString).collect(Collectors.joining("\n  ")));
+    }
+
+    private int budgetFor(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), QueryBudget.class);
+            if (budget == null) {
+                budget = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), QueryBudget.class);
+            }
+            if (budget != null) {
+                return budget.value();
+            }
+        }
+        return defaultMaxStatements;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.api.metrics;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+
+import java.util.Locale;
+
+/**
+ * Adds the request's statement count and database time as headers just before
+ * the response is committed, so statements run while the body is serialized are
+ * included.
+ */
+class QueryCountResponseWrapper extends OnCommittedResponseWrapper {
+    static final String COUNT_HEADER = "X-Query-Count";
+    static final String TIME_HEADER = "X-Query-Time-Ms";
+
+    private final HttpServletResponse delegate;
+    private final RequestQueryStats stats;
+    private boolean written;
+
+    QueryCountResponseWrapper(HttpServletResponse response, RequestQueryStats stats) {
+        super(response);
+        this.delegate = response;
+        this.stats = stats;
+    }
+
+    @Override
+    protected void onResponseCommitted() {
+        writeHeaders();
+    }
+
+    void writeHeaders() {
+        if (written || delegate.isCommitted()) {
+            return;
+        }
+        written = true;
+        delegate.setHeader(COUNT_HEADER, String.valueOf(stats.getStatements()));
+        delegate.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.2f", stats.getStatementNanos() / 1e6));
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records per request how many SQL statements, entity loads and collection
+ * fetches it caused, as {@code jpa.request.*} distributions tagged like
+ * {@code http.server.requests} (method, uri template, tenant), and checks the
+ * statement count against the endpoint's {@link QueryBudget}.
+ *
+ * With {@code metrics.query-header.enabled} (on in the dev and test profiles) the count
+ * and database time are also returned in the {@code X-Query-Count} and
+ * {@code X-Query-Time-Ms} response headers.
+ */
+@Component
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TenantTagLimiter tenantTagLimiter;
+
+    @Autowired
+    private QueryBudgetChecker queryBudgetChecker;
+
+    @Value("${metrics.query-header.enabled:false}")
+    private boolean headerEnabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin(queryBudgetChecker.isEnabled());
+        QueryCountResponseWrapper headerResponse = headerEnabled ? new QueryCountResponseWrapper(response, stats) : null;
+        try {
+            filterChain.doFilter(request, headerResponse != null ? headerResponse : response);
+        } finally {
+            RequestQueryStats.end();
+            if (headerResponse != null) {
+                headerResponse.writeHeaders();
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri,
+                TenantTagLimiter.TAG, tenantTagLimiter.tagFor(request));
+            record("jpa.request.statements", "SQL statements per request", tags, stats.getStatements());
+            record("jpa.request.entity.loads", "Entities loaded per request", tags, stats.getEntityLoads());
+            record("jpa.request.collection.fetches", "Lazy collections initialized per request", tags,
+                stats.getCollectionFetches());
+            queryBudgetChecker.check(request, uri, stats);
+        }
+    }
+
+    private void record(String name, String description, Tags tags, int value) {
+        DistributionSummary.builder(name)
+            .description(description)
+            .tags(tags)
+            .register(meterRegistry)
+            .record(value);
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.api.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements, entity loads and collection fetches of the request running on
+ * the current thread. Counting only happens between {@link #begin(boolean)} and
+ * {@link #end()}, so scheduled jobs and work handed to other threads are not
+ * attributed to a request.
+ *
+ * Scopes nest: counts of an inner scope (a request performed through MockMvc)
+ * also go to the enclosing one (a test around it). With statement tracking on,
+ * executions are grouped by SQL and the application call site and bind values of
+ * the first execution of each distinct statement are kept, which is what an N+1
+ * report needs at the cost of one stack walk per distinct statement.
+ */
+public final class RequestQueryStats {
+    private static final ThreadLocal<RequestQueryStats> current = new ThreadLocal<>();
+
+    private final RequestQueryStats parent;
+    private final Map<String, StatementGroup> statementGroups;
+    private int statements;
+    private long statementNanos;
+    private int entityLoads;
+    private int collectionFetches;
+
+    private RequestQueryStats(RequestQueryStats parent, boolean trackStatements) {
+        this.parent = parent;
+        this.statementGroups = trackStatements ? new HashMap<>() : null;
+    }
+
+    public static RequestQueryStats begin(boolean trackStatements) {
+        RequestQueryStats stats = new RequestQueryStats(current.get(), trackStatements);
+        current.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stats of the innermost scope, or null outside of one.
+     */
+    public static RequestQueryStats current() {
+        return current.get();
+    }
+
+    /**
+     * Closes the innermost scope, making the enclosing one current again.
+     */
+    public static void end() {
+        RequestQueryStats stats = current.get();
+        if (stats != null && stats.parent != null) {
+            current.set(stats.parent);
+        } else {
+            current.remove();
+        }
+    }
+
+    void statementExecuted(String sql, long nanos, List<Object> parameters) {
+        String callSite = null;
+        for (RequestQueryStats stats = this; stats != null; stats = stats.parent) {
+            stats.statements++;
+            stats.statementNanos += nanos;
+            if (stats.statementGroups != null && sql != null) {
+                StatementGroup group = stats.statementGroups.computeIfAbsent(sql, StatementGroup::new);
+                if (group.callSite == null) {
+                    callSite = callSite != null ? callSite : CallSites.current();
+                    group.callSite = callSite;
+                    group.parameters = new ArrayList<>(parameters);
+                }
+                group.executions++;
+            }
+        }
+    }
+
+    void entityLoaded() {
+        for (RequestQueryStats stats = this; stats != null; stats = stats.parent) {
+            stats.entityLoads++;
+        }
+    }
+
+    void collectionFetched() {
+        for (RequestQueryStats stats = this; stats != null; stats = stats.parent) {
+            stats.collectionFetches++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    /**
+     * Distinct statements, most executed first; empty without statement tracking.
+     */
+    public List<StatementGroup> getStatementGroups() {
+        if (statementGroups == null) {
+            return List.of();
+        }
+        List<StatementGroup> groups = new ArrayList<>(statementGroups.values());
+        groups.sort(Comparator.comparingInt(StatementGroup::getExecutions).reversed());
+        return groups;
+    }
+
+    public static final class StatementGroup {
+        private final String sql;
+        private String callSite;
+        private List<Object> parameters;
+        private int executions;
+
+        private StatementGroup(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getCallSite() {
+            return callSite;
+        }
+
+        /**
+         * Bind values of the first execution, by parameter index.
+         */
+        public List<Object> getParameters() {
+            return parameters;
+        }
+
+        public int getExecutions() {
+            return executions;
+        }
+
+        @Override
+        public String toString() {
+            return executions + "x " + SqlStatementRecorder.redact(sql) + " at " + callSite;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.api.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hit ratio of the second-level cache regions declared in ehcache.xml
+ * ({@code hibernate.cache.hit.ratio}, tagged by region), and requests and hit
+ * ratio of the per-tenant query regions ({@code hibernate.cache.tenant.requests},
+ * {@code hibernate.cache.tenant.hit.ratio}), tagged by tenant through the
+ * {@link TenantTagLimiter}. Per-region request counts of the entity regions come
+ * from hibernate-micrometer. Ratios are since startup and NaN until a region has
+ * been read.
+ */
+@Component
+public class SecondLevelCacheMetrics {
+    private static final List<String> REGIONS = List.of(
+        "entity.role", "entity.tenant", "entity.category", "query.role", "query.tenant");
+
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TenantTagLimiter tenantTagLimiter;
+    // Tenants over the tag limit share the "other" meters, which sum over all their regions
+    private final ConcurrentMap<String, Set<String>> tenantRegionsByTag = new ConcurrentHashMap<>();
+    private volatile Statistics statistics;
+
+    public SecondLevelCacheMetrics(MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory,
+                                   TenantTagLimiter tenantTagLimiter) {
+        this.meterRegistry = meterRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+        this.tenantTagLimiter = tenantTagLimiter;
+        for (String region : REGIONS) {
+            List<String> regions = List.of(region);
+            Gauge.builder("hibernate.cache.hit.ratio", this, metrics -> metrics.hitRatio(regions))
+                .description("Second-level cache hits per read since startup")
+                .tag("region", region)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Registers the meters of a tenant's query region on first use.
+     */
+    public void tenantRegionUsed(Long tenantId, String region) {
+        String tag = tenantTagLimiter.tagFor(tenantId);
+        Set<String> regions = tenantRegionsByTag.get(tag);
+        if (regions == null) {
+            regions = tenantRegionsByTag.computeIfAbsent(tag, this::registerTenantMeters);
+        }
+        regions.add(region);
+    }
+
+    private Set<String> registerTenantMeters(String tag) {
+        Set<String> regions = ConcurrentHashMap.newKeySet();
+        FunctionCounter.builder("hibernate.cache.tenant.requests", this,
+                metrics -> metrics.sum(regions, CacheRegionStatistics::getHitCount))
+            .description("Reads of the tenant's query cache regions")
+            .tags(TenantTagLimiter.TAG, tag, "result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("hibernate.cache.tenant.requests", this,
+                metrics -> metrics.sum(regions, CacheRegionStatistics::getMissCount))
+            .description("Reads of the tenant's query cache regions")
+            .tags(TenantTagLimiter.TAG, tag, "result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("hibernate.cache.tenant.hit.ratio", this, metrics -> metrics.hitRatio(regions))
+            .description("Query cache hits per read of the tenant's regions since startup")
+            .tag(TenantTagLimiter.TAG, tag)
+            .register(meterRegistry);
+        return regions;
+    }
+
+    private double hitRatio(Collection<String> regions) {
+        long hits = sum(regions, CacheRegionStatistics::getHitCount);
+        long reads = hits + sum(regions, CacheRegionStatistics::getMissCount);
+        return reads > 0 ? (double) hits / reads : Double.NaN;
+    }
+
+    private long sum(Collection<String> regions, ToLongFunction<CacheRegionStatistics> count) {
+        long total = 0;
+        for (String region : regions) {
+            // Null until Hibernate has created the region
+            CacheRegionStatistics regionStatistics = statistics().getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                total += count.applyAsLong(regionStatistics);
+            }
+        }
+        return total;
+    }
+
+    private Statistics statistics() {
+        // Looked up on first read: with background bootstrap the factory may still be building
+        if (statistics == null) {
+            statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        }
+        return statistics;
+    }
+}
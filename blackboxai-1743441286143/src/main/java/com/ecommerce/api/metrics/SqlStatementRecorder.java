@@ -0,0 +1,113 @@
+package com.ecommerce.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Times every SQL statement into {@code jdbc.statements}, tagged by operation,
+ * and counts it for the current request.
+ *
+ * Statements slower than {@code metrics.jdbc.slow-query-threshold-ms} are counted
+ * in {@code jdbc.statements.slow} and a {@code metrics.jdbc.slow-query-sample-rate}
+ * share of them is logged. The logged SQL has its string literals replaced and
+ * bind values are only described by type (and length for strings), so no
+ * credentials or personal data reach the log.
+ */
+@Component
+public class SqlStatementRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementRecorder.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String[] OPERATIONS = {"select", "insert", "update", "delete", "other"};
+
+    private final Timer[] timers = new Timer[OPERATIONS.length];
+    private final Counter[] slowCounters = new Counter[OPERATIONS.length];
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+
+    public SqlStatementRecorder(MeterRegistry meterRegistry,
+                                @Value("${metrics.jdbc.slow-query-threshold-ms:200}") long slowThresholdMs,
+                                @Value("${metrics.jdbc.slow-query-sample-rate:0.1}") double sampleRate) {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            timers[i] = Timer.builder("jdbc.statements")
+                .description("SQL statement execution time")
+                .tag("operation", OPERATIONS[i])
+                .register(meterRegistry);
+            slowCounters[i] = Counter.builder("jdbc.statements.slow")
+                .description("SQL statements slower than metrics.jdbc.slow-query-threshold-ms")
+                .tag("operation", OPERATIONS[i])
+                .register(meterRegistry);
+        }
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.sampleRate = sampleRate;
+    }
+
+    public void record(String sql, long nanos, List<Object> parameters) {
+        int operation = operationOf(sql);
+        timers[operation].record(nanos, TimeUnit.NANOSECONDS);
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementExecuted(sql, nanos, parameters);
+        }
+        if (nanos >= slowThresholdNanos) {
+            slowCounters[operation].increment();
+            if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                logger.warn("Slow SQL statement ({} ms): {} parameters {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                    redact(sql), describe(parameters));
+            }
+        }
+    }
+
+    static String redact(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        return WHITESPACE.matcher(STRING_LITERAL.matcher(sql).replaceAll("'?'")).replaceAll(" ").trim();
+    }
+
+    private static String describe(List<Object> parameters) {
+        StringBuilder description = new StringBuilder("[");
+        for (int i = 0; i < parameters.size(); i++) {
+            Object value = parameters.get(i);
+            description.append(i == 0 ? "" : ", ");
+            if (value == null) {
+                description.append("null");
+            } else if (value instanceof CharSequence text) {
+                description.append("String(").append(text.length()).append(')');
+            } else {
+                description.append(value.getClass().getSimpleName());
+            }
+        }
+        return description.append(']').toString();
+    }
+
+    private static int operationOf(String sql) {
+        if (sql == null) {
+            return OPERATIONS.length - 1;
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        for (int i = 0; i < OPERATIONS.length - 1; i++) {
+            if (OPERATIONS[i].equals(keyword)) {
+                return i;
+            }
+        }
+        return OPERATIONS.length - 1;
+    }
+}
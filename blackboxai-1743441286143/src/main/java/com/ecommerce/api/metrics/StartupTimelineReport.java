@@ -0,0 +1,66 @@
+package com.ecommerce.api.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Logs how long startup took and its slowest steps once the application is
+ * ready, from the timeline {@link BufferingApplicationStartup} records. A step's
+ * duration includes its nested steps (a bean includes the beans it pulled in).
+ * The full timeline is served by the actuator startup endpoint when exposed.
+ */
+@Component
+public class StartupTimelineReport {
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimelineReport.class);
+
+    @Value("${startup.report.enabled:false}")
+    private boolean enabled;
+
+    @Value("${startup.report.steps:15}")
+    private int steps;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long jvmUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        logger.info("Ready {} ms after JVM start ({} ms in SpringApplication.run)",
+            jvmUptime, event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1);
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            logger.info("No startup timeline recorded, the application was not started with a BufferingApplicationStartup");
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> events = new ArrayList<>(buffering.getBufferedTimeline().getEvents());
+        events.sort(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed());
+        StringBuilder report = new StringBuilder();
+        for (StartupTimeline.TimelineEvent timelineEvent : events.subList(0, Math.min(steps, events.size()))) {
+            report.append(String.format("%n%8d ms  %s", timelineEvent.getDuration().toMillis(),
+                describe(timelineEvent.getStartupStep())));
+        }
+        logger.info("Slowest of {} startup steps:{}", events.size(), report);
+    }
+
+    private static String describe(StartupStep step) {
+        StringBuilder description = new StringBuilder(step.getName());
+        for (StartupStep.Tag tag : step.getTags()) {
+            description.append(' ').append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.api.metrics;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Adds the (limited) tenant tag to {@code http.server.requests}.
+ */
+public class TenantServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+    private final TenantTagLimiter tenantTagLimiter;
+
+    public TenantServerRequestObservationConvention(TenantTagLimiter tenantTagLimiter) {
+        this.tenantTagLimiter = tenantTagLimiter;
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context)
+            .and(TenantTagLimiter.TAG, tenantTagLimiter.tagFor(context.getCarrier()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.api.metrics;
+
+import com.ecommerce.api.model.Tenant;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tenant tag value for request and cache metrics. The first
+ * {@code metrics.tenant-tag.max-tenants} tenants seen get their id as tag value,
+ * later ones share {@code other}, so the number of series stays bounded however
+ * many tenants there are. Requests without a resolved tenant are tagged
+ * {@code none}.
+ */
+@Component
+public class TenantTagLimiter {
+    public static final String TAG = "tenant";
+
+    private final Set<String> admitted = ConcurrentHashMap.newKeySet();
+
+    @Value("${metrics.tenant-tag.max-tenants:50}")
+    private int maxTenants;
+
+    public String tagFor(HttpServletRequest request) {
+        if (!(request.getAttribute("CURRENT_TENANT") instanceof Tenant tenant)) {
+            return "none";
+        }
+        return tagFor(tenant.getId());
+    }
+
+    public String tagFor(Long tenantId) {
+        if (tenantId == null) {
+            return "none";
+        }
+        String id = tenantId.toString();
+        if (admitted.contains(id)) {
+            return id;
+        }
+        // Racing first requests may admit a few more than the limit, which is harmless
+        if (admitted.size() < maxTenants) {
+            admitted.add(id);
+            return id;
+        }
+        return "other";
+    }
+}
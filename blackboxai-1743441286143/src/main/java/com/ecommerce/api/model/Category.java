@@ -3,9 +3,13 @@ package com.ecommerce.api.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entity.category")
 @Getter
 @Setter
 public class Category {
@@ -23,4 +27,7 @@ public class Category {
     private Category parentCategory;
 
     private String imageUrl;
+
+    @Column(name = "tenant_id")
+    private Long tenantId;
 }
\ No newline at end of file
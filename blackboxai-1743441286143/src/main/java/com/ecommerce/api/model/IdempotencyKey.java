@@ -0,0 +1,44 @@
+package com.ecommerce.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "idempotency_key"}))
+@Getter
+@Setter
+public class IdempotencyKey {
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    private Long paymentId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Lease of the request running an IN_PROGRESS key; doubles as its ownership token
+    private LocalDateTime lockedUntil;
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "inventory_stats")
+@Getter
+@Setter
+public class InventoryStats {
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Column(nullable = false)
+    private Long totalProducts;
+
+    @Column(nullable = false)
+    private Long lowStockProducts;
+
+    @Column(nullable = false)
+    private Long outOfStockProducts;
+
+    @Column(nullable = false)
+    private Long totalStock;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalInventoryValue;
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.api.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable amount of money held as a long count of minor units (cents).
+ *
+ * Arithmetic stays on primitives and throws {@link ArithmeticException} on
+ * overflow instead of wrapping; mixing currencies is rejected. Amounts serialize
+ * to JSON as the same decimal number {@link BigDecimal} produced before, and
+ * {@link MoneyConverter} maps them to the existing DECIMAL(x, 2) columns.
+ */
+public final class Money implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final String DEFAULT_CURRENCY = "USD";
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return ofMinor(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return minorUnits == 0 && DEFAULT_CURRENCY.equals(currency) ? ZERO : new Money(minorUnits, currency);
+    }
+
+    /**
+     * Rounds {@code amount} half-up to cents, like the DECIMAL(x, 2) columns do.
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return ofMinor(toMinorUnits(amount));
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long factor) {
+        return ofMinor(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    /**
+     * Divides and rounds half-up (away from zero on ties) to whole minor units.
+     */
+    public Money dividedBy(long divisor) {
+        return ofMinor(divideHalfUp(minorUnits, divisor), currency);
+    }
+
+    /**
+     * {@code dividend / divisor} rounded half-up, without going through BigDecimal.
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += Long.signum(dividend) * Long.signum(divisor);
+        }
+        return quotient;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money other = (Money) o;
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+}
@@ -1,28 +1,53 @@
 package com.ecommerce.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "payments")
 @Getter
 @Setter
-public class Payment {
+public class Payment implements Persistable<Long> {
+    // Assigned from SnowflakeIdGenerator so rows can be inserted in multi-row batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    private BigDecimal amount;
+    private Money amount;
     private String paymentMethod;
     private String transactionId;
     private String status;
     private LocalDateTime paymentDate;
-}
\ No newline at end of file
+
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    private Integer attemptCount;
+    private String failureReason;
+    private LocalDateTime nextAttemptAt;
+
+    @Transient
+    @Getter(lombok.AccessLevel.NONE)
+    @Setter(lombok.AccessLevel.NONE)
+    private boolean persisted;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void markPersisted() {
+        persisted = true;
+    }
+}
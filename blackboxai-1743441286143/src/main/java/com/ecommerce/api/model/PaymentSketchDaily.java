@@ -0,0 +1,35 @@
+package com.ecommerce.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "payment_sketch_daily",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "sketch_date"}))
+@Getter
+@Setter
+public class PaymentSketchDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "sketch_date", nullable = false)
+    private LocalDate sketchDate;
+
+    @Column(nullable = false)
+    private Long paymentCount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] buyersSketch;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] orderValueSketch;
+}
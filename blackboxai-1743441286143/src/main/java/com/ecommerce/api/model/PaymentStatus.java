@@ -0,0 +1,33 @@
+package com.ecommerce.api.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum PaymentStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED;
+
+    public Set<PaymentStatus> nextStates() {
+        switch (this) {
+            case PENDING:
+                return EnumSet.of(PROCESSING, FAILED);
+            case PROCESSING:
+                // PENDING again when a retryable gateway error schedules another attempt.
+                // A worker holds PROCESSING under a lease in next_attempt_at; once it
+                // expires the sweep takes the payment over without a status change.
+                return EnumSet.of(COMPLETED, FAILED, PENDING);
+            default:
+                return EnumSet.noneOf(PaymentStatus.class);
+        }
+    }
+
+    public boolean canTransitionTo(PaymentStatus next) {
+        return nextStates().contains(next);
+    }
+
+    public boolean isTerminal() {
+        return nextStates().isEmpty();
+    }
+}
@@ -1,9 +1,9 @@
 package com.ecommerce.api.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -21,14 +21,32 @@ public class Product {
     private String description;
 
     @Column(nullable = false)
-    private BigDecimal price;
+    private Money price;
 
     private Integer stockQuantity;
 
+    // Overrides the tenant's low-stock threshold for this product
+    private Integer lowStockThreshold;
+
+    // Alert level kept by StockAlertService; not writable by clients
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stock_alert_level", nullable = false, length = 10)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private StockAlertLevel stockAlertLevel = StockAlertLevel.NONE;
+
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
     @ManyToOne
     @JoinColumn(name = "category_id")
     private Category category;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<ProductImage> images = new HashSet<>();
+
+    // The former alert flag, still serialized for existing clients
+    @JsonProperty(value = "lowStockAlerted", access = JsonProperty.Access.READ_ONLY)
+    public boolean isLowStockAlerted() {
+        return stockAlertLevel != StockAlertLevel.NONE;
+    }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.ecommerce.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Table(name = "product_images")
@@ -13,6 +16,10 @@ public class ProductImage {
 
     private String imageUrl;
 
+    // Product's equals/hashCode include its images
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne
     @JoinColumn(name = "product_id")
     private Product product;
@@ -0,0 +1,34 @@
+package com.ecommerce.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "revenue_daily",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "revenue_date", "payment_method"}))
+@Getter
+@Setter
+public class RevenueDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "revenue_date", nullable = false)
+    private LocalDate revenueDate;
+
+    @Column(name = "payment_method", nullable = false, length = 50)
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private Long transactionCount;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stock_alerts")
+@Getter
+@Setter
+public class StockAlert {
+    public static final String LOW_STOCK = "LOW_STOCK";
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+    public static final String RESTOCKED = "RESTOCKED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 20)
+    private String type;
+
+    @Column(nullable = false)
+    private Integer stockQuantity;
+
+    @Column(nullable = false)
+    private Integer threshold;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.api.model;
+
+/**
+ * Stock alert level of a product, as last announced by a {@link StockAlert}.
+ */
+public enum StockAlertLevel {
+    NONE,
+    LOW,
+    OUT
+}
@@ -3,11 +3,15 @@ package com.ecommerce.api.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tenants")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entity.tenant")
 @Getter
 @Setter
 public class Tenant {
@@ -23,6 +27,14 @@ public class Tenant {
 
     private String description;
 
+    // IANA zone id used for calendar statistics; null means the server zone
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
+    // Default low-stock alert threshold for the tenant's products
+    @Column(name = "low_stock_threshold")
+    private Integer lowStockThreshold;
+
     @Column(name = "is_active")
     private Boolean isActive = true;
 
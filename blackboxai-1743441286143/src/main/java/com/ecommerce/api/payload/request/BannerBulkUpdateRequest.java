@@ -0,0 +1,38 @@
+package com.ecommerce.api.payload.request;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class BannerBulkUpdateRequest {
+    @NotNull
+    private List<Long> orderedIds;
+
+    private List<Long> activateIds;
+
+    private List<Long> deactivateIds;
+
+    public List<Long> getOrderedIds() {
+        return orderedIds;
+    }
+
+    public void setOrderedIds(List<Long> orderedIds) {
+        this.orderedIds = orderedIds;
+    }
+
+    public List<Long> getActivateIds() {
+        return activateIds;
+    }
+
+    public void setActivateIds(List<Long> activateIds) {
+        this.activateIds = activateIds;
+    }
+
+    public List<Long> getDeactivateIds() {
+        return deactivateIds;
+    }
+
+    public void setDeactivateIds(List<Long> deactivateIds) {
+        this.deactivateIds = deactivateIds;
+    }
+}
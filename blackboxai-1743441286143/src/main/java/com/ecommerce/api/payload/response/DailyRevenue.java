@@ -0,0 +1,22 @@
+package com.ecommerce.api.payload.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailyRevenue {
+    private LocalDate date;
+    private BigDecimal revenue;
+
+    public DailyRevenue(LocalDate date, BigDecimal revenue) {
+        this.date = date;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
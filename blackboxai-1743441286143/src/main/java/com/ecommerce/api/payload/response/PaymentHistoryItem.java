@@ -0,0 +1,51 @@
+package com.ecommerce.api.payload.response;
+
+import com.ecommerce.api.model.Money;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+public class PaymentHistoryItem {
+    // Snowflake ids use all 63 bits; JavaScript numbers lose precision past 2^53
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+    private Money amount;
+    private String paymentMethod;
+    private String transactionId;
+    private String status;
+    private LocalDateTime paymentDate;
+
+    public PaymentHistoryItem(Long id, Money amount, String paymentMethod, String transactionId,
+                              String status, LocalDateTime paymentDate) {
+        this.id = id;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.transactionId = transactionId;
+        this.status = status;
+        this.paymentDate = paymentDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getPaymentDate() {
+        return paymentDate;
+    }
+}
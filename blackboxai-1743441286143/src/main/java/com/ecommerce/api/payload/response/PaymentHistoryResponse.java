@@ -0,0 +1,21 @@
+package com.ecommerce.api.payload.response;
+
+import java.util.List;
+
+public class PaymentHistoryResponse {
+    private List<PaymentHistoryItem> items;
+    private String nextCursor;
+
+    public PaymentHistoryResponse(List<PaymentHistoryItem> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PaymentHistoryItem> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
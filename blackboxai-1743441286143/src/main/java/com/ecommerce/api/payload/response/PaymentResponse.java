@@ -0,0 +1,63 @@
+package com.ecommerce.api.payload.response;
+
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Payment;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+public class PaymentResponse {
+    // Snowflake ids use all 63 bits; JavaScript numbers lose precision past 2^53
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+    private Money amount;
+    private String paymentMethod;
+    private String transactionId;
+    private String status;
+    private String failureReason;
+    private LocalDateTime paymentDate;
+
+    public PaymentResponse(Long id, Money amount, String paymentMethod, String transactionId,
+                           String status, String failureReason, LocalDateTime paymentDate) {
+        this.id = id;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.transactionId = transactionId;
+        this.status = status;
+        this.failureReason = failureReason;
+        this.paymentDate = paymentDate;
+    }
+
+    public static PaymentResponse of(Payment payment) {
+        return new PaymentResponse(payment.getId(), payment.getAmount(), payment.getPaymentMethod(),
+            payment.getTransactionId(), payment.getStatus(), payment.getFailureReason(), payment.getPaymentDate());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public LocalDateTime getPaymentDate() {
+        return paymentDate;
+    }
+}
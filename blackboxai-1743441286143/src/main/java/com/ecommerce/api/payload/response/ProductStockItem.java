@@ -0,0 +1,33 @@
+package com.ecommerce.api.payload.response;
+
+import com.ecommerce.api.model.Money;
+
+public class ProductStockItem {
+    private Long id;
+    private String name;
+    private Integer stockQuantity;
+    private Money price;
+
+    public ProductStockItem(Long id, String name, Integer stockQuantity, Money price) {
+        this.id = id;
+        this.name = name;
+        this.stockQuantity = stockQuantity;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.api.payload.response;
+
+import com.ecommerce.api.model.Money;
+
+import java.time.OffsetDateTime;
+
+public class RevenueBucket {
+    private OffsetDateTime start;
+    private Money revenue;
+    private long transactionCount;
+
+    public RevenueBucket(OffsetDateTime start, Money revenue, long transactionCount) {
+        this.start = start;
+        this.revenue = revenue;
+        this.transactionCount = transactionCount;
+    }
+
+    public OffsetDateTime getStart() {
+        return start;
+    }
+
+    public Money getRevenue() {
+        return revenue;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+}
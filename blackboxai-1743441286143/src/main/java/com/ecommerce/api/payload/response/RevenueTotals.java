@@ -0,0 +1,21 @@
+package com.ecommerce.api.payload.response;
+
+import java.math.BigDecimal;
+
+public class RevenueTotals {
+    private BigDecimal totalRevenue;
+    private long transactionCount;
+
+    public RevenueTotals(BigDecimal totalRevenue, Long transactionCount) {
+        this.totalRevenue = totalRevenue != null ? totalRevenue : BigDecimal.ZERO;
+        this.transactionCount = transactionCount != null ? transactionCount : 0L;
+    }
+
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+}
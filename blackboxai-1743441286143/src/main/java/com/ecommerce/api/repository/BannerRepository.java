@@ -2,12 +2,16 @@ package com.ecommerce.api.repository;
 
 import com.ecommerce.api.model.Banner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BannerRepository extends JpaRepository<Banner, Long> {
+public interface BannerRepository extends JpaRepository<Banner, Long>, BannerRepositoryCustom {
     List<Banner> findByTenantIdOrderByDisplayOrderAsc(Long tenantId);
     
     List<Banner> findByTenantIdAndIsActiveTrueAndStartDateBeforeAndEndDateAfterOrderByDisplayOrderAsc(
@@ -17,4 +21,13 @@ public interface BannerRepository extends JpaRepository<Banner, Long> {
     );
     
     List<Banner> findByTenantIdAndIsActiveTrue(Long tenantId);
-}
\ No newline at end of file
+
+    @Query("SELECT b.id FROM Banner b WHERE b.tenantId = :tenantId")
+    List<Long> findIdsByTenantId(@Param("tenantId") Long tenantId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Banner b SET b.isActive = :active WHERE b.tenantId = :tenantId AND b.id IN :ids")
+    int updateActiveByTenantIdAndIdIn(@Param("tenantId") Long tenantId,
+                                      @Param("ids") Collection<Long> ids,
+                                      @Param("active") Boolean active);
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.api.repository;
+
+import java.util.List;
+
+public interface BannerRepositoryCustom {
+    /**
+     * Sets display_order to the position of each id in {@code orderedIds}
+     * using a single JDBC batch.
+     */
+    int[] updateDisplayOrders(Long tenantId, List<Long> orderedIds);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.api.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BannerRepositoryImpl implements BannerRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] updateDisplayOrders(Long tenantId, List<Long> orderedIds) {
+        List<Object[]> args = new ArrayList<>(orderedIds.size());
+        for (int i = 0; i < orderedIds.size(); i++) {
+            args.add(new Object[]{i, orderedIds.get(i), tenantId});
+        }
+        return jdbcTemplate.batchUpdate(
+            "UPDATE banners SET display_order = ? WHERE id = ? AND tenant_id = ?", args);
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
     List<Category> findByParentCategoryIsNullAndTenantId(Long tenantId);
     List<Category> findByParentCategoryIdAndTenantId(Long parentId, Long tenantId);
     List<Category> findByTenantId(Long tenantId);
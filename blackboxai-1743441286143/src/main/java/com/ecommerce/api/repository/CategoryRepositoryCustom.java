@@ -0,0 +1,25 @@
+package com.ecommerce.api.repository;
+
+import com.ecommerce.api.model.Category;
+
+import java.util.List;
+
+/**
+ * Category listings of a tenant through the query cache. Each tenant has its own
+ * query region, so one tenant's catalogue cannot push another's out of the cache.
+ * Results are invalidated by Hibernate whenever categories are written through
+ * JPA on this instance; other instances see the change once their entries expire.
+ */
+public interface CategoryRepositoryCustom {
+    List<Category> findCachedByTenant(Long tenantId);
+
+    List<Category> findCachedRootsByTenant(Long tenantId);
+
+    List<Category> findCachedChildrenByTenant(Long tenantId, Long parentId);
+
+    /**
+     * Drops the tenant's cached listings, which Hibernate already treats as stale
+     * after a write, so they stop taking up room in the region.
+     */
+    void evictCachedQueries(Long tenantId);
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.api.repository;
+
+import com.ecommerce.api.metrics.SecondLevelCacheMetrics;
+import com.ecommerce.api.model.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Cache;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+    private static final String QUERY_REGION_PREFIX = "query.category.tenant-";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SecondLevelCacheMetrics cacheMetrics;
+
+    @Override
+    public List<Category> findCachedByTenant(Long tenantId) {
+        return cachedQuery(tenantId, "SELECT c FROM Category c WHERE c.tenantId = :tenantId")
+            .getResultList();
+    }
+
+    @Override
+    public List<Category> findCachedRootsByTenant(Long tenantId) {
+        return cachedQuery(tenantId,
+                "SELECT c FROM Category c WHERE c.tenantId = :tenantId AND c.parentCategory IS NULL")
+            .getResultList();
+    }
+
+    @Override
+    public List<Category> findCachedChildrenByTenant(Long tenantId, Long parentId) {
+        return cachedQuery(tenantId,
+                "SELECT c FROM Category c WHERE c.tenantId = :tenantId AND c.parentCategory.id = :parentId")
+            .setParameter("parentId", parentId)
+            .getResultList();
+    }
+
+    @Override
+    public void evictCachedQueries(Long tenantId) {
+        entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class)
+            .evictQueryRegion(QUERY_REGION_PREFIX + tenantId);
+    }
+
+    private TypedQuery<Category> cachedQuery(Long tenantId, String jpql) {
+        String region = QUERY_REGION_PREFIX + tenantId;
+        cacheMetrics.tenantRegionUsed(tenantId, region);
+        return entityManager.createQuery(jpql, Category.class)
+            .setParameter("tenantId", tenantId)
+            .setHint(HibernateHints.HINT_CACHEABLE, true)
+            .setHint(HibernateHints.HINT_CACHE_REGION, region);
+    }
+}
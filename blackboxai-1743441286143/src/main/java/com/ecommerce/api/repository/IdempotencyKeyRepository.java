@@ -0,0 +1,39 @@
+package com.ecommerce.api.repository;
+
+import com.ecommerce.api.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    Optional<IdempotencyKey> findByTenantIdAndIdempotencyKey(Long tenantId, String idempotencyKey);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyKey k SET k.lockedUntil = :lease " +
+        "WHERE k.id = :id AND k.status = 'IN_PROGRESS' AND k.lockedUntil < :now")
+    int takeOverExpiredLease(@Param("id") Long id, @Param("lease") LocalDateTime lease, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyKey k SET k.status = 'COMPLETED', k.paymentId = :paymentId " +
+        "WHERE k.id = :id AND k.status = 'IN_PROGRESS' AND k.lockedUntil = :lease")
+    int complete(@Param("id") Long id, @Param("lease") LocalDateTime lease, @Param("paymentId") Long paymentId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.status = 'IN_PROGRESS' AND k.lockedUntil = :lease")
+    int release(@Param("id") Long id, @Param("lease") LocalDateTime lease);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
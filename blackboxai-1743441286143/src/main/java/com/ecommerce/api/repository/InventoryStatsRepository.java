@@ -0,0 +1,54 @@
+package com.ecommerce.api.repository;
+
+import com.ecommerce.api.model.InventoryStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface InventoryStatsRepository extends JpaRepository<InventoryStats, Long> {
+
+    @Modifying
+    @Query(value = "UPDATE inventory_stats SET " +
+                   "total_products = total_products + :products, " +
+                   "low_stock_products = low_stock_products + :lowStock, " +
+                   "out_of_stock_products = out_of_stock_products + :outOfStock, " +
+                   "total_stock = total_stock + :stock, " +
+                   "total_inventory_value = total_inventory_value + :inventoryValue " +
+                   "WHERE tenant_id = :tenantId",
+           nativeQuery = true)
+    int applyDelta(@Param("tenantId") Long tenantId,
+                   @Param("products") long products,
+                   @Param("lowStock") long lowStock,
+                   @Param("outOfStock") long outOfStock,
+                   @Param("stock") long stock,
+                   @Param("inventoryValue") BigDecimal inventoryValue);
+
+    @Modifying
+    @Query(value = "INSERT INTO inventory_stats " +
+                   "(tenant_id, total_products, low_stock_products, out_of_stock_products, total_stock, total_inventory_value) " +
+                   "VALUES (:tenantId, 0, 0, 0, 0, 0)",
+           nativeQuery = true)
+    int insertEmpty(@Param("tenantId") Long tenantId);
+
+    @Modifying
+    @Query(value = "INSERT INTO inventory_stats " +
+                   "(tenant_id, total_products, low_stock_products, out_of_stock_products, total_stock, total_inventory_value) " +
+                   "SELECT :tenantId, COUNT(*), " +
+                   "COALESCE(SUM(CASE WHEN stock_quantity <= :lowStockThreshold THEN 1 ELSE 0 END), 0), " +
+                   "COALESCE(SUM(CASE WHEN stock_quantity = 0 THEN 1 ELSE 0 END), 0), " +
+                   "COALESCE(SUM(stock_quantity), 0), " +
+                   "COALESCE(SUM(price * COALESCE(stock_quantity, 0)), 0) " +
+                   "FROM products WHERE tenant_id = :tenantId " +
+                   "ON DUPLICATE KEY UPDATE total_products = VALUES(total_products), " +
+                   "low_stock_products = VALUES(low_stock_products), " +
+                   "out_of_stock_products = VALUES(out_of_stock_products), " +
+                   "total_stock = VALUES(total_stock), " +
+                   "total_inventory_value = VALUES(total_inventory_value)",
+           nativeQuery = true)
+    int rebuild(@Param("tenantId") Long tenantId, @Param("lowStockThreshold") int lowStockThreshold);
+}
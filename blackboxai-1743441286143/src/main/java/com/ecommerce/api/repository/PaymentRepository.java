@@ -1,11 +1,87 @@
 package com.ecommerce.api.repository;
 
 import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.payload.response.PaymentHistoryItem;
+import com.ecommerce.api.payload.response.PaymentResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByTenantId(Long tenantId);
     List<Payment> findByUserIdAndTenantId(Long userId, Long tenantId);
-}
\ No newline at end of file
+
+    /**
+     * One keyset page of a user's history, newest first. Served from
+     * idx_payments_user_history without touching the users table.
+     */
+    @Query("SELECT new com.ecommerce.api.payload.response.PaymentHistoryItem(" +
+           "p.id, p.amount, p.paymentMethod, p.transactionId, p.status, p.paymentDate) " +
+           "FROM Payment p " +
+           "WHERE p.tenantId = :tenantId AND p.user.id = :userId " +
+           "AND p.paymentDate >= :from AND p.paymentDate < :to " +
+           "AND (p.paymentDate < :cursorDate OR (p.paymentDate = :cursorDate AND p.id < :cursorId)) " +
+           "AND (:status IS NULL OR p.status = :status) " +
+           "ORDER BY p.paymentDate DESC, p.id DESC")
+    List<PaymentHistoryItem> findHistoryPage(@Param("tenantId") Long tenantId,
+                                             @Param("userId") Long userId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             @Param("cursorDate") LocalDateTime cursorDate,
+                                             @Param("cursorId") Long cursorId,
+                                             @Param("status") String status,
+                                             Pageable pageable);
+
+    /**
+     * One of the user's payments; empty for another user's or another tenant's payment.
+     */
+    @Query("SELECT new com.ecommerce.api.payload.response.PaymentResponse(" +
+           "p.id, p.amount, p.paymentMethod, p.transactionId, p.status, p.failureReason, p.paymentDate) " +
+           "FROM Payment p " +
+           "WHERE p.id = :id AND p.tenantId = :tenantId AND p.user.id = :userId")
+    Optional<PaymentResponse> findForUser(@Param("tenantId") Long tenantId,
+                                          @Param("userId") Long userId,
+                                          @Param("id") Long id);
+
+    /**
+     * Compare-and-set status change; returns 0 when the payment is no longer in {@code fromStatus}.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :toStatus, p.attemptCount = :attemptCount, " +
+           "p.failureReason = :failureReason, p.nextAttemptAt = :nextAttemptAt " +
+           "WHERE p.id = :id AND p.status = :fromStatus")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("fromStatus") String fromStatus,
+                         @Param("toStatus") String toStatus,
+                         @Param("attemptCount") Integer attemptCount,
+                         @Param("failureReason") String failureReason,
+                         @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Takes over a PROCESSING payment whose worker's lease (next_attempt_at) has
+     * expired; returns 0 when the lease is still held or another worker took it first.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.attemptCount = :attemptCount, p.nextAttemptAt = :leaseUntil " +
+           "WHERE p.id = :id AND p.status = 'PROCESSING' AND p.nextAttemptAt < :now")
+    int takeOverExpiredLease(@Param("id") Long id,
+                             @Param("attemptCount") Integer attemptCount,
+                             @Param("leaseUntil") LocalDateTime leaseUntil,
+                             @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.id FROM Payment p WHERE p.status = :status AND p.nextAttemptAt < :before ORDER BY p.nextAttemptAt")
+    List<Long> findIdsByStatusAndNextAttemptAtBefore(@Param("status") String status,
+                                                     @Param("before") LocalDateTime before,
+                                                     Pageable pageable);
+}
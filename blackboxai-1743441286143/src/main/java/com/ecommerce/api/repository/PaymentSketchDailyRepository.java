@@ -0,0 +1,41 @@
+package com.ecommerce.api.repository;
+
+import com.ecommerce.api.model.PaymentSketchDaily;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentSketchDailyRepository extends JpaRepository<PaymentSketchDaily, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO payment_sketch_daily (tenant_id, sketch_date, payment_count, buyers_sketch, order_value_sketch) " +
+                   "VALUES (:tenantId, :sketchDate, 0, X'', X'') " +
+                   "ON DUPLICATE KEY UPDATE payment_count = payment_count",
+           nativeQuery = true)
+    int ensureExists(@Param("tenantId") Long tenantId, @Param("sketchDate") LocalDate sketchDate);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PaymentSketchDaily s WHERE s.tenantId = :tenantId AND s.sketchDate = :sketchDate")
+    Optional<PaymentSketchDaily> findForUpdate(@Param("tenantId") Long tenantId,
+                                               @Param("sketchDate") LocalDate sketchDate);
+
+    @Query("SELECT s FROM PaymentSketchDaily s " +
+           "WHERE s.tenantId = :tenantId AND s.sketchDate >= :from AND s.sketchDate <= :to " +
+           "ORDER BY s.sketchDate")
+    List<PaymentSketchDaily> findRange(@Param("tenantId") Long tenantId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM PaymentSketchDaily s WHERE s.tenantId = :tenantId")
+    int deleteByTenant(@Param("tenantId") Long tenantId);
+}
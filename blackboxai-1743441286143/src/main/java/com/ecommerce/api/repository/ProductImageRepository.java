@@ -2,10 +2,19 @@ package com.ecommerce.api.repository;
 
 import com.ecommerce.api.model.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
-    List<ProductImage> findByProduct_TenantId(Long tenantId);
+    /**
+     * Inner join, so the tenant's products are found by index first and their
+     * images by product_id. The derived query's left join reads every image.
+     */
+    @Query("SELECT i FROM ProductImage i JOIN i.product p WHERE p.tenantId = :tenantId")
+    List<ProductImage> findByProduct_TenantId(@Param("tenantId") Long tenantId);
     List<ProductImage> findByProductIdAndProduct_TenantId(Long productId, Long tenantId);
 }
\ No newline at end of file
@@ -1,13 +1,44 @@
 package com.ecommerce.api.repository;
 
 import com.ecommerce.api.model.Product;
+import com.ecommerce.api.payload.response.ProductStockItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    // Listings serialize each product with its category and images; fetch them in the same query
+    @EntityGraph(attributePaths = {"category", "images"})
     List<Product> findByCategoryIdAndTenantId(Long categoryId, Long tenantId);
+    @EntityGraph(attributePaths = {"category", "images"})
     List<Product> findByTenantId(Long tenantId);
-}
\ No newline at end of file
+
+    // Writes derive counter deltas and alert transitions from the old row, so concurrent writes must queue
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findForUpdate(@Param("id") Long id);
+
+    @Query("SELECT new com.ecommerce.api.payload.response.ProductStockItem(p.id, p.name, p.stockQuantity, p.price) " +
+           "FROM Product p " +
+           "WHERE p.tenantId = :tenantId AND (p.stockQuantity IS NULL OR p.stockQuantity = 0) " +
+           "ORDER BY p.id")
+    List<ProductStockItem> findOutOfStockPage(@Param("tenantId") Long tenantId, Pageable pageable);
+
+    @Query("SELECT new com.ecommerce.api.payload.response.ProductStockItem(p.id, p.name, p.stockQuantity, p.price) " +
+           "FROM Product p " +
+           "WHERE p.tenantId = :tenantId AND p.stockQuantity >= :minStock AND p.stockQuantity <= :maxStock " +
+           "ORDER BY p.stockQuantity, p.id")
+    List<ProductStockItem> findStockRangePage(@Param("tenantId") Long tenantId,
+                                              @Param("minStock") int minStock,
+                                              @Param("maxStock") int maxStock,
+                                              Pageable pageable);
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.api.repository;
+
+import com.ecommerce.api.model.RevenueDaily;
+import com.ecommerce.api.payload.response.DailyRevenue;
+import com.ecommerce.api.payload.response.RevenueTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RevenueDailyRepository extends JpaRepository<RevenueDaily, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO revenue_daily (tenant_id, revenue_date, payment_method, transaction_count, revenue) " +
+                   "VALUES (:tenantId, :revenueDate, :paymentMethod, 1, :amount) " +
+                   "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + 1, revenue = revenue + :amount",
+           nativeQuery = true)
+    int addCompletedPayment(@Param("tenantId") Long tenantId,
+                            @Param("revenueDate") LocalDate revenueDate,
+                            @Param("paymentMethod") String paymentMethod,
+                            @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("DELETE FROM RevenueDaily r WHERE r.tenantId = :tenantId")
+    int deleteByTenant(@Param("tenantId") Long tenantId);
+
+    @Modifying
+    @Query(value = "INSERT INTO revenue_daily (tenant_id, revenue_date, payment_method, transaction_count, revenue) " +
+                   "SELECT tenant_id, CAST(payment_date AS DATE), payment_method, COUNT(*), SUM(amount) " +
+                   "FROM payments WHERE tenant_id = :tenantId AND status = :status " +
+                   "GROUP BY tenant_id, CAST(payment_date AS DATE), payment_method",
+           nativeQuery = true)
+    int rebuildFromPayments(@Param("tenantId") Long tenantId, @Param("status") String status);
+
+    @Query("SELECT new com.ecommerce.api.payload.response.RevenueTotals(SUM(r.revenue), SUM(r.transactionCount)) " +
+           "FROM RevenueDaily r " +
+           "WHERE r.tenantId = :tenantId AND r.revenueDate >= :from AND r.revenueDate <= :to")
+    RevenueTotals sumRevenue(@Param("tenantId") Long tenantId,
+                             @Param("from") LocalDate from,
+                             @Param("to") LocalDate to);
+
+    @Query("SELECT new com.ecommerce.api.payload.response.DailyRevenue(r.revenueDate, SUM(r.revenue)) " +
+           "FROM RevenueDaily r " +
+           "WHERE r.tenantId = :tenantId AND r.revenueDate >= :from AND r.revenueDate <= :to " +
+           "GROUP BY r.revenueDate ORDER BY r.revenueDate")
+    List<DailyRevenue> sumRevenueByDay(@Param("tenantId") Long tenantId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+}
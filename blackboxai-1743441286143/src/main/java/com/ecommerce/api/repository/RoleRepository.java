@@ -2,12 +2,19 @@ package com.ecommerce.api.repository;
 
 import com.ecommerce.api.model.Role;
 import com.ecommerce.api.model.RoleEnum;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Integer> {
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.role")
+    })
     Optional<Role> findByName(RoleEnum name);
 }
\ No newline at end of file
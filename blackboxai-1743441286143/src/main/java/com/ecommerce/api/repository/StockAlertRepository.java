@@ -0,0 +1,25 @@
+package com.ecommerce.api.repository;
+
+import com.ecommerce.api.model.StockAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
+
+    @Query("SELECT a FROM StockAlert a WHERE a.tenantId = :tenantId AND a.id < :beforeId ORDER BY a.id DESC")
+    List<StockAlert> findPage(@Param("tenantId") Long tenantId,
+                              @Param("beforeId") Long beforeId,
+                              Pageable pageable);
+
+    @Query("SELECT a FROM StockAlert a WHERE a.id > :afterId ORDER BY a.id")
+    List<StockAlert> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM StockAlert a")
+    long findMaxId();
+}
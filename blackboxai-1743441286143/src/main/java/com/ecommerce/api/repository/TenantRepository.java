@@ -1,12 +1,20 @@
 package com.ecommerce.api.repository;
 
 import com.ecommerce.api.model.Tenant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
+    // Resolved on every request by TenantInterceptor
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.tenant")
+    })
     Optional<Tenant> findByDomain(String domain);
 }
\ No newline at end of file
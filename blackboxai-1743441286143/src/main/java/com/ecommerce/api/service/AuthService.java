@@ -1,5 +1,6 @@
 package com.ecommerce.api.service;
 
+import com.ecommerce.api.interceptor.TenantContext;
 import com.ecommerce.api.model.Role;
 import com.ecommerce.api.model.RoleEnum;
 import com.ecommerce.api.model.User;
@@ -64,11 +65,12 @@ public class AuthService {
     }
 
     public void registerUser(SignupRequest signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        if (userRepository.existsByUsernameAndTenantId(signUpRequest.getUsername(), tenantId)) {
             throw new RuntimeException("Error: Username is already taken!");
         }
 
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+        if (userRepository.existsByEmailAndTenantId(signUpRequest.getEmail(), tenantId)) {
             throw new RuntimeException("Error: Email is already in use!");
         }
 
@@ -76,6 +78,7 @@ public class AuthService {
         User user = new User(signUpRequest.getUsername(), 
                            signUpRequest.getEmail(),
                            passwordEncoder.encode(signUpRequest.getPassword()));
+        user.setTenantId(tenantId);
 
         Set<Role> roles = new HashSet<>();
         
@@ -86,4 +89,13 @@ public class AuthService {
         user.setRoles(roles);
         userRepository.save(user);
     }
+
+    /**
+     * The signed-in user of the current tenant; the bearer token's subject is the username.
+     */
+    public User getCurrentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByUsernameAndTenantId(username, TenantContext.getCurrentTenant().getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
 }
\ No newline at end of file
@@ -1,26 +1,42 @@
 package com.ecommerce.api.service;
 
+import com.ecommerce.api.datasource.ReadFromReplica;
 import com.ecommerce.api.interceptor.TenantContext;
 import com.ecommerce.api.model.Banner;
+import com.ecommerce.api.payload.request.BannerBulkUpdateRequest;
 import com.ecommerce.api.repository.BannerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class BannerService {
+    // Plain JDBC on purpose: Tenant entities are cached, and a JPA update would evict them on every banner write
+    private static final String BUMP_BANNER_SET_VERSION =
+        "UPDATE tenants SET banner_version = banner_version + 1 WHERE id = ?";
+    private static final String SELECT_BANNER_SET_VERSION = "SELECT banner_version FROM tenants WHERE id = ?";
 
     @Autowired
     private BannerRepository bannerRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     public List<Banner> getAllBanners() {
         Long tenantId = TenantContext.getCurrentTenant().getId();
         return bannerRepository.findByTenantIdOrderByDisplayOrderAsc(tenantId);
     }
 
+    @ReadFromReplica
     public List<Banner> getActiveBanners() {
         Long tenantId = TenantContext.getCurrentTenant().getId();
         LocalDateTime now = LocalDateTime.now();
@@ -28,6 +44,17 @@ public class BannerService {
             tenantId, now, now);
     }
 
+    /**
+     * Version of the current tenant's banner set; stored on the tenant row and
+     * bumped in the same transaction as every banner write, so it is the same on
+     * every instance and clients and caches can revalidate cheaply.
+     */
+    public long getBannerSetVersion() {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        Long version = jdbcTemplate.queryForObject(SELECT_BANNER_SET_VERSION, Long.class, tenantId);
+        return version == null ? 0 : version;
+    }
+
     public Banner getBannerById(Long id) {
         return bannerRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Banner not found"));
@@ -36,6 +63,7 @@ public class BannerService {
     @Transactional
     public Banner createBanner(Banner banner) {
         banner.setTenantId(TenantContext.getCurrentTenant().getId());
+        bumpBannerSetVersion(banner.getTenantId());
         return bannerRepository.save(banner);
     }
 
@@ -52,12 +80,14 @@ public class BannerService {
         banner.setStartDate(bannerDetails.getStartDate());
         banner.setEndDate(bannerDetails.getEndDate());
 
+        bumpBannerSetVersion(banner.getTenantId());
         return bannerRepository.save(banner);
     }
 
     @Transactional
     public void deleteBanner(Long id) {
         Banner banner = getBannerById(id);
+        bumpBannerSetVersion(banner.getTenantId());
         bannerRepository.delete(banner);
     }
 
@@ -65,6 +95,7 @@ public class BannerService {
     public Banner updateBannerOrder(Long id, Integer order) {
         Banner banner = getBannerById(id);
         banner.setDisplayOrder(order);
+        bumpBannerSetVersion(banner.getTenantId());
         return bannerRepository.save(banner);
     }
 
@@ -72,6 +103,63 @@ public class BannerService {
     public Banner toggleBannerActive(Long id) {
         Banner banner = getBannerById(id);
         banner.setIsActive(!banner.getIsActive());
+        bumpBannerSetVersion(banner.getTenantId());
         return bannerRepository.save(banner);
     }
-}
\ No newline at end of file
+
+    /**
+     * Reorders all of the tenant's banners and flips their active flags in one
+     * transaction; {@code orderedIds} must list every banner of the tenant exactly once.
+     */
+    @Transactional
+    public List<Banner> bulkUpdateBanners(BannerBulkUpdateRequest request) {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        List<Long> orderedIds = request.getOrderedIds();
+        Set<Long> activateIds = toIdSet(request.getActivateIds());
+        Set<Long> deactivateIds = toIdSet(request.getDeactivateIds());
+
+        // Bumping first locks the tenant row, so concurrent banner writes cannot change the set under us
+        bumpBannerSetVersion(tenantId);
+
+        if (new HashSet<>(orderedIds).size() != orderedIds.size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duplicate banner id in ordered list");
+        }
+        for (Long id : activateIds) {
+            if (deactivateIds.contains(id)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Banner " + id + " cannot be both activated and deactivated");
+            }
+        }
+        Set<Long> tenantBannerIds = new HashSet<>(bannerRepository.findIdsByTenantId(tenantId));
+        if (!tenantBannerIds.equals(new HashSet<>(orderedIds))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "orderedIds must list every banner of the tenant exactly once");
+        }
+        if (!tenantBannerIds.containsAll(activateIds) || !tenantBannerIds.containsAll(deactivateIds)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "activateIds and deactivateIds may only list banners of the tenant");
+        }
+
+        if (!orderedIds.isEmpty()) {
+            bannerRepository.updateDisplayOrders(tenantId, orderedIds);
+        }
+        if (!activateIds.isEmpty()) {
+            bannerRepository.updateActiveByTenantIdAndIdIn(tenantId, activateIds, true);
+        }
+        if (!deactivateIds.isEmpty()) {
+            bannerRepository.updateActiveByTenantIdAndIdIn(tenantId, deactivateIds, false);
+        }
+
+        return bannerRepository.findByTenantIdOrderByDisplayOrderAsc(tenantId);
+    }
+
+    private Set<Long> toIdSet(Collection<Long> ids) {
+        return ids == null ? Set.of() : new HashSet<>(ids);
+    }
+
+    private void bumpBannerSetVersion(Long tenantId) {
+        if (tenantId != null) {
+            jdbcTemplate.update(BUMP_BANNER_SET_VERSION, tenantId);
+        }
+    }
+}
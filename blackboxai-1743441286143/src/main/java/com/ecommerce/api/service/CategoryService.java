@@ -1,9 +1,14 @@
 package com.ecommerce.api.service;
 
+import com.ecommerce.api.datasource.ReadFromReplica;
+import com.ecommerce.api.interceptor.TenantContext;
 import com.ecommerce.api.model.Category;
 import com.ecommerce.api.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
@@ -12,22 +17,30 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @ReadFromReplica
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return categoryRepository.findCachedByTenant(TenantContext.getCurrentTenant().getId());
     }
 
+    @ReadFromReplica
     public List<Category> getRootCategories() {
-        return categoryRepository.findByParentCategoryIsNull();
+        return categoryRepository.findCachedRootsByTenant(TenantContext.getCurrentTenant().getId());
     }
 
+    @ReadFromReplica
     public List<Category> getSubCategories(Long parentId) {
-        return categoryRepository.findByParentCategoryId(parentId);
+        return categoryRepository.findCachedChildrenByTenant(TenantContext.getCurrentTenant().getId(), parentId);
     }
 
+    @Transactional
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        category.setTenantId(TenantContext.getCurrentTenant().getId());
+        Category savedCategory = categoryRepository.save(category);
+        evictCachedQueriesAfterCommit(savedCategory.getTenantId());
+        return savedCategory;
     }
 
+    @Transactional
     public Category updateCategory(Long id, Category categoryDetails) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
@@ -37,12 +50,33 @@ public class CategoryService {
         category.setParentCategory(categoryDetails.getParentCategory());
         category.setImageUrl(categoryDetails.getImageUrl());
         
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        evictCachedQueriesAfterCommit(savedCategory.getTenantId());
+        return savedCategory;
     }
 
+    @Transactional
     public void deleteCategory(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
         categoryRepository.delete(category);
+        evictCachedQueriesAfterCommit(category.getTenantId());
     }
-}
\ No newline at end of file
+
+    // Entity entries are updated by the READ_WRITE cache itself; only listings need evicting
+    private void evictCachedQueriesAfterCommit(Long tenantId) {
+        if (tenantId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    categoryRepository.evictCachedQueries(tenantId);
+                }
+            });
+        } else {
+            categoryRepository.evictCachedQueries(tenantId);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.model.IdempotencyKey;
+import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.repository.IdempotencyKeyRepository;
+import com.ecommerce.api.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates payment requests carrying an {@code Idempotency-Key} header.
+ *
+ * Recently seen keys live in an in-memory map holding the future of the original
+ * request, so retries and concurrent duplicates on this instance are answered (or
+ * wait) without touching the database. The {@code idempotency_keys} table is the
+ * durable tier: it survives restarts and its unique constraint stops two instances
+ * from running the same key.
+ *
+ * A request running a key holds it for {@code idempotency.lease-seconds}. If the
+ * instance dies mid-request, a retry after the lease has expired takes the key
+ * over. The lease end is also the holder's ownership token: a holder that lost
+ * its key to a takeover cannot complete it, and its payment rolls back.
+ */
+@Service
+public class IdempotencyService {
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.hot-ttl-seconds:600}")
+    private long hotTtlSeconds;
+
+    @Value("${idempotency.lease-seconds:30}")
+    private long leaseSeconds;
+
+    private final ConcurrentMap<String, HotEntry> hotKeys = new ConcurrentHashMap<>();
+
+    public Payment execute(Long tenantId, String key, String requestHash, Supplier<Payment> action) {
+        String cacheKey = tenantId + ":" + key;
+        while (true) {
+            HotEntry entry = hotKeys.get(cacheKey);
+            if (entry != null && entry.expiresAtNanos - System.nanoTime() < 0) {
+                hotKeys.remove(cacheKey, entry);
+                entry = null;
+            }
+            if (entry != null) {
+                if (!entry.requestHash.equals(requestHash)) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request");
+                }
+                try {
+                    return entry.result.join();
+                } catch (CompletionException e) {
+                    // The original attempt failed and has been forgotten; run again
+                    continue;
+                }
+            }
+
+            HotEntry created = new HotEntry(requestHash, System.nanoTime() + hotTtlSeconds * 1_000_000_000L);
+            if (hotKeys.putIfAbsent(cacheKey, created) != null) {
+                continue;
+            }
+            try {
+                Payment payment = runOnce(tenantId, key, requestHash, action);
+                created.result.complete(payment);
+                return payment;
+            } catch (RuntimeException e) {
+                hotKeys.remove(cacheKey, created);
+                created.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private Payment runOnce(Long tenantId, String key, String requestHash, Supplier<Payment> action) {
+        Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByTenantIdAndIdempotencyKey(tenantId, key);
+        if (existing.isPresent()) {
+            return takeOverOrReplay(existing.get(), requestHash, action);
+        }
+
+        IdempotencyKey record = new IdempotencyKey();
+        record.setTenantId(tenantId);
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setStatus(IdempotencyKey.IN_PROGRESS);
+        record.setCreatedAt(LocalDateTime.now());
+        record.setExpiresAt(record.getCreatedAt().plusHours(ttlHours));
+        record.setLockedUntil(newLease());
+        try {
+            record = idempotencyKeyRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance claimed the key between our lookup and insert
+            return idempotencyKeyRepository.findByTenantIdAndIdempotencyKey(tenantId, key)
+                .map(other -> replay(other, requestHash))
+                .orElseThrow(() -> e);
+        }
+        return run(record.getId(), record.getLockedUntil(), action);
+    }
+
+    private Payment takeOverOrReplay(IdempotencyKey record, String requestHash, Supplier<Payment> action) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!IdempotencyKey.IN_PROGRESS.equals(record.getStatus()) || record.getLockedUntil() == null
+                || !record.getLockedUntil().isBefore(now) || !record.getRequestHash().equals(requestHash)) {
+            return replay(record, requestHash);
+        }
+        // The holder's lease ran out without completing, so its payment never committed
+        LocalDateTime lease = newLease();
+        if (idempotencyKeyRepository.takeOverExpiredLease(record.getId(), lease, now) == 0) {
+            return idempotencyKeyRepository.findById(record.getId())
+                .map(other -> replay(other, requestHash))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress"));
+        }
+        return run(record.getId(), lease, action);
+    }
+
+    private Payment run(Long keyId, LocalDateTime lease, Supplier<Payment> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Payment payment = action.get();
+                if (idempotencyKeyRepository.complete(keyId, lease, payment.getId()) == 0) {
+                    // Our lease expired and another request took the key over; roll the payment back
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress");
+                }
+                return payment;
+            });
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.release(keyId, lease);
+            throw e;
+        }
+    }
+
+    // DATETIME keeps whole seconds, and the lease is compared for equality
+    private LocalDateTime newLease() {
+        return LocalDateTime.now().plusSeconds(leaseSeconds).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private Payment replay(IdempotencyKey record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used with a different request");
+        }
+        if (!IdempotencyKey.COMPLETED.equals(record.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still in progress");
+        }
+        return paymentRepository.findById(record.getPaymentId())
+            .orElseThrow(() -> new RuntimeException("Payment not found"));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:300000}")
+    public void purgeExpiredKeys() {
+        long now = System.nanoTime();
+        hotKeys.entrySet().removeIf(e -> e.getValue().result.isDone() && e.getValue().expiresAtNanos - now < 0);
+        idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private static final class HotEntry {
+        private final String requestHash;
+        private final long expiresAtNanos;
+        private final CompletableFuture<Payment> result = new CompletableFuture<>();
+
+        private HotEntry(String requestHash, long expiresAtNanos) {
+            this.requestHash = requestHash;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.model.InventoryStats;
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Product;
+import com.ecommerce.api.payload.response.ProductStockItem;
+import com.ecommerce.api.repository.InventoryStatsRepository;
+import com.ecommerce.api.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Per-tenant inventory counters kept current from product writes.
+ *
+ * Every product create/update/delete applies the difference between the
+ * product's old and new contribution in the same transaction, so reading the
+ * dashboard numbers is a single primary-key lookup. The counter row is created
+ * with the tenant (V6 created it for the tenants that existed before), so writes
+ * only ever add to it and reads never write.
+ */
+@Service
+public class InventoryStatsService {
+    public static final int LOW_STOCK_THRESHOLD = 10;
+
+    public static final String OUT_OF_STOCK = "outOfStock";
+    public static final String LOW_STOCK = "lowStock";
+    public static final String IN_STOCK = "inStock";
+
+    @Autowired
+    private InventoryStatsRepository inventoryStatsRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Transactional(readOnly = true)
+    public InventoryStats getStats(Long tenantId) {
+        return inventoryStatsRepository.findById(tenantId)
+            .orElseThrow(() -> new RuntimeException("Inventory statistics not found"));
+    }
+
+    /**
+     * Creates the empty counter row of a new tenant. Must run in the transaction
+     * that creates the tenant.
+     */
+    public void tenantCreated(Long tenantId) {
+        inventoryStatsRepository.insertEmpty(tenantId);
+    }
+
+    /**
+     * Recomputes the counters from the products table, for tenants whose products
+     * were written around this service. Product writes of the tenant running at
+     * the same time may be lost.
+     */
+    @Transactional
+    public void rebuild(Long tenantId) {
+        productRepository.flush();
+        inventoryStatsRepository.rebuild(tenantId, LOW_STOCK_THRESHOLD);
+    }
+
+    public void productCreated(Product product) {
+        apply(product.getTenantId(), null, null, product.getStockQuantity(), product.getPrice(), 1);
+    }
+
+    public void productUpdated(Long tenantId, Integer oldStock, Money oldPrice, Product product) {
+        apply(tenantId, oldStock, oldPrice, product.getStockQuantity(), product.getPrice(), 0);
+    }
+
+    public void productDeleted(Product product) {
+        apply(product.getTenantId(), product.getStockQuantity(), product.getPrice(), null, null, -1);
+    }
+
+    public List<ProductStockItem> getProductsByStockStatus(Long tenantId, String status, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        switch (status) {
+            case OUT_OF_STOCK:
+                return productRepository.findOutOfStockPage(tenantId, pageRequest);
+            case LOW_STOCK:
+                return productRepository.findStockRangePage(tenantId, 1, LOW_STOCK_THRESHOLD, pageRequest);
+            case IN_STOCK:
+                return productRepository.findStockRangePage(tenantId, LOW_STOCK_THRESHOLD + 1, Integer.MAX_VALUE, pageRequest);
+            default:
+                throw new RuntimeException("Unknown stock status: " + status);
+        }
+    }
+
+    private void apply(Long tenantId, Integer oldStock, Money oldPrice,
+                       Integer newStock, Money newPrice, long productDelta) {
+        if (tenantId == null) {
+            return;
+        }
+        long lowStockDelta = isLowStock(newStock) - isLowStock(oldStock);
+        long outOfStockDelta = isOutOfStock(newStock) - isOutOfStock(oldStock);
+        long stockDelta = (long) valueOf(newStock) - valueOf(oldStock);
+        Money valueDelta = inventoryValue(newPrice, newStock).minus(inventoryValue(oldPrice, oldStock));
+        if (productDelta == 0 && lowStockDelta == 0 && outOfStockDelta == 0 && stockDelta == 0
+                && valueDelta.signum() == 0) {
+            return;
+        }
+
+        int updated = inventoryStatsRepository.applyDelta(tenantId, productDelta, lowStockDelta,
+            outOfStockDelta, stockDelta, valueDelta.toBigDecimal());
+        if (updated == 0) {
+            throw new IllegalStateException("Inventory statistics not found for tenant " + tenantId);
+        }
+    }
+
+    private static int isLowStock(Integer stock) {
+        return stock != null && stock <= LOW_STOCK_THRESHOLD ? 1 : 0;
+    }
+
+    private static int isOutOfStock(Integer stock) {
+        return stock != null && stock == 0 ? 1 : 0;
+    }
+
+    private static int valueOf(Integer stock) {
+        return stock != null ? stock : 0;
+    }
+
+    private static Money inventoryValue(Money price, Integer stock) {
+        if (price == null || stock == null) {
+            return Money.ZERO;
+        }
+        return price.times(stock);
+    }
+}
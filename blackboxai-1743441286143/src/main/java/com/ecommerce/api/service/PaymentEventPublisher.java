@@ -0,0 +1,68 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.model.PaymentStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes payment status changes to SSE subscribers of that payment.
+ */
+@Service
+public class PaymentEventPublisher {
+    private static final long EMITTER_TIMEOUT_MS = 60_000L;
+
+    private final ConcurrentMap<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long paymentId, String status, String failureReason) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        List<SseEmitter> list = emitters.computeIfAbsent(paymentId, id -> new CopyOnWriteArrayList<>());
+        list.add(emitter);
+        emitter.onCompletion(() -> remove(paymentId, emitter));
+        emitter.onTimeout(() -> remove(paymentId, emitter));
+        emitter.onError(e -> remove(paymentId, emitter));
+
+        // Send the current state right away so late subscribers don't miss a terminal event
+        publish(paymentId, status, failureReason);
+        return emitter;
+    }
+
+    public void publish(Long paymentId, String status, String failureReason) {
+        List<SseEmitter> list = emitters.get(paymentId);
+        if (list == null) {
+            return;
+        }
+        Map<String, Object> event = new HashMap<>();
+        // Same string form as the REST responses: 63-bit ids do not survive JavaScript numbers
+        event.put("paymentId", String.valueOf(paymentId));
+        event.put("status", status);
+        if (failureReason != null) {
+            event.put("failureReason", failureReason);
+        }
+        boolean terminal = PaymentStatus.valueOf(status).isTerminal();
+        for (SseEmitter emitter : list) {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(event));
+                if (terminal) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove(paymentId, emitter);
+            }
+        }
+    }
+
+    private void remove(Long paymentId, SseEmitter emitter) {
+        emitters.computeIfPresent(paymentId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,222 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.model.Payment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group-commit writer for new payment rows.
+ *
+ * Request threads enqueue payments and get a future back; a single writer thread
+ * drains the queue into micro-batches bounded by {@code batch-size} rows or
+ * {@code max-delay-micros} after the first row arrived, writes each batch with one
+ * multi-row INSERT in one transaction and only then completes the futures. Under
+ * load many payments share one commit (and one fsync) instead of paying for one
+ * each. If a batch fails, its rows are retried one per transaction so only the
+ * offending caller sees the error. Writes still queued when the writer stops are
+ * failed rather than left hanging. A caller that stops waiting can withdraw its
+ * write with {@code cancel} as long as the writer has not taken it into a batch
+ * yet; once taken, the write's outcome is that of its insert. Rows must already
+ * carry their id, see {@link Payment#getId()}.
+ */
+@Service
+public class PaymentLedgerWriter {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentLedgerWriter.class);
+
+    private static final String INSERT_PREFIX = "INSERT INTO payments (id, user_id, tenant_id, amount, payment_method, " +
+        "transaction_id, status, payment_date, attempt_count, next_attempt_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${payment.ledger.batch-size:256}")
+    private int batchSize;
+
+    @Value("${payment.ledger.max-delay-micros:2000}")
+    private long maxDelayMicros;
+
+    @Value("${payment.ledger.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${payment.ledger.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<PendingWrite> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::writeLoop, "payment-ledger-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public CompletableFuture<Payment> append(Payment payment) {
+        PendingWrite write = new PendingWrite(payment, queue);
+        if (!running) {
+            write.completeExceptionally(new IllegalStateException("Payment ledger is stopped"));
+            return write;
+        }
+        try {
+            // Blocking put gives callers back-pressure when the database falls behind
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write.completeExceptionally(e);
+        }
+        return write;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayMicros * 1_000L;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                // Writes withdrawn by their caller are dropped; the rest can no longer be withdrawn
+                batch.removeIf(write -> !write.claim());
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                logger.error("Payment ledger write failed", e);
+                batch.get(0).completeExceptionally(e);
+                return;
+            }
+            // One bad row fails the whole statement; find it so the other callers still succeed
+            logger.warn("Payment ledger batch of {} rows failed, retrying row by row", batch.size(), e);
+            for (PendingWrite write : batch) {
+                flush(List.of(write));
+            }
+            return;
+        }
+        for (PendingWrite write : batch) {
+            write.payment.markPersisted();
+            write.complete(write.payment);
+        }
+    }
+
+    private void insert(List<PendingWrite> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + batch.size() * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[batch.size() * 10];
+        int i = 0;
+        for (PendingWrite write : batch) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            Payment p = write.payment;
+            args[i++] = p.getId();
+            args[i++] = p.getUser().getId();
+            args[i++] = p.getTenantId();
+            args[i++] = p.getAmount().toBigDecimal();
+            args[i++] = p.getPaymentMethod();
+            args[i++] = p.getTransactionId();
+            args[i++] = p.getStatus();
+            args[i++] = Timestamp.valueOf(p.getPaymentDate());
+            args[i++] = p.getAttemptCount();
+            args[i++] = p.getNextAttemptAt() == null ? null : Timestamp.valueOf(p.getNextAttemptAt());
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(shutdownTimeoutMs);
+        List<PendingWrite> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        if (!abandoned.isEmpty()) {
+            logger.warn("Payment ledger stopped with {} writes still queued", abandoned.size());
+        }
+        for (PendingWrite write : abandoned) {
+            write.completeExceptionally(new IllegalStateException("Payment ledger stopped before the write"));
+        }
+    }
+
+    private static final class PendingWrite extends CompletableFuture<Payment> {
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Payment payment;
+        private final BlockingQueue<PendingWrite> queue;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private PendingWrite(Payment payment, BlockingQueue<PendingWrite> queue) {
+            this.payment = payment;
+            this.queue = queue;
+        }
+
+        private boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        /**
+         * Withdraws the write unless the writer has already taken it into a batch.
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!state.compareAndSet(QUEUED, CANCELLED)) {
+                return false;
+            }
+            queue.remove(this);
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.analytics.PaymentColumnStore;
+import com.ecommerce.api.gateway.GatewayCallGuard;
+import com.ecommerce.api.gateway.GatewayResult;
+import com.ecommerce.api.gateway.PaymentGateway;
+import com.ecommerce.api.gateway.PaymentGatewayException;
+import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.model.PaymentStatus;
+import com.ecommerce.api.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives accepted payments through the gateway on a bounded worker pool.
+ *
+ * Every status change is a compare-and-set UPDATE guarded by
+ * {@link PaymentStatus#canTransitionTo}, so a payment picked up twice (e.g. by a
+ * retry and the recovery sweep) is only charged by whichever worker wins the
+ * PENDING -> PROCESSING transition. When the queue is full the payment simply stays
+ * PENDING and the sweep enqueues it later.
+ *
+ * PROCESSING is held under a lease ({@code payment.processing.lease-ms}, kept in
+ * next_attempt_at). A payment whose worker died, or whose completion failed after
+ * the gateway approved it, is taken over by the sweep once the lease expires and
+ * charged again with the same idempotency key (its transaction id), so the
+ * provider answers with the original outcome instead of charging twice.
+ */
+@Service
+public class PaymentProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    // Empty until a gateway is configured; payments then fail as unsupported instead of being charged
+    @Autowired(required = false)
+    private List<PaymentGateway> gateways = List.of();
+
+    @Autowired
+    private PaymentEventPublisher eventPublisher;
+
+    @Autowired
+    private GatewayCallGuard gatewayCallGuard;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private PaymentColumnStore columnStore;
+
+    @Autowired
+    private PaymentSketchService paymentSketchService;
+
+    @Value("${payment.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${payment.retry.base-delay-ms:500}")
+    private long baseDelayMs;
+
+    @Value("${payment.sweep.grace-seconds:30}")
+    private long sweepGraceSeconds;
+
+    @Value("${payment.processing.lease-ms:60000}")
+    private long leaseMs;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "payment-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PaymentProcessor(@Value("${payment.worker.threads:8}") int threads,
+                            @Value("${payment.worker.queue-capacity:1000}") int queueCapacity) {
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread thread = new Thread(r, "payment-worker");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean submit(Long paymentId) {
+        try {
+            workers.execute(() -> process(paymentId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("Payment queue full, payment {} left for the recovery sweep", paymentId);
+            return false;
+        }
+    }
+
+    void process(Long paymentId) {
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null || !claim(payment)) {
+            return;
+        }
+        int attempt = payment.getAttemptCount();
+
+        PaymentGateway gateway = gateways.stream()
+            .filter(g -> g.supports(payment.getPaymentMethod()))
+            .findFirst()
+            .orElse(null);
+        if (gateway == null) {
+            transition(payment, PaymentStatus.PROCESSING, PaymentStatus.FAILED, attempt,
+                "Unsupported payment method: " + payment.getPaymentMethod(), null);
+            return;
+        }
+
+        GatewayResult result;
+        try {
+            result = gatewayCallGuard.charge(gateway, payment);
+        } catch (PaymentGatewayException e) {
+            if (attempt >= maxAttempts) {
+                transition(payment, PaymentStatus.PROCESSING, PaymentStatus.FAILED, attempt, e.getMessage(), null);
+                return;
+            }
+            long delayMs = backoffDelayMs(attempt);
+            LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(delayMs * 1_000_000L);
+            if (transition(payment, PaymentStatus.PROCESSING, PaymentStatus.PENDING, attempt, e.getMessage(), nextAttemptAt)) {
+                retryScheduler.schedule(() -> submit(paymentId), delayMs, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        if (!result.isApproved()) {
+            transition(payment, PaymentStatus.PROCESSING, PaymentStatus.FAILED, attempt, result.getMessage(), null);
+            return;
+        }
+
+        // The charge went through: never move the payment back to PENDING from here
+        try {
+            if (revenueRollupService.completePayment(payment, attempt)) {
+                eventPublisher.publish(payment.getId(), PaymentStatus.COMPLETED.name(), null);
+                appendToColumnStore(payment, PaymentStatus.COMPLETED);
+                paymentSketchService.recordCompletedPayment(payment);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Payment {} approved by {} as {} but not completed; left PROCESSING for lease recovery",
+                paymentId, gateway.getName(), result.getReference(), e);
+        }
+    }
+
+    /**
+     * Takes the payment for this worker: PENDING -> PROCESSING, or a PROCESSING
+     * payment whose lease has expired. Sets the attempt count on {@code payment}.
+     */
+    private boolean claim(Payment payment) {
+        int attempt = payment.getAttemptCount() == null ? 1 : payment.getAttemptCount() + 1;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusNanos(leaseMs * 1_000_000L);
+        boolean claimed;
+        if (PaymentStatus.PENDING.name().equals(payment.getStatus())) {
+            claimed = transition(payment, PaymentStatus.PENDING, PaymentStatus.PROCESSING, attempt, null, leaseUntil);
+        } else if (PaymentStatus.PROCESSING.name().equals(payment.getStatus())) {
+            claimed = paymentRepository.takeOverExpiredLease(payment.getId(), attempt, leaseUntil, now) == 1;
+            if (claimed) {
+                logger.warn("Payment {} took over after its PROCESSING lease expired (attempt {})",
+                    payment.getId(), attempt);
+            }
+        } else {
+            return false;
+        }
+        payment.setAttemptCount(attempt);
+        return claimed;
+    }
+
+    /**
+     * Re-enqueues payments whose retry is overdue, e.g. after a full queue or a restart,
+     * and PROCESSING payments whose lease has expired.
+     */
+    @Scheduled(fixedDelayString = "${payment.sweep.interval-ms:10000}")
+    public void sweepPendingPayments() {
+        LocalDateTime now = LocalDateTime.now();
+        if (sweep(PaymentStatus.PROCESSING, now)) {
+            sweep(PaymentStatus.PENDING, now.minusSeconds(sweepGraceSeconds));
+        }
+    }
+
+    private boolean sweep(PaymentStatus status, LocalDateTime before) {
+        int capacity = workers.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return false;
+        }
+        List<Long> ids = paymentRepository.findIdsByStatusAndNextAttemptAtBefore(
+            status.name(), before, PageRequest.of(0, Math.min(capacity, 100)));
+        for (Long id : ids) {
+            if (!submit(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long backoffDelayMs(int attempt) {
+        long delay = baseDelayMs << Math.min(attempt - 1, 10);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private boolean transition(Payment payment, PaymentStatus from, PaymentStatus to, int attempt,
+                               String failureReason, LocalDateTime nextAttemptAt) {
+        if (!from.canTransitionTo(to)) {
+            throw new IllegalStateException("Illegal payment transition " + from + " -> " + to);
+        }
+        int updated = paymentRepository.transitionStatus(payment.getId(), from.name(), to.name(),
+            attempt, failureReason, nextAttemptAt);
+        if (updated == 0) {
+            return false;
+        }
+        eventPublisher.publish(payment.getId(), to.name(), failureReason);
+        if (to == PaymentStatus.FAILED) {
+            appendToColumnStore(payment, to);
+        }
+        return true;
+    }
+
+    private void appendToColumnStore(Payment payment, PaymentStatus status) {
+        columnStore.appendLive(payment.getId(), payment.getTenantId(), payment.getUser().getId(),
+            payment.getAmount(), payment.getPaymentDate(), status.name(), payment.getPaymentMethod());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+    }
+}
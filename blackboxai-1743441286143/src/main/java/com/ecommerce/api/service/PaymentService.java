@@ -1,32 +1,207 @@
 package com.ecommerce.api.service;
 
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.model.Money;
 import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.model.PaymentStatus;
 import com.ecommerce.api.model.User;
+import com.ecommerce.api.payload.response.PaymentHistoryItem;
+import com.ecommerce.api.payload.response.PaymentHistoryResponse;
+import com.ecommerce.api.payload.response.PaymentResponse;
 import com.ecommerce.api.repository.PaymentRepository;
+import com.ecommerce.api.util.SnowflakeIdGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class PaymentService {
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 1, 1, 0, 0);
+
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Autowired
+    private PaymentLedgerWriter paymentLedgerWriter;
+
+    @Value("${payment.ledger.enabled:true}")
+    private boolean ledgerEnabled;
+
+    @Value("${payment.ledger.timeout-ms:5000}")
+    private long ledgerTimeoutMs;
+
+    public Payment processPayment(User user, BigDecimal amount, String paymentMethod, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return processPayment(user, amount, paymentMethod);
+        }
+        if (idempotencyKey.length() > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Idempotency-Key must be at most 100 characters");
+        }
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        String requestHash = requestHash(user, amount, paymentMethod);
+        return idempotencyService.execute(tenantId, idempotencyKey, requestHash,
+            () -> processPayment(user, amount, paymentMethod));
+    }
+
+    /**
+     * Accepts the payment as PENDING and hands it to the worker pipeline once the
+     * insert has committed; the gateway call never runs on the request thread.
+     * Outside a caller transaction the insert goes through the group-commit ledger
+     * writer, inside one it joins that transaction.
+     */
     public Payment processPayment(User user, BigDecimal amount, String paymentMethod) {
         Payment payment = new Payment();
+        payment.setId(idGenerator.nextId());
         payment.setUser(user);
-        payment.setAmount(amount);
+        payment.setTenantId(TenantContext.getCurrentTenant().getId());
+        payment.setAmount(Money.of(amount));
         payment.setPaymentMethod(paymentMethod);
-        payment.setStatus("COMPLETED");
+        payment.setStatus(PaymentStatus.PENDING.name());
+        payment.setAttemptCount(0);
         payment.setPaymentDate(LocalDateTime.now());
+        payment.setNextAttemptAt(payment.getPaymentDate());
         payment.setTransactionId(generateTransactionId());
-        
-        return paymentRepository.save(payment);
+
+        if (ledgerEnabled && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            Payment saved = awaitLedger(paymentLedgerWriter.append(payment));
+            paymentProcessor.submit(saved.getId());
+            return saved;
+        }
+
+        Payment saved = paymentRepository.save(payment);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    paymentProcessor.submit(saved.getId());
+                }
+            });
+        } else {
+            paymentProcessor.submit(saved.getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Waits up to {@code payment.ledger.timeout-ms} for the write. A write still
+     * queued by then is withdrawn before answering 503, so it is never recorded nor
+     * charged and a retry cannot pay twice. One the writer already took is in its
+     * insert transaction and decides the response when that ends.
+     */
+    private Payment awaitLedger(CompletableFuture<Payment> write) {
+        String reason;
+        try {
+            return write.get(ledgerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Payment could not be recorded", e.getCause());
+        } catch (TimeoutException e) {
+            reason = "Payment ledger is busy, please retry";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reason = "Interrupted while recording payment";
+        }
+        if (write.cancel(false)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        }
+        try {
+            return write.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Payment could not be recorded", e.getCause());
+        }
+    }
+
+    public PaymentResponse getPayment(Long userId, Long id) {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        return paymentRepository.findForUser(tenantId, userId, id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found"));
+    }
+
+    public SseEmitter subscribeToPayment(Long userId, Long id) {
+        PaymentResponse payment = getPayment(userId, id);
+        return paymentEventPublisher.subscribe(payment.getId(), payment.getStatus(), payment.getFailureReason());
+    }
+
+    public PaymentHistoryResponse getPaymentHistory(Long userId, String cursor, Integer size, String status,
+                                                    LocalDate startDate, LocalDate endDate) {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        int pageSize = size == null ? DEFAULT_HISTORY_PAGE_SIZE : Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        LocalDateTime from = startDate != null ? startDate.atStartOfDay() : MIN_DATE;
+        LocalDateTime to = endDate != null ? endDate.plusDays(1).atStartOfDay() : MAX_DATE;
+
+        LocalDateTime cursorDate = MAX_DATE;
+        Long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("~", 2);
+                cursorDate = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<PaymentHistoryItem> items = paymentRepository.findHistoryPage(tenantId, userId, from, to,
+            cursorDate, cursorId, status, PageRequest.of(0, pageSize + 1));
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            PaymentHistoryItem last = items.get(pageSize - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((last.getPaymentDate() + "~" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new PaymentHistoryResponse(items, nextCursor);
+    }
+
+    private String requestHash(User user, BigDecimal amount, String paymentMethod) {
+        String canonical = user.getId() + "|" + amount.stripTrailingZeros().toPlainString() + "|" + paymentMethod;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis();
+        return idGenerator.nextIdString("TXN");
     }
 }
\ No newline at end of file
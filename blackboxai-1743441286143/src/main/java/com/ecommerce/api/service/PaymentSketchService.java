@@ -0,0 +1,179 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.analytics.HyperLogLog;
+import com.ecommerce.api.analytics.PaymentDaySketch;
+import com.ecommerce.api.analytics.QuantileSketch;
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.model.PaymentSketchDaily;
+import com.ecommerce.api.model.PaymentStatus;
+import com.ecommerce.api.repository.PaymentSketchDailyRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maintains per tenant and day sketches of completed payments: a
+ * {@link HyperLogLog} of paying users and a {@link QuantileSketch} of order values.
+ *
+ * Completions are added to in-memory deltas and merged into payment_sketch_daily
+ * every {@code analytics.sketch.flush-interval-ms} under a row lock, so concurrent
+ * instances never overwrite each other. Queries merge the stored days of the range
+ * with the unflushed deltas. Payments completed before the sketches existed were
+ * added by migration V8. Deltas not yet flushed when the process dies are lost;
+ * {@link #rebuild(Long)} recomputes a tenant from the payments table.
+ */
+@Service
+public class PaymentSketchService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSketchService.class);
+
+    private static final String REBUILD_QUERY = "SELECT user_id, amount, payment_date FROM payments " +
+        "WHERE tenant_id = ? AND status = ?";
+
+    @Autowired
+    private PaymentSketchDailyRepository sketchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<SketchKey, PaymentDaySketch> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    public void recordCompletedPayment(Payment payment) {
+        if (payment.getTenantId() == null || payment.getAmount() == null || payment.getPaymentDate() == null) {
+            return;
+        }
+        SketchKey key = new SketchKey(payment.getTenantId(), payment.getPaymentDate().toLocalDate());
+        long userId = payment.getUser().getId();
+        long amountMinor = payment.getAmount().getMinorUnits();
+        // compute() serializes the add with flush's remove() of the same key
+        pending.compute(key, (k, sketch) -> {
+            PaymentDaySketch target = sketch != null ? sketch : new PaymentDaySketch();
+            target.add(userId, amountMinor);
+            return target;
+        });
+    }
+
+    /**
+     * Merged sketch per day of {@code [from, to]}, stored and unflushed together;
+     * days without completed payments are absent.
+     */
+    public TreeMap<LocalDate, PaymentDaySketch> getDailySketches(Long tenantId, LocalDate from, LocalDate to) {
+        TreeMap<LocalDate, PaymentDaySketch> days = new TreeMap<>();
+        for (PaymentSketchDaily row : sketchRepository.findRange(tenantId, from, to)) {
+            days.put(row.getSketchDate(), decode(row));
+        }
+        for (SketchKey key : pending.keySet()) {
+            if (!key.tenantId().equals(tenantId) || key.day().isBefore(from) || key.day().isAfter(to)) {
+                continue;
+            }
+            pending.computeIfPresent(key, (k, delta) -> {
+                days.merge(k.day(), delta.copy(), (stored, unflushed) -> {
+                    stored.merge(unflushed);
+                    return stored;
+                });
+                return delta;
+            });
+        }
+        return days;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.sketch.flush-interval-ms:5000}")
+    public void flush() {
+        synchronized (flushLock) {
+            for (SketchKey key : new ArrayList<>(pending.keySet())) {
+                PaymentDaySketch delta = pending.remove(key);
+                if (delta == null) {
+                    continue;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> mergeIntoRow(key, delta));
+                } catch (RuntimeException e) {
+                    logger.warn("Flushing payment sketch for tenant {} day {} failed, will retry",
+                        key.tenantId(), key.day(), e);
+                    pending.merge(key, delta, (newer, failed) -> {
+                        newer.merge(failed);
+                        return newer;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces a tenant's sketches with ones computed from its completed payments.
+     * A payment completing while the rebuild scans may be counted twice in the
+     * order-value sketch (the buyer sketch is unaffected by duplicates).
+     */
+    public int rebuild(Long tenantId) {
+        synchronized (flushLock) {
+            pending.keySet().removeIf(key -> key.tenantId().equals(tenantId));
+            Map<LocalDate, PaymentDaySketch> days = new TreeMap<>();
+            jdbcTemplate.query(REBUILD_QUERY, rs -> {
+                LocalDate day = rs.getTimestamp("payment_date").toLocalDateTime().toLocalDate();
+                days.computeIfAbsent(day, d -> new PaymentDaySketch())
+                    .add(rs.getLong("user_id"), Money.toMinorUnits(rs.getBigDecimal("amount")));
+            }, tenantId, PaymentStatus.COMPLETED.name());
+
+            List<PaymentSketchDaily> rows = new ArrayList<>(days.size());
+            days.forEach((day, sketch) -> {
+                PaymentSketchDaily row = new PaymentSketchDaily();
+                row.setTenantId(tenantId);
+                row.setSketchDate(day);
+                encode(row, sketch);
+                rows.add(row);
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                sketchRepository.deleteByTenant(tenantId);
+                sketchRepository.flush();
+                sketchRepository.saveAll(rows);
+            });
+            return rows.size();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void mergeIntoRow(SketchKey key, PaymentDaySketch delta) {
+        sketchRepository.ensureExists(key.tenantId(), key.day());
+        PaymentSketchDaily row = sketchRepository.findForUpdate(key.tenantId(), key.day())
+            .orElseThrow(() -> new RuntimeException("Payment sketch not found"));
+        PaymentDaySketch merged = decode(row);
+        merged.merge(delta);
+        encode(row, merged);
+        sketchRepository.save(row);
+    }
+
+    private static PaymentDaySketch decode(PaymentSketchDaily row) {
+        return new PaymentDaySketch(HyperLogLog.fromBytes(row.getBuyersSketch()),
+            QuantileSketch.fromBytes(row.getOrderValueSketch()));
+    }
+
+    private static void encode(PaymentSketchDaily row, PaymentDaySketch sketch) {
+        row.setPaymentCount(sketch.getOrderValues().getCount());
+        row.setBuyersSketch(sketch.getBuyers().toBytes());
+        row.setOrderValueSketch(sketch.getOrderValues().toBytes());
+    }
+
+    private record SketchKey(Long tenantId, LocalDate day) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.ecommerce.api.service;
 
+import com.ecommerce.api.datasource.ReadFromReplica;
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.model.Money;
 import com.ecommerce.api.model.Product;
 import com.ecommerce.api.model.ProductImage;
 import com.ecommerce.api.repository.ProductRepository;
@@ -18,16 +21,25 @@ public class ProductService {
     @Autowired
     private ProductImageRepository productImageRepository;
 
+    @Autowired
+    private InventoryStatsService inventoryStatsService;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @ReadFromReplica
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return productRepository.findByTenantId(TenantContext.getCurrentTenant().getId());
     }
 
+    @ReadFromReplica
     public List<Product> getProductsByCategory(Long categoryId) {
-        return productRepository.findByCategoryId(categoryId);
+        return productRepository.findByCategoryIdAndTenantId(categoryId, TenantContext.getCurrentTenant().getId());
     }
 
     @Transactional
     public Product createProduct(Product product) {
+        product.setTenantId(TenantContext.getCurrentTenant().getId());
         Product savedProduct = productRepository.save(product);
         
         if (product.getImages() != null) {
@@ -36,19 +48,24 @@ public class ProductService {
                 productImageRepository.save(image);
             }
         }
-        
+
+        inventoryStatsService.productCreated(savedProduct);
+        stockAlertService.checkStock(savedProduct);
         return savedProduct;
     }
 
     @Transactional
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
+        Integer oldStock = product.getStockQuantity();
+        Money oldPrice = product.getPrice();
 
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
         product.setPrice(productDetails.getPrice());
         product.setStockQuantity(productDetails.getStockQuantity());
+        product.setLowStockThreshold(productDetails.getLowStockThreshold());
         product.setCategory(productDetails.getCategory());
 
         // Update images
@@ -60,10 +77,17 @@ public class ProductService {
             }
         }
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        inventoryStatsService.productUpdated(savedProduct.getTenantId(), oldStock, oldPrice, savedProduct);
+        stockAlertService.checkStock(savedProduct);
+        return savedProduct;
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        Product product = productRepository.findForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        productRepository.delete(product);
+        inventoryStatsService.productDeleted(product);
     }
 }
\ No newline at end of file
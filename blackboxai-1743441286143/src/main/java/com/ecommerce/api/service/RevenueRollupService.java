@@ -0,0 +1,75 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.model.PaymentStatus;
+import com.ecommerce.api.model.Tenant;
+import com.ecommerce.api.repository.PaymentRepository;
+import com.ecommerce.api.repository.RevenueDailyRepository;
+import com.ecommerce.api.repository.TenantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the revenue_daily rollup (tenant, day, payment method -> count, sum).
+ *
+ * A payment is added to its day in the same transaction that moves it to
+ * COMPLETED, so the rollup never disagrees with the payments table. Payments
+ * completed before the rollup existed were added by migration V7. The rebuild
+ * recomputes a tenant's rows from payments, for repairs.
+ */
+@Service
+public class RevenueRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RevenueDailyRepository revenueDailyRepository;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${statistics.rollup.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Transactional
+    public boolean completePayment(Payment payment, int attempt) {
+        int updated = paymentRepository.transitionStatus(payment.getId(), PaymentStatus.PROCESSING.name(),
+            PaymentStatus.COMPLETED.name(), attempt, null, null);
+        if (updated == 0) {
+            return false;
+        }
+        revenueDailyRepository.addCompletedPayment(payment.getTenantId(), payment.getPaymentDate().toLocalDate(),
+            payment.getPaymentMethod(), payment.getAmount().toBigDecimal());
+        return true;
+    }
+
+    @Transactional
+    public int rebuild(Long tenantId) {
+        revenueDailyRepository.deleteByTenant(tenantId);
+        return revenueDailyRepository.rebuildFromPayments(tenantId, PaymentStatus.COMPLETED.name());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAllOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        for (Tenant tenant : tenantRepository.findAll()) {
+            // One transaction per tenant keeps lock scope and undo log small
+            Integer rows = transactionTemplate.execute(status -> rebuild(tenant.getId()));
+            logger.info("Rebuilt revenue rollup for tenant {}: {} rows", tenant.getId(), rows);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.analytics.PaymentColumnStore;
+import com.ecommerce.api.analytics.TimeBucket;
+import com.ecommerce.api.datasource.ReplicaRouting;
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.PaymentStatus;
+import com.ecommerce.api.payload.response.RevenueBucket;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Revenue of completed payments per hour/day/week/month bucket in a given zone.
+ *
+ * Bucket boundaries are computed in the requested zone and translated to the
+ * server zone payment_date is written in. The series is read from the
+ * {@link PaymentColumnStore} (segments scanned in parallel) once it is loaded,
+ * otherwise the range is split into contiguous partitions of buckets that are
+ * queried from the payments table in parallel and stitched together. Buckets are
+ * returned in time order, empty ones included.
+ */
+@Service
+public class RevenueSeriesService {
+    private static final String PARTITION_QUERY = "SELECT payment_date, amount FROM payments " +
+        "WHERE tenant_id = ? AND status = ? AND payment_date >= ? AND payment_date < ?";
+
+    @Autowired
+    private PaymentColumnStore paymentColumnStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${statistics.series.max-buckets:10000}")
+    private int maxBuckets;
+
+    @Value("${statistics.series.min-buckets-per-partition:168}")
+    private int minBucketsPerPartition;
+
+    private final int partitions;
+    private final ExecutorService partitionExecutor;
+
+    public RevenueSeriesService(@Value("${statistics.series.partitions:4}") int partitions) {
+        this.partitions = Math.max(1, partitions);
+        this.partitionExecutor = Executors.newFixedThreadPool(this.partitions, r -> {
+            Thread thread = new Thread(r, "revenue-series");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Buckets covering the local dates {@code [startDate, endDate]} in {@code zone}.
+     * The first and last bucket are clipped to the range but labelled with their
+     * calendar start, e.g. a week starting on Monday.
+     */
+    public List<RevenueBucket> getSeries(Long tenantId, LocalDate startDate, LocalDate endDate,
+                                         TimeBucket interval, ZoneId zone) {
+        List<ZonedDateTime> edges = new ArrayList<>();
+        ZonedDateTime end = endDate.plusDays(1).atStartOfDay(zone);
+        ZonedDateTime edge = startDate.atStartOfDay(zone);
+        while (edge.isBefore(end)) {
+            edges.add(edge);
+            if (edges.size() > maxBuckets) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Too many buckets, at most " + maxBuckets + " allowed");
+            }
+            ZonedDateTime next = interval.next(edge);
+            edge = next.isBefore(end) ? next : end;
+        }
+        edges.add(end);
+
+        ZoneId serverZone = ZoneId.systemDefault();
+        long[] boundaries = new long[edges.size()];
+        for (int i = 0; i < boundaries.length; i++) {
+            long second = edges.get(i).withZoneSameInstant(serverZone).toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+            // A server-side DST fall-back can map later instants to earlier wall-clock times
+            boundaries[i] = i > 0 ? Math.max(second, boundaries[i - 1]) : second;
+        }
+
+        long[][] totals = paymentColumnStore.isReady()
+            ? paymentColumnStore.bucketSumAndCount(tenantId, boundaries, PaymentStatus.COMPLETED.name())
+            : queryPartitions(tenantId, boundaries);
+
+        List<RevenueBucket> buckets = new ArrayList<>(boundaries.length - 1);
+        for (int i = 0; i < boundaries.length - 1; i++) {
+            buckets.add(new RevenueBucket(interval.truncate(edges.get(i)).toOffsetDateTime(),
+                Money.ofMinor(totals[0][i]), totals[1][i]));
+        }
+        return buckets;
+    }
+
+    private long[][] queryPartitions(Long tenantId, long[] boundaries) {
+        int buckets = boundaries.length - 1;
+        int partitionCount = Math.max(1, Math.min(partitions, buckets / Math.max(1, minBucketsPerPartition)));
+        int perPartition = (buckets + partitionCount - 1) / partitionCount;
+
+        boolean replicaPreferred = ReplicaRouting.isReplicaPreferred();
+        List<CompletableFuture<long[][]>> futures = new ArrayList<>(partitionCount);
+        for (int from = 0; from < buckets; from += perPartition) {
+            long[] partition = Arrays.copyOfRange(boundaries, from, Math.min(from + perPartition, buckets) + 1);
+            futures.add(CompletableFuture.supplyAsync(() -> ReplicaRouting.withReplicaPreferred(replicaPreferred,
+                () -> queryPartition(tenantId, partition)), partitionExecutor));
+        }
+
+        long[] sums = new long[buckets];
+        long[] counts = new long[buckets];
+        int offset = 0;
+        for (CompletableFuture<long[][]> future : futures) {
+            long[][] partial = future.join();
+            System.arraycopy(partial[0], 0, sums, offset, partial[0].length);
+            System.arraycopy(partial[1], 0, counts, offset, partial[1].length);
+            offset += partial[0].length;
+        }
+        return new long[][]{sums, counts};
+    }
+
+    private long[][] queryPartition(Long tenantId, long[] boundaries) {
+        int buckets = boundaries.length - 1;
+        long[] sums = new long[buckets];
+        long[] counts = new long[buckets];
+        Timestamp from = Timestamp.valueOf(LocalDateTime.ofEpochSecond(boundaries[0], 0, ZoneOffset.UTC));
+        Timestamp to = Timestamp.valueOf(LocalDateTime.ofEpochSecond(boundaries[buckets], 0, ZoneOffset.UTC));
+        jdbcTemplate.query(PARTITION_QUERY, rs -> {
+            long second = rs.getTimestamp("payment_date").toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+            int bucket = PaymentColumnStore.bucketOf(boundaries, second);
+            sums[bucket] += Money.toMinorUnits(rs.getBigDecimal("amount"));
+            counts[bucket]++;
+        }, tenantId, PaymentStatus.COMPLETED.name(), from, to);
+        return new long[][]{sums, counts};
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partitionExecutor.shutdownNow();
+    }
+}
@@ -1,60 +1,89 @@
 package com.ecommerce.api.service;
 
+import com.ecommerce.api.analytics.HyperLogLog;
+import com.ecommerce.api.analytics.PaymentColumnStore;
+import com.ecommerce.api.analytics.PaymentDaySketch;
+import com.ecommerce.api.analytics.QuantileSketch;
+import com.ecommerce.api.analytics.TimeBucket;
+import com.ecommerce.api.datasource.ReadFromReplica;
 import com.ecommerce.api.interceptor.TenantContext;
-import com.ecommerce.api.model.Payment;
-import com.ecommerce.api.model.Product;
-import com.ecommerce.api.repository.PaymentRepository;
-import com.ecommerce.api.repository.ProductRepository;
+import com.ecommerce.api.model.InventoryStats;
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Tenant;
+import com.ecommerce.api.model.PaymentStatus;
+import com.ecommerce.api.payload.response.DailyRevenue;
+import com.ecommerce.api.payload.response.ProductStockItem;
+import com.ecommerce.api.payload.response.RevenueBucket;
+import com.ecommerce.api.payload.response.RevenueTotals;
+import com.ecommerce.api.repository.RevenueDailyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class StatisticsService {
+    private static final LocalDate MIN_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 1, 1);
+    private static final int STOCK_PAGE_SIZE = 20;
+    private static final int MAX_STOCK_PAGE_SIZE = 100;
+    private static final List<String> STOCK_STATUSES = List.of(
+        InventoryStatsService.OUT_OF_STOCK, InventoryStatsService.LOW_STOCK, InventoryStatsService.IN_STOCK);
 
     @Autowired
-    private PaymentRepository paymentRepository;
+    private InventoryStatsService inventoryStatsService;
 
     @Autowired
-    private ProductRepository productRepository;
+    private RevenueDailyRepository revenueDailyRepository;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private PaymentColumnStore paymentColumnStore;
+
+    @Autowired
+    private PaymentSketchService paymentSketchService;
+
+    @Autowired
+    private RevenueSeriesService revenueSeriesService;
+
+    @Autowired
+    private StatisticsSnapshotCache snapshotCache;
+
+    @ReadFromReplica
     public Map<String, Object> getRevenueStatistics(LocalDate startDate, LocalDate endDate) {
+        return snapshotCache.get("revenue:" + startDate + ":" + endDate,
+            () -> computeRevenueStatistics(startDate, endDate));
+    }
+
+    private Map<String, Object> computeRevenueStatistics(LocalDate startDate, LocalDate endDate) {
         Long tenantId = TenantContext.getCurrentTenant().getId();
-        List<Payment> payments = paymentRepository.findByTenantId(tenantId);
-        
-        // Filter by date if provided
-        if (startDate != null) {
-            LocalDateTime start = startDate.atStartOfDay();
-            payments = payments.stream()
-                .filter(p -> p.getPaymentDate().isAfter(start))
-                .collect(Collectors.toList());
-        }
-        if (endDate != null) {
-            LocalDateTime end = endDate.plusDays(1).atStartOfDay();
-            payments = payments.stream()
-                .filter(p -> p.getPaymentDate().isBefore(end))
-                .collect(Collectors.toList());
-        }
+        LocalDate from = startDate != null ? startDate : MIN_DATE;
+        LocalDate to = endDate != null ? endDate : MAX_DATE;
 
-        // Calculate statistics
-        BigDecimal totalRevenue = payments.stream()
-            .filter(p -> "COMPLETED".equals(p.getStatus()))
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (paymentColumnStore.isReady()) {
+            return getRevenueStatisticsFromColumnStore(tenantId, startDate, endDate, from, to);
+        }
 
-        long totalTransactions = payments.stream()
-            .filter(p -> "COMPLETED".equals(p.getStatus()))
-            .count();
+        // Read from the daily rollup: cost depends on days in range, not on payments
+        RevenueTotals totals = revenueDailyRepository.sumRevenue(tenantId, from, to);
+        BigDecimal totalRevenue = totals.getTotalRevenue();
+        long totalTransactions = totals.getTransactionCount();
 
         BigDecimal averageTransactionValue = totalTransactions > 0 
-            ? totalRevenue.divide(BigDecimal.valueOf(totalTransactions), 2, BigDecimal.ROUND_HALF_UP)
+            ? totalRevenue.divide(BigDecimal.valueOf(totalTransactions), 2, RoundingMode.HALF_UP)
             : BigDecimal.ZERO;
 
         Map<String, Object> statistics = new HashMap<>();
@@ -64,65 +93,248 @@ public class StatisticsService {
         
         // Add daily revenue if date range is provided
         if (startDate != null && endDate != null) {
-            Map<LocalDate, BigDecimal> dailyRevenue = payments.stream()
-                .filter(p -> "COMPLETED".equals(p.getStatus()))
-                .collect(Collectors.groupingBy(
-                    p -> p.getPaymentDate().toLocalDate(),
-                    Collectors.mapping(
-                        Payment::getAmount,
-                        Collectors.reducing(BigDecimal.ZERO, BigDecimal::add)
-                    )
-                ));
+            Map<LocalDate, BigDecimal> dailyRevenue = new LinkedHashMap<>();
+            for (DailyRevenue day : revenueDailyRepository.sumRevenueByDay(tenantId, from, to)) {
+                dailyRevenue.put(day.getDate(), day.getRevenue());
+            }
             statistics.put("dailyRevenue", dailyRevenue);
         }
         
         return statistics;
     }
 
+    private Map<String, Object> getRevenueStatisticsFromColumnStore(Long tenantId, LocalDate startDate, LocalDate endDate,
+                                                                    LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        long[] sumAndCount = paymentColumnStore.sumAndCount(tenantId, fromDay, toDay, PaymentStatus.COMPLETED.name());
+        Money totalRevenue = Money.ofMinor(sumAndCount[0]);
+        long totalTransactions = sumAndCount[1];
+
+        Money averageTransactionValue = totalTransactions > 0
+            ? totalRevenue.dividedBy(totalTransactions)
+            : Money.ZERO;
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalRevenue", totalRevenue);
+        statistics.put("totalTransactions", totalTransactions);
+        statistics.put("averageTransactionValue", averageTransactionValue);
+
+        if (startDate != null && endDate != null) {
+            long[][] daily = paymentColumnStore.dailySumAndCount(tenantId, fromDay, toDay, PaymentStatus.COMPLETED.name());
+            Map<LocalDate, Money> dailyRevenue = new LinkedHashMap<>();
+            for (int d = 0; d < daily[0].length; d++) {
+                // Same shape as the SQL path: only days that had completed payments
+                if (daily[1][d] > 0) {
+                    dailyRevenue.put(LocalDate.ofEpochDay(fromDay + d), Money.ofMinor(daily[0][d]));
+                }
+            }
+            statistics.put("dailyRevenue", dailyRevenue);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Zero-filled revenue buckets for {@code [startDate, endDate]} (default: the last
+     * 30 days) in the tenant's zone, optionally with the preceding period of equal
+     * length for comparison.
+     */
+    @ReadFromReplica
+    public Map<String, Object> getRevenueSeries(LocalDate startDate, LocalDate endDate, String interval,
+                                                String timeZone, boolean compare) {
+        Tenant tenant = TenantContext.getCurrentTenant();
+        ZoneId zone = resolveZone(timeZone != null ? timeZone : tenant.getTimeZone());
+        TimeBucket bucket = resolveBucket(interval);
+        LocalDate end = endDate != null ? endDate : LocalDate.now(zone);
+        LocalDate start = startDate != null ? startDate : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+        }
+
+        String key = "revenue-series:" + start + ":" + end + ":" + bucket + ":" + zone.getId() + ":" + compare;
+        return snapshotCache.get(key, () -> computeRevenueSeries(tenant.getId(), start, end, bucket, zone, compare));
+    }
+
+    private Map<String, Object> computeRevenueSeries(Long tenantId, LocalDate start, LocalDate end, TimeBucket bucket,
+                                                     ZoneId zone, boolean compare) {
+        Map<String, Object> series = new LinkedHashMap<>();
+        series.put("interval", bucket.name().toLowerCase());
+        series.put("timeZone", zone.getId());
+        Map<String, Object> current = seriesPeriod(tenantId, start, end, bucket, zone);
+        series.putAll(current);
+
+        if (compare) {
+            long days = ChronoUnit.DAYS.between(start, end) + 1;
+            Map<String, Object> previous = seriesPeriod(tenantId, start.minusDays(days), start.minusDays(1), bucket, zone);
+            series.put("previous", previous);
+            series.put("revenueChangePercent", changePercent(((Money) current.get("totalRevenue")).getMinorUnits(),
+                ((Money) previous.get("totalRevenue")).getMinorUnits()));
+            series.put("transactionChangePercent",
+                changePercent((Long) current.get("totalTransactions"), (Long) previous.get("totalTransactions")));
+        }
+        return series;
+    }
+
+    private Map<String, Object> seriesPeriod(Long tenantId, LocalDate start, LocalDate end, TimeBucket bucket, ZoneId zone) {
+        List<RevenueBucket> buckets = revenueSeriesService.getSeries(tenantId, start, end, bucket, zone);
+        long totalRevenue = 0;
+        long totalTransactions = 0;
+        for (RevenueBucket b : buckets) {
+            totalRevenue = Math.addExact(totalRevenue, b.getRevenue().getMinorUnits());
+            totalTransactions += b.getTransactionCount();
+        }
+
+        Map<String, Object> period = new LinkedHashMap<>();
+        period.put("startDate", start);
+        period.put("endDate", end);
+        period.put("totalRevenue", Money.ofMinor(totalRevenue));
+        period.put("totalTransactions", totalTransactions);
+        period.put("buckets", buckets);
+        return period;
+    }
+
+    private static BigDecimal changePercent(long current, long previous) {
+        if (previous == 0) {
+            return null;
+        }
+        // Hundredths of a percent, rounded half-up
+        long basisPoints = Money.divideHalfUp(Math.multiplyExact(current - previous, 10_000L), previous);
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+
+    private static ZoneId resolveZone(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown time zone: " + timeZone);
+        }
+    }
+
+    private static TimeBucket resolveBucket(String interval) {
+        if (interval == null) {
+            return TimeBucket.DAY;
+        }
+        try {
+            return TimeBucket.valueOf(interval.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown interval: " + interval);
+        }
+    }
+
+    public Map<String, Object> rebuildRevenueRollup() {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        int rows = revenueRollupService.rebuild(tenantId);
+        snapshotCache.invalidateTenant(tenantId);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("tenantId", tenantId);
+        result.put("rollupRows", rows);
+        return result;
+    }
+
+    /**
+     * Unique paying users and order-value percentiles from the daily sketches;
+     * estimates within the bounds reported under {@code errorBounds}.
+     */
+    @ReadFromReplica
+    public Map<String, Object> getApproximatePaymentStatistics(LocalDate startDate, LocalDate endDate) {
+        return snapshotCache.get("approximate:" + startDate + ":" + endDate,
+            () -> computeApproximatePaymentStatistics(startDate, endDate));
+    }
+
+    private Map<String, Object> computeApproximatePaymentStatistics(LocalDate startDate, LocalDate endDate) {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        LocalDate from = startDate != null ? startDate : MIN_DATE;
+        LocalDate to = endDate != null ? endDate : MAX_DATE;
+
+        Map<LocalDate, PaymentDaySketch> days = paymentSketchService.getDailySketches(tenantId, from, to);
+        PaymentDaySketch range = new PaymentDaySketch();
+        for (PaymentDaySketch day : days.values()) {
+            range.merge(day);
+        }
+
+        Map<String, Object> statistics = sketchSummary(range);
+        Map<String, Object> errorBounds = new HashMap<>();
+        errorBounds.put("uniqueBuyersRelativeStandardErrorPercent", HyperLogLog.RELATIVE_STANDARD_ERROR_PERCENT);
+        errorBounds.put("orderValueRelativeErrorPercent", QuantileSketch.RELATIVE_ACCURACY_PERCENT);
+        statistics.put("errorBounds", errorBounds);
+
+        if (startDate != null && endDate != null) {
+            Map<LocalDate, Map<String, Object>> daily = new LinkedHashMap<>();
+            days.forEach((day, sketch) -> daily.put(day, sketchSummary(sketch)));
+            statistics.put("daily", daily);
+        }
+        return statistics;
+    }
+
+    public Map<String, Object> rebuildPaymentSketches() {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        int days = paymentSketchService.rebuild(tenantId);
+        snapshotCache.invalidateTenant(tenantId);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("tenantId", tenantId);
+        result.put("sketchDays", days);
+        return result;
+    }
+
+    private static Map<String, Object> sketchSummary(PaymentDaySketch sketch) {
+        QuantileSketch orderValues = sketch.getOrderValues();
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("paymentCount", orderValues.getCount());
+        summary.put("uniqueBuyers", sketch.getBuyers().estimate());
+        summary.put("orderValueP50", toAmount(orderValues.quantile(0.50)));
+        summary.put("orderValueP90", toAmount(orderValues.quantile(0.90)));
+        summary.put("orderValueP99", toAmount(orderValues.quantile(0.99)));
+        return summary;
+    }
+
+    private static BigDecimal toAmount(double minorUnits) {
+        return BigDecimal.valueOf(minorUnits).movePointLeft(2).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @ReadFromReplica
     public Map<String, Object> getInventoryStatistics() {
+        return snapshotCache.get("inventory", this::computeInventoryStatistics);
+    }
+
+    private Map<String, Object> computeInventoryStatistics() {
         Long tenantId = TenantContext.getCurrentTenant().getId();
-        List<Product> products = productRepository.findByTenantId(tenantId);
-
-        // Calculate inventory statistics
-        int totalProducts = products.size();
-        int lowStockProducts = (int) products.stream()
-            .filter(p -> p.getStockQuantity() != null && p.getStockQuantity() <= 10)
-            .count();
-        int outOfStockProducts = (int) products.stream()
-            .filter(p -> p.getStockQuantity() != null && p.getStockQuantity() == 0)
-            .count();
-        int totalStock = products.stream()
-            .mapToInt(p -> p.getStockQuantity() != null ? p.getStockQuantity() : 0)
-            .sum();
-        BigDecimal totalInventoryValue = products.stream()
-            .map(p -> p.getPrice().multiply(BigDecimal.valueOf(p.getStockQuantity() != null ? p.getStockQuantity() : 0)))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Group products by stock status
-        Map<String, List<Map<String, Object>>> productsByStockStatus = products.stream()
-            .map(p -> {
-                Map<String, Object> productInfo = new HashMap<>();
-                productInfo.put("id", p.getId());
-                productInfo.put("name", p.getName());
-                productInfo.put("stockQuantity", p.getStockQuantity());
-                productInfo.put("price", p.getPrice());
-                return productInfo;
-            })
-            .collect(Collectors.groupingBy(p -> {
-                Integer stock = (Integer) p.get("stockQuantity");
-                if (stock == null || stock == 0) return "outOfStock";
-                if (stock <= 10) return "lowStock";
-                return "inStock";
-            }));
+        InventoryStats stats = inventoryStatsService.getStats(tenantId);
+
+        // First page of each stock bucket; later pages via getProductsByStockStatus
+        Map<String, List<ProductStockItem>> productsByStockStatus = new LinkedHashMap<>();
+        for (String status : STOCK_STATUSES) {
+            productsByStockStatus.put(status,
+                inventoryStatsService.getProductsByStockStatus(tenantId, status, 0, STOCK_PAGE_SIZE));
+        }
 
         Map<String, Object> statistics = new HashMap<>();
-        statistics.put("totalProducts", totalProducts);
-        statistics.put("lowStockProducts", lowStockProducts);
-        statistics.put("outOfStockProducts", outOfStockProducts);
-        statistics.put("totalStock", totalStock);
-        statistics.put("totalInventoryValue", totalInventoryValue);
+        statistics.put("totalProducts", stats.getTotalProducts());
+        statistics.put("lowStockProducts", stats.getLowStockProducts());
+        statistics.put("outOfStockProducts", stats.getOutOfStockProducts());
+        statistics.put("totalStock", stats.getTotalStock());
+        statistics.put("totalInventoryValue", stats.getTotalInventoryValue());
         statistics.put("productsByStockStatus", productsByStockStatus);
         
         return statistics;
     }
-}
\ No newline at end of file
+
+    @ReadFromReplica
+    public Map<String, Object> getProductsByStockStatus(String status, Integer page, Integer size) {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        int pageNumber = page == null ? 0 : Math.max(page, 0);
+        int pageSize = size == null ? STOCK_PAGE_SIZE : Math.max(1, Math.min(size, MAX_STOCK_PAGE_SIZE));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", status);
+        result.put("page", pageNumber);
+        result.put("size", pageSize);
+        result.put("products", inventoryStatsService.getProductsByStockStatus(tenantId, status, pageNumber, pageSize));
+        return result;
+    }
+}
@@ -0,0 +1,206 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.datasource.ReplicaRouting;
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.model.Tenant;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache for statistics responses, per tenant and
+ * normalized request parameters.
+ *
+ * A request is answered from the last snapshot straight away; when that snapshot
+ * is older than {@code statistics.snapshot.refresh-interval-ms} one background
+ * recomputation is started and later requests get its result. Only a tenant's
+ * very first request for a key waits for the computation, and concurrent first
+ * requests share it. Every response carries the snapshot time as {@code asOf}.
+ * Snapshots nobody asked for within {@code idle-ttl-seconds} are dropped.
+ */
+@Component
+public class StatisticsSnapshotCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsSnapshotCache.class);
+
+    private final ConcurrentMap<SnapshotKey, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+
+    @Value("${statistics.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${statistics.snapshot.refresh-interval-ms:5000}")
+    private long refreshIntervalMs;
+
+    @Value("${statistics.snapshot.idle-ttl-seconds:600}")
+    private long idleTtlSeconds;
+
+    @Value("${statistics.snapshot.max-entries:10000}")
+    private int maxEntries;
+
+    public StatisticsSnapshotCache(@Value("${statistics.snapshot.refresh-threads:2}") int refreshThreads) {
+        this.refreshExecutor = Executors.newFixedThreadPool(Math.max(1, refreshThreads), r -> {
+            Thread thread = new Thread(r, "statistics-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Snapshot of {@code loader}'s result for the current tenant and {@code key},
+     * with an added {@code asOf}. The loader runs with the caller's tenant context
+     * and replica routing, also when it is refreshed in the background.
+     */
+    public Map<String, Object> get(String key, Supplier<Map<String, Object>> loader) {
+        Tenant tenant = TenantContext.getCurrentTenant();
+        if (!enabled) {
+            return withAsOf(new Snapshot(loader.get(), Instant.now()));
+        }
+        SnapshotKey snapshotKey = new SnapshotKey(tenant.getId(), key);
+        Entry entry = entries.get(snapshotKey);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                // Too many distinct parameter sets: compute without caching rather than grow unbounded
+                return withAsOf(new Snapshot(loader.get(), Instant.now()));
+            }
+            entry = entries.computeIfAbsent(snapshotKey, k -> new Entry());
+        }
+        entry.lastAccessNanos = System.nanoTime();
+
+        Snapshot snapshot = entry.snapshot;
+        if (snapshot == null) {
+            // Nothing to serve yet: join (or start) the single in-flight computation
+            return withAsOf(join(entry.refresh(tenant, loader, Runnable::run)));
+        }
+        if (System.nanoTime() - snapshot.createdNanos > TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs)) {
+            try {
+                entry.refresh(tenant, loader, refreshExecutor);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Statistics refresh for {} rejected, serving stale snapshot", snapshotKey);
+            }
+        }
+        return withAsOf(snapshot);
+    }
+
+    /**
+     * Drops a tenant's snapshots, e.g. after its statistics were rebuilt.
+     */
+    public void invalidateTenant(Long tenantId) {
+        entries.keySet().removeIf(key -> key.tenantId().equals(tenantId));
+    }
+
+    @Scheduled(fixedDelayString = "${statistics.snapshot.cleanup-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(idleTtlSeconds);
+        entries.values().removeIf(entry -> entry.lastAccessNanos - cutoff < 0 && entry.inFlight == null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static Snapshot join(CompletableFuture<Snapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static Map<String, Object> withAsOf(Snapshot snapshot) {
+        Map<String, Object> response = new LinkedHashMap<>(snapshot.value);
+        response.put("asOf", snapshot.asOf);
+        return response;
+    }
+
+    private record SnapshotKey(Long tenantId, String key) {
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Object> value;
+        private final Instant asOf;
+        private final long createdNanos = System.nanoTime();
+
+        private Snapshot(Map<String, Object> value, Instant asOf) {
+            this.value = value;
+            this.asOf = asOf;
+        }
+    }
+
+    private static final class Entry {
+        private volatile Snapshot snapshot;
+        private volatile CompletableFuture<Snapshot> inFlight;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        /**
+         * Returns the running computation, or starts one on {@code executor}.
+         */
+        CompletableFuture<Snapshot> refresh(Tenant tenant, Supplier<Map<String, Object>> loader,
+                                            Executor executor) {
+            CompletableFuture<Snapshot> running;
+            CompletableFuture<Snapshot> started = new CompletableFuture<>();
+            boolean replicaPreferred = ReplicaRouting.isReplicaPreferred();
+            synchronized (this) {
+                running = inFlight;
+                if (running == null) {
+                    inFlight = started;
+                }
+            }
+            if (running != null) {
+                return running;
+            }
+            try {
+                executor.execute(() -> compute(tenant, replicaPreferred, loader, started));
+            } catch (RejectedExecutionException e) {
+                inFlight = null;
+                throw e;
+            }
+            return started;
+        }
+
+        private void compute(Tenant tenant, boolean replicaPreferred, Supplier<Map<String, Object>> loader,
+                             CompletableFuture<Snapshot> future) {
+            Tenant previous = TenantContext.getCurrentTenant();
+            TenantContext.setCurrentTenant(tenant);
+            try {
+                Instant asOf = Instant.now();
+                Snapshot computed = new Snapshot(ReplicaRouting.withReplicaPreferred(replicaPreferred, loader), asOf);
+                snapshot = computed;
+                inFlight = null;
+                future.complete(computed);
+            } catch (RuntimeException e) {
+                inFlight = null;
+                future.completeExceptionally(e);
+                if (snapshot != null) {
+                    logger.warn("Statistics refresh failed, keeping snapshot from {}", snapshot.asOf, e);
+                }
+            } finally {
+                if (previous != null) {
+                    TenantContext.setCurrentTenant(previous);
+                } else {
+                    TenantContext.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.model.StockAlert;
+import com.ecommerce.api.repository.StockAlertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams stock alerts to the SSE subscribers of their tenant.
+ *
+ * Alerts are read back from {@code stock_alerts} by id rather than handed over in
+ * memory, so subscribers see the alerts raised on every instance. While anyone is
+ * subscribed the table is polled past the highest id delivered so far. Ids are
+ * taken at insert but become visible at commit, so an id skipped by a poll may
+ * still show up later; such ids are looked for again for
+ * {@code inventory.alert.stream.gap-wait-ms} before they are taken as rolled back.
+ */
+@Service
+public class StockAlertPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(StockAlertPublisher.class);
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60_000L;
+    // Jumps larger than this (e.g. an auto_increment_increment step) are not tracked id by id
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    @Autowired
+    private StockAlertRepository stockAlertRepository;
+
+    @Value("${inventory.alert.stream.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.alert.stream.gap-wait-ms:10000}")
+    private long gapWaitMs;
+
+    private final ConcurrentMap<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    // Guarded by lock: highest id delivered, null while nobody is subscribed
+    private Long cursor;
+    // Guarded by lock: ids below the cursor not seen yet, with the nano time to stop waiting for them
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+    public SseEmitter subscribe(Long tenantId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        synchronized (lock) {
+            if (cursor == null) {
+                // Start at the alerts committed so far; older ones are available from the list endpoint
+                cursor = stockAlertRepository.findMaxId();
+            }
+            emitters.computeIfAbsent(tenantId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        }
+        emitter.onCompletion(() -> remove(tenantId, emitter));
+        emitter.onTimeout(() -> remove(tenantId, emitter));
+        emitter.onError(e -> remove(tenantId, emitter));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.alert.stream.poll-interval-ms:1000}")
+    public void poll() {
+        List<StockAlert> alerts;
+        try {
+            alerts = fetchNew();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to poll stock alerts: {}", e.toString());
+            return;
+        }
+        for (StockAlert alert : alerts) {
+            publish(alert);
+        }
+    }
+
+    private List<StockAlert> fetchNew() {
+        synchronized (lock) {
+            if (emitters.isEmpty()) {
+                cursor = null;
+                gaps.clear();
+                return List.of();
+            }
+            long now = System.nanoTime();
+            gaps.values().removeIf(deadline -> deadline - now <= 0);
+            long from = gaps.isEmpty() ? cursor : gaps.firstKey() - 1;
+            List<StockAlert> fetched = stockAlertRepository.findAfter(from, PageRequest.of(0, batchSize));
+
+            List<StockAlert> fresh = new ArrayList<>(fetched.size());
+            long gapDeadline = now + TimeUnit.MILLISECONDS.toNanos(gapWaitMs);
+            for (StockAlert alert : fetched) {
+                long id = alert.getId();
+                if (id <= cursor) {
+                    // Between open gaps: either delivered before or one of the gaps committing late
+                    if (gaps.remove(id) == null) {
+                        continue;
+                    }
+                } else {
+                    if (id - cursor - 1 <= MAX_TRACKED_GAP) {
+                        for (long missing = cursor + 1; missing < id; missing++) {
+                            gaps.put(missing, gapDeadline);
+                        }
+                    }
+                    cursor = id;
+                }
+                fresh.add(alert);
+            }
+            return fresh;
+        }
+    }
+
+    private void publish(StockAlert alert) {
+        List<SseEmitter> list = emitters.get(alert.getTenantId());
+        if (list == null) {
+            return;
+        }
+        for (SseEmitter emitter : list) {
+            try {
+                emitter.send(SseEmitter.event().id(String.valueOf(alert.getId())).name("stock-alert").data(alert));
+            } catch (IOException | IllegalStateException e) {
+                remove(alert.getTenantId(), emitter);
+            }
+        }
+    }
+
+    private void remove(Long tenantId, SseEmitter emitter) {
+        emitters.computeIfPresent(tenantId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
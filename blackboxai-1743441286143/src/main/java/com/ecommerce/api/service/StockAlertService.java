@@ -0,0 +1,117 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.model.Product;
+import com.ecommerce.api.model.StockAlert;
+import com.ecommerce.api.model.StockAlertLevel;
+import com.ecommerce.api.model.Tenant;
+import com.ecommerce.api.repository.StockAlertRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Raises low-stock alerts from the product write path.
+ *
+ * A product's alert level goes to LOW when its stock drops to its threshold
+ * (product override, else tenant setting, else
+ * {@link InventoryStatsService#LOW_STOCK_THRESHOLD}), to OUT at zero stock, and
+ * back to NONE only once stock rises above threshold plus
+ * {@code inventory.alert.recovery-margin}, so stock moving around the threshold
+ * does not produce a stream of alerts. Every level change raises an alert. The
+ * level is a column of the product row, locked by the write, so checking costs
+ * nothing beyond the write itself.
+ * Alerts are stored with the write; {@link StockAlertPublisher} streams them to
+ * subscribers once committed.
+ */
+@Service
+public class StockAlertService {
+    @Autowired
+    private StockAlertRepository stockAlertRepository;
+
+    @Autowired
+    private StockAlertPublisher stockAlertPublisher;
+
+    @Value("${inventory.alert.recovery-margin:5}")
+    private int recoveryMargin;
+
+    /**
+     * Compares the product's stock with its threshold and records a state change.
+     * Must run inside the transaction that wrote the product.
+     */
+    public void checkStock(Product product) {
+        Integer stock = product.getStockQuantity();
+        if (stock == null || product.getId() == null || product.getTenantId() == null) {
+            return;
+        }
+        int threshold = thresholdFor(product);
+        StockAlertLevel current = product.getStockAlertLevel() != null ? product.getStockAlertLevel()
+            : StockAlertLevel.NONE;
+        StockAlertLevel next = nextLevel(current, stock, threshold);
+        if (next == current) {
+            return;
+        }
+        product.setStockAlertLevel(next);
+        switch (next) {
+            case OUT:
+                raise(product, StockAlert.OUT_OF_STOCK, threshold);
+                break;
+            case LOW:
+                raise(product, StockAlert.LOW_STOCK, threshold);
+                break;
+            default:
+                raise(product, StockAlert.RESTOCKED, threshold);
+        }
+    }
+
+    public List<StockAlert> getAlerts(Long beforeId, int size) {
+        Long tenantId = TenantContext.getCurrentTenant().getId();
+        return stockAlertRepository.findPage(tenantId, beforeId != null ? beforeId : Long.MAX_VALUE,
+            PageRequest.of(0, size));
+    }
+
+    public SseEmitter subscribe() {
+        return stockAlertPublisher.subscribe(TenantContext.getCurrentTenant().getId());
+    }
+
+    private StockAlertLevel nextLevel(StockAlertLevel current, int stock, int threshold) {
+        if (stock == 0) {
+            return StockAlertLevel.OUT;
+        }
+        if (stock <= threshold) {
+            return StockAlertLevel.LOW;
+        }
+        if (stock > threshold + recoveryMargin) {
+            return StockAlertLevel.NONE;
+        }
+        // Within the recovery margin: back in stock, but not recovered yet
+        return current == StockAlertLevel.OUT ? StockAlertLevel.LOW : current;
+    }
+
+    private int thresholdFor(Product product) {
+        if (product.getLowStockThreshold() != null) {
+            return product.getLowStockThreshold();
+        }
+        Tenant tenant = TenantContext.getCurrentTenant();
+        if (tenant != null && tenant.getLowStockThreshold() != null) {
+            return tenant.getLowStockThreshold();
+        }
+        return InventoryStatsService.LOW_STOCK_THRESHOLD;
+    }
+
+    private void raise(Product product, String type, int threshold) {
+        StockAlert alert = new StockAlert();
+        alert.setTenantId(product.getTenantId());
+        alert.setProductId(product.getId());
+        alert.setType(type);
+        alert.setStockQuantity(product.getStockQuantity());
+        alert.setThreshold(threshold);
+        alert.setCreatedAt(LocalDateTime.now());
+        stockAlertRepository.save(alert);
+    }
+}
@@ -4,6 +4,7 @@ import com.ecommerce.api.model.Tenant;
 import com.ecommerce.api.repository.TenantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,8 +13,14 @@ public class TenantService {
     @Autowired
     private TenantRepository tenantRepository;
 
+    @Autowired
+    private InventoryStatsService inventoryStatsService;
+
+    @Transactional
     public Tenant createTenant(Tenant tenant) {
-        return tenantRepository.save(tenant);
+        Tenant savedTenant = tenantRepository.save(tenant);
+        inventoryStatsService.tenantCreated(savedTenant.getId());
+        return savedTenant;
     }
 
     public List<Tenant> getAllTenants() {
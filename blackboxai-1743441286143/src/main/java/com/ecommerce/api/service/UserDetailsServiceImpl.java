@@ -1,5 +1,6 @@
 package com.ecommerce.api.service;
 
+import com.ecommerce.api.interceptor.TenantContext;
 import com.ecommerce.api.model.User;
 import com.ecommerce.api.repository.UserRepository;
 import com.ecommerce.api.security.UserDetailsImpl;
@@ -17,7 +18,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsernameAndTenantId(username, TenantContext.getCurrentTenant().getId())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
         return UserDetailsImpl.build(user); // Chuyển đổi Entity User sang UserDetails
@@ -0,0 +1,202 @@
+package com.ecommerce.api.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lock-free, time-ordered 64-bit id generator.
+ *
+ * Layout (most significant first): 1 unused sign bit, 41 bits of milliseconds since
+ * {@link #EPOCH_MS}, 10 bits of node id and 12 bits of per-millisecond sequence.
+ * The last issued timestamp and sequence live in a single {@link AtomicLong}, so
+ * concurrent callers only ever retry a CAS. If the wall clock goes backwards, or
+ * more than 4096 ids are requested within one millisecond, ids keep being issued
+ * from the last logical timestamp which simply runs ahead of the clock until the
+ * clock catches up; ids therefore stay unique and monotonic per node.
+ *
+ * Ids are only unique across instances if every running instance has its own
+ * node id. It is taken from {@code id.generator.node-id}, or derived according to
+ * {@code id.generator.node-id-source}: {@code ordinal} uses the trailing ordinal
+ * of a StatefulSet pod hostname ({@code api-3} is node 3), {@code ip} uses the low
+ * 10 bits of the instance's site-local IPv4 address, which is only unique while
+ * all instances share one /22 or smaller subnet. Startup fails if neither is set.
+ */
+@Component
+public class SnowflakeIdGenerator {
+    public static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Crockford base32: ASCII-ordered, so fixed-width encodings sort like the ids
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private static final Pattern HOSTNAME_ORDINAL = Pattern.compile("-(\\d+)$");
+
+    private final long nodeId;
+    // (timestamp << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${id.generator.node-id:}") String nodeId,
+                                @Value("${id.generator.node-id-source:}") String nodeIdSource) {
+        this(resolveNodeId(nodeId, nodeIdSource));
+    }
+
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MS;
+        long nowState = now << SEQUENCE_BITS;
+        while (true) {
+            long last = lastState.get();
+            // Either start a fresh millisecond or continue from the last state; the
+            // sequence overflowing into the timestamp bits borrows the next millisecond.
+            long next = nowState > last ? nowState : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                    | (nodeId << SEQUENCE_BITS)
+                    | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Next id encoded as a fixed-width, lexicographically sortable string.
+     */
+    public String nextIdString() {
+        return encode(nextId());
+    }
+
+    public String nextIdString(String prefix) {
+        return prefix + encode(nextId());
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long decode(String encoded) {
+        if (encoded.length() != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Invalid id: " + encoded);
+        }
+        long id = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            char c = Character.toUpperCase(encoded.charAt(i));
+            int value = indexOf(c);
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid id: " + encoded);
+            }
+            id = (id << 5) | value;
+        }
+        return id;
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS);
+    }
+
+    static long resolveNodeId(String nodeId, String nodeIdSource) {
+        if (nodeId != null && !nodeId.isBlank()) {
+            return Long.parseLong(nodeId.trim());
+        }
+        String source = nodeIdSource == null ? "" : nodeIdSource.trim().toLowerCase();
+        switch (source) {
+            case "ordinal":
+                return nodeIdFromHostname(hostname());
+            case "ip":
+                return nodeIdFromAddress(siteLocalAddress());
+            case "":
+                throw new IllegalStateException("No id generator node id: set id.generator.node-id, "
+                    + "or id.generator.node-id-source to 'ordinal' or 'ip'");
+            default:
+                throw new IllegalStateException("Unknown id.generator.node-id-source: " + nodeIdSource);
+        }
+    }
+
+    static long nodeIdFromHostname(String hostname) {
+        Matcher matcher = HOSTNAME_ORDINAL.matcher(hostname == null ? "" : hostname);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Hostname '" + hostname + "' has no StatefulSet ordinal");
+        }
+        long ordinal = Long.parseLong(matcher.group(1));
+        if (ordinal > MAX_NODE_ID) {
+            throw new IllegalStateException("StatefulSet ordinal " + ordinal + " exceeds " + MAX_NODE_ID);
+        }
+        return ordinal;
+    }
+
+    static long nodeIdFromAddress(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        return (((bytes[bytes.length - 2] & 0xFF) << 8) | (bytes[bytes.length - 1] & 0xFF)) & MAX_NODE_ID;
+    }
+
+    private static String hostname() {
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname != null && !hostname.isBlank()) {
+            return hostname;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine hostname for id generator node id", e);
+        }
+    }
+
+    private static InetAddress siteLocalAddress() {
+        try {
+            for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                    continue;
+                }
+                for (InetAddress address : Collections.list(networkInterface.getInetAddresses())) {
+                    if (address instanceof Inet4Address && address.isSiteLocalAddress()) {
+                        return address;
+                    }
+                }
+            }
+        } catch (SocketException e) {
+            throw new IllegalStateException("Cannot list network interfaces for id generator node id", e);
+        }
+        throw new IllegalStateException("No site-local IPv4 address for id generator node id");
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,95 @@
+package db.migration;
+
+import com.ecommerce.api.analytics.PaymentDaySketch;
+import com.ecommerce.api.model.Money;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fills payment_sketch_daily from the payments completed before the sketches were
+ * kept, like V7 does for revenue_daily. The sketches are binary, so they are built
+ * here rather than in SQL, one tenant at a time the way
+ * {@code PaymentSketchService.rebuild} does; rows written since V2 are replaced.
+ */
+public class V8__Backfill_payment_sketches extends BaseJavaMigration {
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        for (Long tenantId : tenantsWithCompletedPayments(connection)) {
+            Map<LocalDate, PaymentDaySketch> days = sketchDays(connection, tenantId);
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM payment_sketch_daily WHERE tenant_id = ?")) {
+                delete.setLong(1, tenantId);
+                delete.executeUpdate();
+            }
+            insert(connection, tenantId, days);
+        }
+    }
+
+    private static List<Long> tenantsWithCompletedPayments(Connection connection) throws SQLException {
+        List<Long> tenants = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT DISTINCT tenant_id FROM payments WHERE status = 'COMPLETED'");
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                tenants.add(rs.getLong(1));
+            }
+        }
+        return tenants;
+    }
+
+    private static Map<LocalDate, PaymentDaySketch> sketchDays(Connection connection, Long tenantId)
+            throws SQLException {
+        Map<LocalDate, PaymentDaySketch> days = new TreeMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT user_id, amount, payment_date FROM payments WHERE tenant_id = ? AND status = 'COMPLETED'")) {
+            statement.setLong(1, tenantId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate day = rs.getTimestamp("payment_date").toLocalDateTime().toLocalDate();
+                    days.computeIfAbsent(day, d -> new PaymentDaySketch())
+                        .add(rs.getLong("user_id"), Money.toMinorUnits(rs.getBigDecimal("amount")));
+                }
+            }
+        }
+        return days;
+    }
+
+    private static void insert(Connection connection, Long tenantId, Map<LocalDate, PaymentDaySketch> days)
+            throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO payment_sketch_daily (tenant_id, sketch_date, payment_count, buyers_sketch, "
+                    + "order_value_sketch) VALUES (?, ?, ?, ?, ?)")) {
+            int batched = 0;
+            for (Map.Entry<LocalDate, PaymentDaySketch> day : days.entrySet()) {
+                PaymentDaySketch sketch = day.getValue();
+                insert.setLong(1, tenantId);
+                insert.setDate(2, Date.valueOf(day.getKey()));
+                insert.setLong(3, sketch.getOrderValues().getCount());
+                insert.setBytes(4, sketch.getBuyers().toBytes());
+                insert.setBytes(5, sketch.getOrderValues().toBytes());
+                insert.addBatch();
+                if (++batched == INSERT_BATCH_SIZE) {
+                    insert.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                insert.executeBatch();
+            }
+        }
+    }
+}
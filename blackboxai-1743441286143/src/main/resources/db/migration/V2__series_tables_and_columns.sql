@@ -0,0 +1,92 @@
+-- Bảng và cột thêm sau schema ban đầu (thống kê, idempotency, pipeline thanh toán, cảnh báo tồn kho)
+
+-- Múi giờ của tenant (dùng để chia khoảng thời gian cho thống kê)
+ALTER TABLE tenants ADD COLUMN time_zone VARCHAR(64);
+
+-- Ngưỡng cảnh báo sắp hết hàng (theo tenant, có thể ghi đè theo sản phẩm) và trạng thái cảnh báo
+ALTER TABLE tenants ADD COLUMN low_stock_threshold INT;
+ALTER TABLE products ADD COLUMN low_stock_threshold INT;
+ALTER TABLE products ADD COLUMN low_stock_alerted BOOLEAN DEFAULT FALSE;
+
+-- Thêm cột phục vụ pipeline xử lý thanh toán bất đồng bộ
+ALTER TABLE payments ADD COLUMN attempt_count INT DEFAULT 0;
+ALTER TABLE payments ADD COLUMN failure_reason VARCHAR(255);
+ALTER TABLE payments ADD COLUMN next_attempt_at DATETIME;
+CREATE INDEX idx_payments_status_next_attempt ON payments (status, next_attempt_at);
+
+-- id thanh toán do ứng dụng cấp (Snowflake) để ghi theo lô nhiều dòng
+ALTER TABLE payments MODIFY id BIGINT NOT NULL;
+
+-- Index bao phủ cho lịch sử thanh toán theo người dùng (phân trang keyset)
+CREATE INDEX idx_payments_user_history
+    ON payments (tenant_id, user_id, payment_date, id, status, amount, payment_method, transaction_id);
+
+-- Index bao phủ cho thống kê doanh thu (SUM/COUNT theo trạng thái và khoảng ngày)
+CREATE INDEX idx_payments_revenue ON payments (tenant_id, status, payment_date, amount);
+
+-- Index cho danh sách sản phẩm theo mức tồn kho (phân trang)
+CREATE INDEX idx_products_tenant_stock ON products (tenant_id, stock_quantity, id);
+
+-- Tạo bảng idempotency_keys (chống xử lý trùng thanh toán khi client gửi lại)
+CREATE TABLE idempotency_keys (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_id BIGINT,
+    created_at DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+    UNIQUE KEY uk_idempotency_tenant_key (tenant_id, idempotency_key),
+    INDEX idx_idempotency_expires_at (expires_at),
+    FOREIGN KEY (tenant_id) REFERENCES tenants(id),
+    FOREIGN KEY (payment_id) REFERENCES payments(id)
+);
+
+-- Tạo bảng revenue_daily (tổng hợp doanh thu theo ngày, cập nhật khi thanh toán COMPLETED)
+CREATE TABLE revenue_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id BIGINT NOT NULL,
+    revenue_date DATE NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    revenue DECIMAL(15,2) NOT NULL,
+    UNIQUE KEY uk_revenue_daily (tenant_id, revenue_date, payment_method),
+    FOREIGN KEY (tenant_id) REFERENCES tenants(id)
+);
+
+-- Tạo bảng inventory_stats (bộ đếm tồn kho theo tenant, cập nhật khi ghi sản phẩm)
+CREATE TABLE inventory_stats (
+    tenant_id BIGINT PRIMARY KEY,
+    total_products BIGINT NOT NULL,
+    low_stock_products BIGINT NOT NULL,
+    out_of_stock_products BIGINT NOT NULL,
+    total_stock BIGINT NOT NULL,
+    total_inventory_value DECIMAL(19,2) NOT NULL,
+    FOREIGN KEY (tenant_id) REFERENCES tenants(id)
+);
+
+-- Tạo bảng payment_sketch_daily (sketch người mua duy nhất và phân vị giá trị đơn theo ngày)
+CREATE TABLE payment_sketch_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id BIGINT NOT NULL,
+    sketch_date DATE NOT NULL,
+    payment_count BIGINT NOT NULL,
+    buyers_sketch BLOB NOT NULL,
+    order_value_sketch BLOB NOT NULL,
+    UNIQUE KEY uk_payment_sketch_daily (tenant_id, sketch_date),
+    FOREIGN KEY (tenant_id) REFERENCES tenants(id)
+);
+
+-- Tạo bảng stock_alerts (cảnh báo tồn kho, ghi khi sản phẩm vượt ngưỡng)
+CREATE TABLE stock_alerts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    stock_quantity INT NOT NULL,
+    threshold INT NOT NULL,
+    created_at DATETIME NOT NULL,
+    INDEX idx_stock_alerts_tenant_id (tenant_id, id),
+    FOREIGN KEY (tenant_id) REFERENCES tenants(id)
+);
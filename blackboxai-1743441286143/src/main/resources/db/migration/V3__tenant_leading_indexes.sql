@@ -0,0 +1,27 @@
+-- Index theo tenant cho các truy vấn của repository (tenant_id luôn đứng đầu)
+
+-- Danh mục của tenant: danh mục gốc (parent_id IS NULL) và danh mục con theo parent_id
+CREATE INDEX idx_categories_tenant_parent ON categories (tenant_id, parent_id);
+
+-- Sản phẩm của tenant theo danh mục
+CREATE INDEX idx_products_tenant_category ON products (tenant_id, category_id);
+
+-- Index bao phủ cho tồn kho: thêm price để dựng lại inventory_stats chỉ từ index
+-- (khóa ngoại tenant_id dùng idx_products_tenant_category trong lúc tạo lại)
+DROP INDEX idx_products_tenant_stock ON products;
+CREATE INDEX idx_products_tenant_stock ON products (tenant_id, stock_quantity, id, price);
+
+-- Index bao phủ cho doanh thu: thêm payment_method và user_id để dựng lại revenue_daily
+-- và sketch người mua chỉ từ index
+DROP INDEX idx_payments_revenue ON payments;
+CREATE INDEX idx_payments_revenue
+    ON payments (tenant_id, status, payment_date, amount, payment_method, user_id);
+
+-- Banner đang hiển thị của tenant, sắp theo display_order
+CREATE INDEX idx_banners_tenant_active_order ON banners (tenant_id, is_active, display_order);
+
+-- Tất cả banner của tenant, sắp theo display_order
+CREATE INDEX idx_banners_tenant_order ON banners (tenant_id, display_order);
+
+-- Tìm role theo tên
+CREATE INDEX idx_roles_name ON roles (name);
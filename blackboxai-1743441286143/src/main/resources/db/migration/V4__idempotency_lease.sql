@@ -0,0 +1,5 @@
+-- Thêm thời hạn giữ khóa cho idempotency_keys: khóa IN_PROGRESS quá hạn (instance bị dừng giữa chừng) có thể được tiếp quản
+ALTER TABLE idempotency_keys ADD COLUMN locked_until DATETIME;
+
+-- Các khóa IN_PROGRESS có sẵn coi như đã hết hạn giữ
+UPDATE idempotency_keys SET locked_until = created_at WHERE status = 'IN_PROGRESS';
@@ -0,0 +1,2 @@
+-- Phiên bản của bộ banner theo tenant: tăng trong cùng transaction với mỗi thay đổi banner, dùng chung cho mọi instance
+ALTER TABLE tenants ADD COLUMN banner_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Tạo dòng inventory_stats cho mọi tenant chưa có, tính từ bảng products; từ nay dòng được tạo cùng với tenant
+-- nên ghi sản phẩm chỉ cộng dồn vào dòng có sẵn và đọc thống kê không bao giờ phải ghi
+INSERT INTO inventory_stats
+    (tenant_id, total_products, low_stock_products, out_of_stock_products, total_stock, total_inventory_value)
+SELECT t.id, COUNT(p.id),
+       COALESCE(SUM(CASE WHEN p.stock_quantity <= 10 THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN p.stock_quantity = 0 THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(p.stock_quantity), 0),
+       COALESCE(SUM(p.price * COALESCE(p.stock_quantity, 0)), 0)
+FROM tenants t
+LEFT JOIN products p ON p.tenant_id = t.id
+WHERE NOT EXISTS (SELECT 1 FROM inventory_stats s WHERE s.tenant_id = t.id)
+GROUP BY t.id;
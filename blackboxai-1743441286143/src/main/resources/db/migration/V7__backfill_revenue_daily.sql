@@ -0,0 +1,9 @@
+-- Dựng lại revenue_daily từ các thanh toán COMPLETED đã có, để doanh thu trước khi nâng cấp không bị tính là 0;
+-- bảng chỉ là tổng hợp của payments nên xóa rồi tính lại toàn bộ, kể cả các dòng đã cộng dồn từ lúc V2 chạy
+DELETE FROM revenue_daily;
+
+INSERT INTO revenue_daily (tenant_id, revenue_date, payment_method, transaction_count, revenue)
+SELECT tenant_id, CAST(payment_date AS DATE), payment_method, COUNT(*), SUM(amount)
+FROM payments
+WHERE status = 'COMPLETED'
+GROUP BY tenant_id, CAST(payment_date AS DATE), payment_method;
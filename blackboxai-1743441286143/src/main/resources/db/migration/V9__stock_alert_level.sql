@@ -0,0 +1,9 @@
+-- Lưu mức cảnh báo tồn kho (NONE / LOW / OUT) thay cho cờ low_stock_alerted, để sản phẩm đã báo LOW_STOCK
+-- vẫn báo OUT_OF_STOCK khi hết hàng; sản phẩm đã cảnh báo và đang hết hàng được coi là đã báo OUT
+ALTER TABLE products ADD COLUMN stock_alert_level VARCHAR(10) NOT NULL DEFAULT 'NONE';
+
+UPDATE products
+SET stock_alert_level = CASE WHEN stock_quantity = 0 THEN 'OUT' ELSE 'LOW' END
+WHERE low_stock_alerted = TRUE;
+
+ALTER TABLE products DROP COLUMN low_stock_alerted;
@@ -0,0 +1,98 @@
+package com.ecommerce.api.analytics;
+
+import com.ecommerce.api.service.PaymentProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:columnstore;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "analytics.column-store.enabled=true"
+})
+@ActiveProfiles("test")
+class PaymentColumnStoreLoaderTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private PaymentColumnStore columnStore;
+
+    @Autowired
+    private PaymentColumnStoreLoader loader;
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long tenantId;
+    private long userId;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        assertTrue(eventually(() -> columnStore.isReady()), "column store never finished its background load");
+
+        tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = 'fashion.example.com'", Long.class);
+        String username = "analyst" + SEQUENCE.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO users (username, email, password, tenant_id) VALUES (?, ?, 'hash', ?)",
+            username, username + "@example.com", tenantId);
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    @Test
+    void loadCountsOnlyTerminalPayments() {
+        insertPayment("COMPLETED");
+        insertPayment("COMPLETED");
+        insertPayment("FAILED");
+        insertPayment("PENDING");
+        Long terminal = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM payments WHERE tenant_id = ? AND status IN ('COMPLETED', 'FAILED')", Long.class, tenantId);
+
+        columnStore.clear();
+        loader.load();
+
+        assertTrue(columnStore.isReady());
+        assertEquals(terminal, columnStore.rowCount(tenantId));
+    }
+
+    @Test
+    void paymentCompletedAfterTheLoadIsAppended() throws InterruptedException {
+        long before = columnStore.rowCount(tenantId);
+        long paymentId = insertPayment("PENDING");
+
+        assertTrue(paymentProcessor.submit(paymentId));
+
+        assertTrue(eventually(() -> columnStore.rowCount(tenantId) == before + 1));
+        assertEquals("COMPLETED", jdbcTemplate.queryForObject("SELECT status FROM payments WHERE id = ?", String.class, paymentId));
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    private long insertPayment(String status) {
+        long id = SEQUENCE.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO payments (id, user_id, amount, payment_method, transaction_id, status, " +
+                "payment_date, tenant_id, attempt_count, next_attempt_at) VALUES (?, ?, 25.00, 'CARD', ?, ?, ?, ?, 0, ?)",
+            id, userId, "TXN-COL-" + id, status, now, tenantId, now);
+        return id;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.api.analytics;
+
+import com.ecommerce.api.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentColumnStoreTests {
+    private static final Long TENANT = 1L;
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 3, 1, 12, 0);
+    private static final int DAY = (int) DATE.toLocalDate().toEpochDay();
+
+    private final PaymentColumnStore store = new PaymentColumnStore();
+
+    @Test
+    void liveAppendsAreDroppedUntilALoadStarts() {
+        store.appendLive(1L, TENANT, 10L, Money.ofMinor(500), DATE, "COMPLETED", "CARD");
+
+        assertFalse(store.isReady());
+        assertEquals(0, store.rowCount(TENANT));
+    }
+
+    @Test
+    void heldBackAppendsAreReplayedUnlessTheLoadAlreadyContainedThem() {
+        store.beginLoad();
+        // Payment 1 completed before the snapshot and is also loaded; payment 2 completed after it
+        store.appendLive(1L, TENANT, 10L, Money.ofMinor(500), DATE, "COMPLETED", "CARD");
+        store.appendLive(2L, TENANT, 11L, Money.ofMinor(700), DATE, "COMPLETED", "CARD");
+        store.append(TENANT, 10L, Money.ofMinor(500), DATE, "COMPLETED", "CARD");
+        assertEquals(1, store.rowCount(TENANT));
+
+        store.finishLoad(ids -> {
+            assertEquals(Set.of(1L, 2L), ids);
+            return Set.of(1L);
+        });
+
+        assertTrue(store.isReady());
+        assertArrayEquals(new long[]{1200, 2}, store.sumAndCount(TENANT, DAY, DAY, "COMPLETED"));
+    }
+
+    @Test
+    void liveAppendsAfterTheLoadGoStraightIn() {
+        store.beginLoad();
+        store.finishLoad(ids -> Set.of());
+
+        store.appendLive(3L, TENANT, 12L, Money.ofMinor(900), DATE, "FAILED", "WALLET");
+
+        assertEquals(1, store.rowCount(TENANT));
+        assertArrayEquals(new long[]{900, 1}, store.sumAndCount(TENANT, DAY, DAY, "FAILED"));
+    }
+
+    @Test
+    void abortedLoadLeavesTheStoreEmptyAndNotReady() {
+        store.beginLoad();
+        store.append(TENANT, 10L, Money.ofMinor(500), DATE, "COMPLETED", "CARD");
+
+        store.abortLoad();
+        store.appendLive(4L, TENANT, 10L, Money.ofMinor(500), DATE, "COMPLETED", "CARD");
+
+        assertFalse(store.isReady());
+        assertEquals(0, store.rowCount(TENANT));
+    }
+}
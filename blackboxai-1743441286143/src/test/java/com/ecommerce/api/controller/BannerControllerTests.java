@@ -0,0 +1,125 @@
+package com.ecommerce.api.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BannerControllerTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String tenantUrl;
+    private long tenantId;
+    private long first;
+    private long second;
+    private long third;
+
+    @BeforeEach
+    void setUp() {
+        // A tenant of its own, so the test controls its whole banner set
+        String domain = "banners" + SEQUENCE.incrementAndGet() + ".example.com";
+        jdbcTemplate.update("INSERT INTO tenants (domain, name, is_active, created_at) VALUES (?, ?, TRUE, ?)",
+            domain, domain, LocalDateTime.now());
+        tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = ?", Long.class, domain);
+        tenantUrl = "http://" + domain;
+        first = insertBanner("First", 1);
+        second = insertBanner("Second", 2);
+        third = insertBanner("Third", 3);
+    }
+
+    @Test
+    void partialOrderIsRejectedAndLeavesOrderUntouched() throws Exception {
+        mockMvc.perform(bulk("{\"orderedIds\": [" + third + ", " + first + "]}"))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(List.of(first, second, third), idsInDisplayOrder());
+        assertEquals(0L, bannerVersion());
+    }
+
+    @Test
+    void fullOrderIsAppliedAndBumpsThePersistedVersion() throws Exception {
+        mockMvc.perform(bulk("{\"orderedIds\": [" + third + ", " + first + ", " + second + "], " +
+                "\"deactivateIds\": [" + second + "]}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Banner-Set-Version", "1"))
+            .andExpect(jsonPath("$[0].id").value(third))
+            .andExpect(jsonPath("$[2].isActive").value(false));
+
+        assertEquals(List.of(third, first, second), idsInDisplayOrder());
+        assertEquals(1L, bannerVersion());
+        mockMvc.perform(get(tenantUrl + "/api/banners").with(jwt()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Banner-Set-Version", "1"));
+    }
+
+    @Test
+    void bannerOfAnotherTenantCannotBeOrdered() throws Exception {
+        long foreign = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = 'main.example.com'", Long.class);
+        long foreignBanner = insertBanner("Foreign", 1, foreign);
+
+        mockMvc.perform(bulk("{\"orderedIds\": [" + first + ", " + second + ", " + third + ", " + foreignBanner + "]}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownBannerCannotBeActivated() throws Exception {
+        mockMvc.perform(bulk("{\"orderedIds\": [" + first + ", " + second + ", " + third + "], " +
+                "\"activateIds\": [" + (third + 1_000_000) + "]}"))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(0L, bannerVersion());
+    }
+
+    private RequestBuilder bulk(String body) {
+        return put(tenantUrl + "/api/banners/bulk").with(jwt())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body);
+    }
+
+    private long insertBanner(String title, int order) {
+        return insertBanner(title, order, tenantId);
+    }
+
+    private long insertBanner(String title, int order, long bannerTenantId) {
+        jdbcTemplate.update("INSERT INTO banners (title, image_url, display_order, is_active, tenant_id, created_at) " +
+            "VALUES (?, 'banner.png', ?, TRUE, ?, ?)", title + SEQUENCE.incrementAndGet(), order, bannerTenantId,
+            LocalDateTime.now());
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM banners WHERE tenant_id = ?", Long.class, bannerTenantId);
+    }
+
+    private List<Long> idsInDisplayOrder() {
+        return jdbcTemplate.queryForList("SELECT id FROM banners WHERE tenant_id = ? ORDER BY display_order",
+            Long.class, tenantId);
+    }
+
+    private long bannerVersion() {
+        return jdbcTemplate.queryForObject("SELECT banner_version FROM tenants WHERE id = ?", Long.class, tenantId);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.api.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaymentControllerTests {
+    private static final String TENANT_URL = "http://main.example.com";
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String owner;
+    private String otherUser;
+    private long paymentId;
+
+    @BeforeEach
+    void setUp() {
+        Long tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = 'main.example.com'", Long.class);
+        owner = "owner" + SEQUENCE.incrementAndGet();
+        otherUser = "other" + SEQUENCE.incrementAndGet();
+        long ownerId = insertUser(owner, tenantId);
+        insertUser(otherUser, tenantId);
+
+        paymentId = SEQUENCE.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO payments (id, user_id, amount, payment_method, transaction_id, status, " +
+                "payment_date, tenant_id, attempt_count) VALUES (?, ?, 12.50, 'CARD', ?, 'COMPLETED', ?, ?, 1)",
+            paymentId, ownerId, "TXN-TEST-" + paymentId, LocalDateTime.now(), tenantId);
+    }
+
+    @Test
+    void ownerReadsPaymentWithoutUserDetails() throws Exception {
+        mockMvc.perform(get(TENANT_URL + "/api/payments/" + paymentId).with(jwt().jwt(j -> j.subject(owner))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(String.valueOf(paymentId)))
+            .andExpect(jsonPath("$.status").value("COMPLETED"))
+            .andExpect(jsonPath("$.user").doesNotExist())
+            .andExpect(jsonPath("$.password").doesNotExist());
+    }
+
+    @Test
+    void otherUserCannotReadPayment() throws Exception {
+        mockMvc.perform(get(TENANT_URL + "/api/payments/" + paymentId).with(jwt().jwt(j -> j.subject(otherUser))))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void otherUserCannotSubscribeToPayment() throws Exception {
+        mockMvc.perform(get(TENANT_URL + "/api/payments/" + paymentId + "/events")
+                .with(jwt().jwt(j -> j.subject(otherUser))))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void malformedHistoryCursorIsABadRequest() throws Exception {
+        // Not Base64, and Base64 of something other than date~id
+        for (String cursor : new String[] {"not a cursor!", "bm9wZQ"}) {
+            mockMvc.perform(get(TENANT_URL + "/api/payments/me").param("cursor", cursor)
+                    .with(jwt().jwt(j -> j.subject(owner))))
+                .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void overlongIdempotencyKeyIsABadRequest() throws Exception {
+        mockMvc.perform(post(TENANT_URL + "/api/payments").param("amount", "10.00").param("paymentMethod", "CARD")
+                .header("Idempotency-Key", "k".repeat(101))
+                .with(jwt().jwt(j -> j.subject(owner))))
+            .andExpect(status().isBadRequest());
+    }
+
+    private long insertUser(String username, Long tenantId) {
+        jdbcTemplate.update("INSERT INTO users (username, email, password, tenant_id) VALUES (?, ?, 'hash', ?)",
+            username, username + "@example.com", tenantId);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+}
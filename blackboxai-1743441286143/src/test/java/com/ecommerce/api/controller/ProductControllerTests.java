@@ -0,0 +1,69 @@
+package com.ecommerce.api.controller;
+
+import com.ecommerce.api.metrics.QueryCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductControllerTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+    private static final int PRODUCTS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String tenantUrl;
+
+    @BeforeEach
+    void setUp() {
+        String domain = "products" + SEQUENCE.incrementAndGet() + ".example.com";
+        jdbcTemplate.update("INSERT INTO tenants (domain, name, is_active, created_at) VALUES (?, ?, TRUE, ?)",
+            domain, domain, LocalDateTime.now());
+        long tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = ?", Long.class, domain);
+        tenantUrl = "http://" + domain;
+
+        jdbcTemplate.update("INSERT INTO categories (name, tenant_id) VALUES (?, ?)", "Shoes", tenantId);
+        long categoryId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM categories WHERE tenant_id = ?",
+            Long.class, tenantId);
+        for (int i = 0; i < PRODUCTS; i++) {
+            jdbcTemplate.update("INSERT INTO products (name, price, stock_quantity, category_id, tenant_id) " +
+                "VALUES (?, 19.99, 10, ?, ?)", "Product " + i, categoryId, tenantId);
+            long productId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products WHERE tenant_id = ?",
+                Long.class, tenantId);
+            jdbcTemplate.update("INSERT INTO product_images (image_url, product_id) VALUES ('a.png', ?), ('b.png', ?)",
+                productId, productId);
+        }
+    }
+
+    @Test
+    void listingLoadsProductsCategoriesAndImagesInConstantQueries() throws Exception {
+        // Warm the tenant lookup so only the listing itself is counted
+        mockMvc.perform(get(tenantUrl + "/api/products").with(jwt())).andExpect(status().isOk());
+
+        QueryCounts.assertStatements(1, () -> mockMvc.perform(get(tenantUrl + "/api/products").with(jwt()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(PRODUCTS))
+            .andExpect(jsonPath("$[0].images.length()").value(2))
+            .andExpect(header().string(QueryCounts.COUNT_HEADER, "1")));
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.api.controller;
+
+import com.ecommerce.api.service.StockAlertPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StockAlertControllerTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StockAlertPublisher stockAlertPublisher;
+
+    private String tenantUrl;
+    private long tenantId;
+    private long otherTenantId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = insertTenant();
+        otherTenantId = insertTenant();
+        tenantUrl = "http://" + jdbcTemplate.queryForObject("SELECT domain FROM tenants WHERE id = ?", String.class,
+            tenantId);
+    }
+
+    @Test
+    void streamDeliversAlertsWrittenByAnyInstance() throws Exception {
+        MockHttpServletResponse stream = subscribe();
+
+        // Inserted straight into the table, as another instance would
+        long alertId = insertAlert(tenantId);
+        long otherId = insertAlert(otherTenantId);
+        stockAlertPublisher.poll();
+
+        String events = stream.getContentAsString();
+        assertTrue(events.contains("id:" + alertId + "\n"), events);
+        assertTrue(events.contains("event:stock-alert"), events);
+        assertFalse(events.contains("id:" + otherId + "\n"), events);
+    }
+
+    @Test
+    void alertCommittedAfterAHigherIdIsStillDelivered() throws Exception {
+        MockHttpServletResponse stream = subscribe();
+
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() ->
+            new TransactionTemplate(transactionManager).execute(status -> {
+                long id = insertAlert(tenantId);
+                inserted.countDown();
+                await(commit);
+                return id;
+            }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+        long fast = insertAlert(tenantId);
+        stockAlertPublisher.poll();
+        assertTrue(stream.getContentAsString().contains("id:" + fast + "\n"));
+
+        commit.countDown();
+        long slowId = slow.get(10, TimeUnit.SECONDS);
+        stockAlertPublisher.poll();
+
+        String events = stream.getContentAsString();
+        assertTrue(slowId < fast);
+        assertTrue(events.contains("id:" + slowId + "\n"), events);
+    }
+
+    private MockHttpServletResponse subscribe() throws Exception {
+        return mockMvc.perform(get(tenantUrl + "/api/inventory/alerts/events").with(jwt()))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+    }
+
+    private long insertTenant() {
+        String domain = "alerts" + SEQUENCE.incrementAndGet() + ".example.com";
+        jdbcTemplate.update("INSERT INTO tenants (domain, name, is_active, created_at) VALUES (?, ?, TRUE, ?)",
+            domain, domain, LocalDateTime.now());
+        return jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = ?", Long.class, domain);
+    }
+
+    private long insertAlert(long tenant) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO stock_alerts (tenant_id, product_id, type, stock_quantity, threshold, created_at) " +
+                    "VALUES (?, ?, 'LOW_STOCK', 2, 10, ?)", Statement.RETURN_GENERATED_KEYS);
+            statement.setLong(1, tenant);
+            statement.setLong(2, SEQUENCE.incrementAndGet());
+            statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
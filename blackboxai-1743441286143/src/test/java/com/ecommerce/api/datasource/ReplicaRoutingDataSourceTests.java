@@ -0,0 +1,251 @@
+package com.ecommerce.api.datasource;
+
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.model.Tenant;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routes between two embedded H2 databases that each hold one row naming
+ * themselves, so every read shows which one served it. Wired like
+ * {@code ReplicaDataSourceConfig}: the routing data source behind a
+ * {@link LazyConnectionDataSourceProxy}.
+ */
+class ReplicaRoutingDataSourceTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    private FailingDataSource replica;
+    private ReplicaHealth replicaHealth;
+    private ReadYourWritesTracker readYourWrites;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private Tenant tenant;
+
+    @BeforeEach
+    void setUp() {
+        long run = SEQUENCE.incrementAndGet();
+        DataSource primary = database("routing_primary_" + run, "primary");
+        replica = new FailingDataSource(database("routing_replica_" + run, "replica"));
+        replicaHealth = new ReplicaHealth(replica, "SELECT lag FROM replica_lag", 5);
+        readYourWrites = new ReadYourWritesTracker(60);
+        dataSource = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, replica, replicaHealth, readYourWrites));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        tenant = new Tenant();
+        tenant.setId(run);
+        TenantContext.setCurrentTenant(tenant);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+        replicaHealth.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void onlyReplicaPreferredReadsGoToTheReplica() {
+        assertEquals("primary", readServer());
+        assertEquals("replica", ReplicaRouting.withReplicaPreferred(true, this::readServer));
+        assertEquals("primary", ReplicaRouting.withReplicaPreferred(false, this::readServer));
+    }
+
+    @Test
+    void readWriteTransactionsStayOnThePrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals("replica", ReplicaRouting.withReplicaPreferred(true, () -> readOnly.execute(status -> readServer())));
+        assertEquals("primary", ReplicaRouting.withReplicaPreferred(true, () -> readWrite.execute(status -> readServer())));
+        // A read-only transaction outside a replica read is left alone
+        assertEquals("primary", readOnly.execute(status -> readServer()));
+    }
+
+    @Test
+    void aspectMarksReplicaReadsAndReadOnlyTransactions() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Reads());
+        factory.addAspect(new ReplicaRoutingAspect());
+        Reads reads = factory.getProxy();
+
+        assertEquals("replica", reads.annotated());
+        assertEquals("replica", reads.readOnlyTransaction());
+        assertEquals("primary", reads.readWriteTransaction());
+        assertFalse(ReplicaRouting.isReplicaPreferred());
+    }
+
+    @Test
+    void userIsPinnedToThePrimaryAfterTheirOwnWrite() {
+        readYourWrites.recordWrite(tenant);
+
+        assertEquals("primary", ReplicaRouting.withReplicaPreferred(true, this::readServer));
+
+        // Another user of the same tenant keeps reading from the replica
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null, "ROLE_USER"));
+        assertEquals("replica", ReplicaRouting.withReplicaPreferred(true, this::readServer));
+
+        // So does the same user name on another tenant
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+        Tenant otherTenant = new Tenant();
+        otherTenant.setId(tenant.getId() + 1_000_000);
+        TenantContext.setCurrentTenant(otherTenant);
+        assertEquals("replica", ReplicaRouting.withReplicaPreferred(true, this::readServer));
+    }
+
+    @Test
+    void pinExpiresAfterTheWindow() {
+        ReadYourWritesTracker noWindow = new ReadYourWritesTracker(0);
+        noWindow.recordWrite(tenant);
+
+        assertFalse(noWindow.isPinnedToPrimary());
+    }
+
+    @Test
+    void filterPinsOnlyAfterSuccessfulModifyingRequests() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(readYourWrites);
+
+        filter.doFilter(request("GET"), new MockHttpServletResponse(), new MockFilterChain());
+        assertFalse(readYourWrites.isPinnedToPrimary());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        rejected.setStatus(400);
+        filter.doFilter(request("POST"), rejected, new MockFilterChain());
+        assertFalse(readYourWrites.isPinnedToPrimary());
+
+        filter.doFilter(request("POST"), new MockHttpServletResponse(), new MockFilterChain());
+        assertTrue(readYourWrites.isPinnedToPrimary());
+    }
+
+    @Test
+    void replicaIsNotUsedBeforeTheFirstHealthCheck() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60);
+        ReplicaHealth unchecked = new ReplicaHealth(replica, "SELECT lag FROM replica_lag", 5);
+        JdbcTemplate template = new JdbcTemplate(new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(database("routing_unchecked_" + SEQUENCE.incrementAndGet(), "primary"),
+                replica, unchecked, tracker)));
+
+        assertEquals("primary", ReplicaRouting.withReplicaPreferred(true,
+            () -> template.queryForObject("SELECT name FROM server", String.class)));
+    }
+
+    @Test
+    void laggingReplicaFailsOverToThePrimaryUntilItCatchesUp() {
+        replica.jdbcTemplate().update("UPDATE replica_lag SET lag = 30");
+        replicaHealth.check();
+
+        assertFalse(replicaHealth.isAvailable());
+        assertEquals("primary", ReplicaRouting.withReplicaPreferred(true, this::readServer));
+
+        replica.jdbcTemplate().update("UPDATE replica_lag SET lag = 1");
+        replicaHealth.check();
+
+        assertTrue(replicaHealth.isAvailable());
+        assertEquals("replica", ReplicaRouting.withReplicaPreferred(true, this::readServer));
+    }
+
+    @Test
+    void unreachableReplicaFailsOverToThePrimaryAndIsMarkedDown() {
+        replica.down = true;
+
+        // The health check has not noticed yet; the failed connection attempt takes the replica out
+        assertTrue(replicaHealth.isAvailable());
+        assertEquals("primary", ReplicaRouting.withReplicaPreferred(true, this::readServer));
+        assertFalse(replicaHealth.isAvailable());
+
+        replicaHealth.check();
+        assertFalse(replicaHealth.isAvailable());
+
+        replica.down = false;
+        replicaHealth.check();
+        assertEquals("replica", ReplicaRouting.withReplicaPreferred(true, this::readServer));
+    }
+
+    private String readServer() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private MockHttpServletRequest request(String method) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/cart");
+        request.setAttribute("CURRENT_TENANT", tenant);
+        return request;
+    }
+
+    private static DataSource database(String name, String server) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE server (name VARCHAR(20))");
+        template.update("INSERT INTO server (name) VALUES (?)", server);
+        template.execute("CREATE TABLE replica_lag (lag BIGINT)");
+        template.update("INSERT INTO replica_lag (lag) VALUES (0)");
+        return dataSource;
+    }
+
+    private static class FailingDataSource extends DelegatingDataSource {
+        volatile boolean down;
+
+        FailingDataSource(DataSource target) {
+            super(target);
+        }
+
+        JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(getTargetDataSource());
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+
+    static class Reads {
+        @ReadFromReplica
+        public String annotated() {
+            return server();
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnlyTransaction() {
+            return server();
+        }
+
+        @Transactional
+        public String readWriteTransaction() {
+            return server();
+        }
+
+        private static String server() {
+            return ReplicaRouting.isReplicaPreferred() ? "replica" : "primary";
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ecommerce.api.gateway;
+
+import com.ecommerce.api.model.Payment;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayCallGuardTests {
+    private static final long TIMEOUT_MS = 100;
+
+    private GatewayCallGuard guard = guard(TIMEOUT_MS);
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+    @Test
+    void retryAfterTimeoutReturnsOriginalOutcomeWithoutSecondCharge() throws Exception {
+        StubProvider provider = new StubProvider();
+        provider.responseDelayMs = TIMEOUT_MS * 3;
+        Payment payment = payment("CARD", "TXN-1");
+
+        PaymentGatewayException timeout =
+            assertThrows(PaymentGatewayException.class, () -> guard.charge(provider, payment));
+        assertTrue(timeout.getMessage().contains("timed out"));
+
+        provider.responseDelayMs = 0;
+        GatewayResult retried = guard.charge(provider, payment);
+
+        assertTrue(retried.isApproved());
+        assertEquals(2, provider.calls.get());
+        assertEquals(1, provider.accepted.size());
+        assertEquals(provider.accepted.get("TXN-1").getReference(), retried.getReference());
+    }
+
+    @Test
+    void callBeyondBulkheadIsRejectedWithoutReachingProvider() throws Exception {
+        guard.shutdown();
+        guard = guard(5000);
+        StubProvider provider = new StubProvider();
+        provider.hold = new CountDownLatch(1);
+        Thread first = Thread.ofVirtual().start(() -> {
+            try {
+                guard.charge(provider, payment("CARD", "TXN-2"));
+            } catch (PaymentGatewayException ignored) {
+                // only the second call's outcome matters
+            }
+        });
+        assertTrue(provider.entered.await(1, TimeUnit.SECONDS));
+
+        PaymentGatewayException busy =
+            assertThrows(PaymentGatewayException.class, () -> guard.charge(provider, payment("CARD", "TXN-3")));
+
+        assertTrue(busy.getMessage().contains("busy"));
+        provider.hold.countDown();
+        first.join();
+        assertEquals(1, provider.calls.get());
+    }
+
+    @Test
+    void repeatedFailuresOpenTheCircuitForThatMethodOnly() {
+        StubProvider provider = new StubProvider();
+        provider.failing = true;
+        for (int i = 0; i < 4; i++) {
+            Payment payment = payment("WALLET", "TXN-W" + i);
+            assertThrows(PaymentGatewayException.class, () -> guard.charge(provider, payment));
+        }
+
+        PaymentGatewayException open =
+            assertThrows(PaymentGatewayException.class, () -> guard.charge(provider, payment("WALLET", "TXN-W9")));
+
+        assertTrue(open.getMessage().contains("circuit open"));
+        assertEquals(4, provider.calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitState("WALLET"));
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitState("CARD"));
+    }
+
+    private static GatewayCallGuard guard(long timeoutMs) {
+        return new GatewayCallGuard(new SimpleMeterRegistry(), 1, timeoutMs, 50, 2000, 50, 4, 30);
+    }
+
+    private static Payment payment(String method, String transactionId) {
+        Payment payment = new Payment();
+        payment.setPaymentMethod(method);
+        payment.setTransactionId(transactionId);
+        return payment;
+    }
+
+    /**
+     * Provider stub that accepts a charge before answering and, like a real
+     * provider, answers a repeated idempotency key with the original outcome.
+     */
+    private static class StubProvider implements PaymentGateway {
+        final AtomicInteger calls = new AtomicInteger();
+        final Map<String, GatewayResult> accepted = new ConcurrentHashMap<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile long responseDelayMs;
+        volatile boolean failing;
+        volatile CountDownLatch hold;
+
+        @Override
+        public String getName() {
+            return "stub";
+        }
+
+        @Override
+        public boolean supports(String paymentMethod) {
+            return true;
+        }
+
+        @Override
+        public GatewayResult charge(Payment payment, String idempotencyKey) throws PaymentGatewayException {
+            calls.incrementAndGet();
+            entered.countDown();
+            if (failing) {
+                throw new PaymentGatewayException("Stub provider error");
+            }
+            GatewayResult result = accepted.computeIfAbsent(idempotencyKey,
+                key -> GatewayResult.approved("STUB-" + key + "-" + calls.get()));
+            try {
+                if (hold != null) {
+                    hold.await();
+                }
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.api.metrics;
+
+import java.util.stream.Collectors;
+
+/**
+ * Query counting for integration tests. {@link #count(Block)} counts what a
+ * block executes on the calling thread, including requests it performs through
+ * MockMvc, whose scopes nest inside the block's. Requests sent over HTTP report
+ * their count in the {@code X-Query-Count} response header instead (dev and test
+ * profiles).
+ *
+ * <pre>
+ * QueryCounts.assertStatements(2, () -> mockMvc.perform(get("/api/products")));
+ * </pre>
+ */
+public final class QueryCounts {
+    public static final String COUNT_HEADER = QueryCountResponseWrapper.COUNT_HEADER;
+    public static final String TIME_HEADER = QueryCountResponseWrapper.TIME_HEADER;
+
+    private QueryCounts() {
+    }
+
+    public static RequestQueryStats count(Block block) throws Exception {
+        RequestQueryStats stats = RequestQueryStats.begin(true);
+        try {
+            block.run();
+        } finally {
+            RequestQueryStats.end();
+        }
+        return stats;
+    }
+
+    /**
+     * Runs {@code block} and fails with the executed statements unless it ran
+     * exactly {@code expected} of them.
+     */
+    public static RequestQueryStats assertStatements(int expected, Block block) throws Exception {
+        RequestQueryStats stats = count(block);
+        if (stats.getStatements() != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but " + stats.getStatements()
+                + " were executed:\n  " + stats.getStatementGroups().stream()
+                .map(Object::toString).collect(Collectors.joining("\n  ")));
+        }
+        return stats;
+    }
+
+    @FunctionalInterface
+    public interface Block {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.api.migration;
+
+import com.ecommerce.api.analytics.HyperLogLog;
+import com.ecommerce.api.analytics.PaymentDaySketch;
+import com.ecommerce.api.analytics.QuantileSketch;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the migrations that fill derived tables on a database holding data from
+ * before them: up to the previous version, insert rows, then migrate the rest.
+ */
+class BackfillMigrationTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private long tenantId;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:backfill" + SEQUENCE.incrementAndGet()
+            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void revenueRollupIsRebuiltFromCompletedPayments() {
+        migrateTo("6");
+        seedTenantAndUser();
+        insertPayment("COMPLETED", "CARD", "10.00", "2024-03-01 09:00:00");
+        insertPayment("COMPLETED", "CARD", "5.50", "2024-03-01 18:30:00");
+        insertPayment("COMPLETED", "PAYPAL", "7.00", "2024-03-01 12:00:00");
+        insertPayment("COMPLETED", "CARD", "3.00", "2024-03-02 08:00:00");
+        insertPayment("PENDING", "CARD", "99.00", "2024-03-02 09:00:00");
+        // Counted live since V2 ran: replaced by the backfill rather than added to it
+        jdbcTemplate.update("INSERT INTO revenue_daily (tenant_id, revenue_date, payment_method, transaction_count, "
+            + "revenue) VALUES (?, '2024-03-02', 'CARD', 1, 3.00)", tenantId);
+
+        migrateTo("7");
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT revenue_date, payment_method, transaction_count, revenue FROM revenue_daily "
+                + "WHERE tenant_id = ? ORDER BY revenue_date, payment_method", tenantId);
+        assertEquals(3, rows.size());
+        assertRollup(rows.get(0), "2024-03-01", "CARD", 2, "15.50");
+        assertRollup(rows.get(1), "2024-03-01", "PAYPAL", 1, "7.00");
+        assertRollup(rows.get(2), "2024-03-02", "CARD", 1, "3.00");
+    }
+
+    @Test
+    void paymentSketchesAreRebuiltFromCompletedPayments() {
+        migrateTo("7");
+        seedTenantAndUser();
+        long otherUser = insertUser("backfill-other");
+        insertPayment("COMPLETED", "CARD", "10.00", "2024-03-01 09:00:00");
+        insertPayment("COMPLETED", "CARD", "20.00", "2024-03-01 10:00:00");
+        insertPayment(otherUser, "COMPLETED", "CARD", "30.00", "2024-03-01 11:00:00");
+        insertPayment("COMPLETED", "CARD", "40.00", "2024-03-02 08:00:00");
+        insertPayment("FAILED", "CARD", "99.00", "2024-03-02 09:00:00");
+        // Flushed live since V2 ran: replaced by the backfill
+        PaymentDaySketch live = new PaymentDaySketch();
+        live.add(userId, 4000);
+        jdbcTemplate.update("INSERT INTO payment_sketch_daily (tenant_id, sketch_date, payment_count, buyers_sketch, "
+                + "order_value_sketch) VALUES (?, '2024-03-02', 1, ?, ?)",
+            tenantId, live.getBuyers().toBytes(), live.getOrderValues().toBytes());
+
+        migrateTo("8");
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT sketch_date, payment_count, buyers_sketch, order_value_sketch FROM payment_sketch_daily "
+                + "WHERE tenant_id = ? ORDER BY sketch_date", tenantId);
+        assertEquals(2, rows.size());
+        assertEquals("2024-03-01", rows.get(0).get("sketch_date").toString());
+        assertEquals(3L, ((Number) rows.get(0).get("payment_count")).longValue());
+        assertEquals(2L, HyperLogLog.fromBytes((byte[]) rows.get(0).get("buyers_sketch")).estimate());
+        QuantileSketch orderValues = QuantileSketch.fromBytes((byte[]) rows.get(0).get("order_value_sketch"));
+        assertEquals(3L, orderValues.getCount());
+        assertEquals(1L, ((Number) rows.get(1).get("payment_count")).longValue());
+    }
+
+    private void migrateTo(String version) {
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").target(version).load().migrate();
+    }
+
+    private void seedTenantAndUser() {
+        tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = 'main.example.com'", Long.class);
+        userId = insertUser("backfill");
+    }
+
+    private long insertUser(String username) {
+        jdbcTemplate.update("INSERT INTO users (username, email, password, tenant_id) VALUES (?, ?, 'hash', ?)",
+            username, username + "@example.com", tenantId);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    private void insertPayment(String status, String method, String amount, String date) {
+        insertPayment(userId, status, method, amount, date);
+    }
+
+    private void insertPayment(long user, String status, String method, String amount, String date) {
+        jdbcTemplate.update("INSERT INTO payments (id, user_id, tenant_id, amount, payment_method, transaction_id, status, "
+                + "payment_date) VALUES (?, ?, ?, ?, ?, ?, ?, CAST(? AS TIMESTAMP))",
+            SEQUENCE.incrementAndGet(), user, tenantId, new BigDecimal(amount), method, "TXN-BACKFILL-" + SEQUENCE.incrementAndGet(), status,
+            date);
+    }
+
+    private static void assertRollup(Map<String, Object> row, String date, String method, long count, String revenue) {
+        assertEquals(date, row.get("revenue_date").toString());
+        assertEquals(method, row.get("payment_method"));
+        assertEquals(count, ((Number) row.get("transaction_count")).longValue());
+        assertEquals(0, new BigDecimal(revenue).compareTo((BigDecimal) row.get("revenue")));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.api.queryplan;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs EXPLAIN for a statement with its bind values and reports how each table is
+ * read, on MySQL or H2.
+ *
+ * MySQL plan rows with access type {@code ALL} (table scan) or {@code index}
+ * (full index scan) are scans, sized by the optimizer's row estimate. In an H2
+ * plan every table is followed by a comment naming the index it is read through
+ * and the lookup condition; a table or index without a condition is a scan,
+ * sized by counting the table.
+ */
+public class QueryPlanExplainer {
+    // FROM "public"."products" "p1_0" /* public.idx_products_tenant_category: tenant_id = ?1 ... */
+    private static final Pattern H2_TABLE_ACCESS = Pattern.compile(
+        "\"\\w+\"\\.\"(\\w+)\"(?:\\s+\"?\\w+\"?)?\\s*/\\*\\s*([^:*]+?)\\s*(:|\\*/)");
+
+    /**
+     * How one table of a statement is read; {@code rows} is -1 when not known.
+     */
+    public record TableAccess(String table, String access, boolean scan, long rows) {
+    }
+
+    public List<TableAccess> explain(Connection connection, String sql, List<Object> parameters) throws SQLException {
+        boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                return h2 ? h2Accesses(connection, rs) : mysqlAccesses(rs);
+            }
+        }
+    }
+
+    private List<TableAccess> mysqlAccesses(ResultSet rs) throws SQLException {
+        List<TableAccess> accesses = new ArrayList<>();
+        while (rs.next()) {
+            String table = rs.getString("table");
+            if (table == null) {
+                // e.g. "Impossible WHERE" or a statement without tables
+                continue;
+            }
+            String type = rs.getString("type");
+            long rows = rs.getLong("rows");
+            boolean rowsKnown = !rs.wasNull();
+            String key = rs.getString("key");
+            // INSERT ... VALUES shows up as type ALL without a row estimate
+            boolean scan = rowsKnown && ("ALL".equals(type) || "index".equals(type));
+            accesses.add(new TableAccess(table, type + (key != null ? " " + key : ""), scan, rowsKnown ? rows : -1));
+        }
+        return accesses;
+    }
+
+    private List<TableAccess> h2Accesses(Connection connection, ResultSet rs) throws SQLException {
+        List<TableAccess> accesses = new ArrayList<>();
+        while (rs.next()) {
+            Matcher matcher = H2_TABLE_ACCESS.matcher(rs.getString(1));
+            while (matcher.find()) {
+                String table = matcher.group(1);
+                boolean scan = matcher.group(3).equals("*/");
+                accesses.add(new TableAccess(table, matcher.group(2), scan, scan ? countRows(connection, table) : -1));
+            }
+        }
+        return accesses;
+    }
+
+    private long countRows(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.ecommerce.api.queryplan;
+
+import com.ecommerce.api.metrics.RequestQueryStats;
+import com.ecommerce.api.metrics.RequestQueryStats.StatementGroup;
+import com.ecommerce.api.model.PaymentStatus;
+import com.ecommerce.api.model.RoleEnum;
+import com.ecommerce.api.queryplan.QueryPlanExplainer.TableAccess;
+import com.ecommerce.api.repository.BannerRepository;
+import com.ecommerce.api.repository.CategoryRepository;
+import com.ecommerce.api.repository.IdempotencyKeyRepository;
+import com.ecommerce.api.repository.InventoryStatsRepository;
+import com.ecommerce.api.repository.PaymentRepository;
+import com.ecommerce.api.repository.PaymentSketchDailyRepository;
+import com.ecommerce.api.repository.ProductImageRepository;
+import com.ecommerce.api.repository.ProductRepository;
+import com.ecommerce.api.repository.RevenueDailyRepository;
+import com.ecommerce.api.repository.RoleRepository;
+import com.ecommerce.api.repository.StockAlertRepository;
+import com.ecommerce.api.repository.TenantRepository;
+import com.ecommerce.api.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every repository query reads its tables through an index, on H2
+ * seeded by the {@code datagen} profile with a few thousand rows per table.
+ *
+ * Each query method declared in the repository package has a case here that
+ * calls it with values taken from the smallest tenant with payments, in a
+ * transaction that is rolled back and with the second-level cache bypassed. Every
+ * statement a case executes, including lazy loads it triggers, is explained with
+ * the bind values it ran with by {@link QueryPlanExplainer}. A scan of a table
+ * holding at least {@link #MIN_TABLE_ROWS} rows fails the test, and so does a
+ * query method without a case.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:queryplan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.main.web-application-type=servlet",
+    "datagen.tenants=3",
+    "datagen.users=3000",
+    "datagen.products=6000",
+    "datagen.payments=20000",
+    "datagen.history-days=90",
+    "datagen.threads=2",
+    "datagen.exit-when-done=false"
+})
+@ActiveProfiles({"test", "datagen"})
+class QueryPlanTests {
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanTests.class);
+
+    private static final String REPOSITORY_PACKAGE = BannerRepository.class.getPackageName();
+
+    // Scans of smaller tables are cheap and often what the optimizer should pick
+    private static final long MIN_TABLE_ROWS = 1000;
+
+    @Autowired
+    private BannerRepository bannerRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private InventoryStatsRepository inventoryStatsRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentSketchDailyRepository paymentSketchDailyRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RevenueDailyRepository revenueDailyRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private StockAlertRepository stockAlertRepository;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private final QueryPlanExplainer explainer = new QueryPlanExplainer();
+
+    @Test
+    void everyRepositoryQueryReadsItsTablesThroughAnIndex() throws Exception {
+        Map<String, Runnable> cases = cases(sample());
+        List<String> failures = new ArrayList<>();
+        for (String method : repositoryMethods()) {
+            if (!cases.containsKey(method)) {
+                failures.add(method + ": no query plan case");
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (Map.Entry<String, Runnable> queryCase : cases.entrySet()) {
+            RequestQueryStats stats = RequestQueryStats.begin(true);
+            try {
+                transaction.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                    queryCase.getValue().run();
+                    status.setRollbackOnly();
+                });
+            } catch (RuntimeException e) {
+                failures.add(queryCase.getKey() + ": " + e);
+                continue;
+            } finally {
+                RequestQueryStats.end();
+            }
+            check(queryCase.getKey(), stats.getStatementGroups(), failures);
+        }
+
+        logger.info("Checked the query plans of {} repository methods, {} failures", cases.size(), failures.size());
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    private void check(String method, List<StatementGroup> statements, List<String> failures) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            for (StatementGroup statement : statements) {
+                for (TableAccess access : explainer.explain(connection, statement.getSql(), statement.getParameters())) {
+                    boolean failed = access.scan() && access.rows() >= MIN_TABLE_ROWS;
+                    logger.info("{} {} {}: {}{}", failed ? "SCAN" : "ok  ", method, access.table(), access.access(),
+                        access.rows() >= 0 ? " (" + access.rows() + " rows)" : "");
+                    if (failed) {
+                        failures.add(method + ": scans " + access.table() + " (" + access.rows() + " rows) in "
+                            + statement);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Query methods declared by the repository interfaces and their custom fragments,
+     * as {@code Interface.method}.
+     */
+    private TreeSet<String> repositoryMethods() {
+        TreeSet<String> methods = new TreeSet<>();
+        for (Object repository : applicationContext.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(repository.getClass())) {
+                if (!type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    continue;
+                }
+                for (Method method : type.getDeclaredMethods()) {
+                    if (!method.isSynthetic() && !method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                        methods.add(type.getSimpleName() + "." + method.getName());
+                    }
+                }
+            }
+        }
+        return methods;
+    }
+
+    private Map<String, Runnable> cases(Sample s) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        List<Long> ids = List.of(s.productId(), s.categoryId());
+        PageRequest page = PageRequest.of(0, 20);
+        String completed = PaymentStatus.COMPLETED.name();
+        String pending = PaymentStatus.PENDING.name();
+
+        Map<String, Runnable> cases = new LinkedHashMap<>();
+        cases.put("BannerRepository.findByTenantIdOrderByDisplayOrderAsc",
+            () -> bannerRepository.findByTenantIdOrderByDisplayOrderAsc(s.tenantId()));
+        cases.put("BannerRepository.findByTenantIdAndIsActiveTrueAndStartDateBeforeAndEndDateAfterOrderByDisplayOrderAsc",
+            () -> bannerRepository.findByTenantIdAndIsActiveTrueAndStartDateBeforeAndEndDateAfterOrderByDisplayOrderAsc(
+                s.tenantId(), now, now));
+        cases.put("BannerRepository.findByTenantIdAndIsActiveTrue",
+            () -> bannerRepository.findByTenantIdAndIsActiveTrue(s.tenantId()));
+        cases.put("BannerRepository.findIdsByTenantId",
+            () -> bannerRepository.findIdsByTenantId(s.tenantId()));
+        cases.put("BannerRepository.updateActiveByTenantIdAndIdIn",
+            () -> bannerRepository.updateActiveByTenantIdAndIdIn(s.tenantId(), ids, false));
+        cases.put("BannerRepositoryCustom.updateDisplayOrders",
+            () -> bannerRepository.updateDisplayOrders(s.tenantId(), ids));
+
+        cases.put("CategoryRepository.findByParentCategoryIsNullAndTenantId",
+            () -> categoryRepository.findByParentCategoryIsNullAndTenantId(s.tenantId()));
+        cases.put("CategoryRepository.findByParentCategoryIdAndTenantId",
+            () -> categoryRepository.findByParentCategoryIdAndTenantId(s.parentId(), s.tenantId()));
+        cases.put("CategoryRepository.findByTenantId",
+            () -> categoryRepository.findByTenantId(s.tenantId()));
+        cases.put("CategoryRepositoryCustom.findCachedByTenant",
+            () -> categoryRepository.findCachedByTenant(s.tenantId()));
+        cases.put("CategoryRepositoryCustom.findCachedRootsByTenant",
+            () -> categoryRepository.findCachedRootsByTenant(s.tenantId()));
+        cases.put("CategoryRepositoryCustom.findCachedChildrenByTenant",
+            () -> categoryRepository.findCachedChildrenByTenant(s.tenantId(), s.parentId()));
+        cases.put("CategoryRepositoryCustom.evictCachedQueries",
+            () -> categoryRepository.evictCachedQueries(s.tenantId()));
+
+        cases.put("IdempotencyKeyRepository.findByTenantIdAndIdempotencyKey",
+            () -> idempotencyKeyRepository.findByTenantIdAndIdempotencyKey(s.tenantId(), "query-plan"));
+        cases.put("IdempotencyKeyRepository.takeOverExpiredLease",
+            () -> idempotencyKeyRepository.takeOverExpiredLease(-1L, now, now));
+        cases.put("IdempotencyKeyRepository.complete",
+            () -> idempotencyKeyRepository.complete(-1L, now, -1L));
+        cases.put("IdempotencyKeyRepository.release",
+            () -> idempotencyKeyRepository.release(-1L, now));
+        cases.put("IdempotencyKeyRepository.deleteExpired",
+            () -> idempotencyKeyRepository.deleteExpired(now));
+
+        cases.put("InventoryStatsRepository.applyDelta",
+            () -> inventoryStatsRepository.applyDelta(s.tenantId(), 0, 0, 0, 0, BigDecimal.ZERO));
+        cases.put("InventoryStatsRepository.insertEmpty", () -> {
+            // The sample tenant already has its row
+            inventoryStatsRepository.deleteById(s.tenantId());
+            inventoryStatsRepository.flush();
+            inventoryStatsRepository.insertEmpty(s.tenantId());
+        });
+        cases.put("InventoryStatsRepository.rebuild",
+            () -> inventoryStatsRepository.rebuild(s.tenantId(), 10));
+
+        cases.put("PaymentRepository.findByTenantId",
+            () -> paymentRepository.findByTenantId(s.tenantId()));
+        cases.put("PaymentRepository.findByUserIdAndTenantId",
+            () -> paymentRepository.findByUserIdAndTenantId(s.userId(), s.tenantId()));
+        cases.put("PaymentRepository.findHistoryPage",
+            () -> paymentRepository.findHistoryPage(s.tenantId(), s.userId(), now.minusDays(30), now,
+                now, Long.MAX_VALUE, null, page));
+        cases.put("PaymentRepository.findForUser",
+            () -> paymentRepository.findForUser(s.tenantId(), s.userId(), s.paymentId()));
+        cases.put("PaymentRepository.transitionStatus",
+            () -> paymentRepository.transitionStatus(s.paymentId(), pending, pending, 0, null, null));
+        cases.put("PaymentRepository.takeOverExpiredLease",
+            () -> paymentRepository.takeOverExpiredLease(s.paymentId(), 1, now, now));
+        cases.put("PaymentRepository.findIdsByStatusAndNextAttemptAtBefore",
+            () -> paymentRepository.findIdsByStatusAndNextAttemptAtBefore(pending, now, page));
+
+        cases.put("PaymentSketchDailyRepository.ensureExists",
+            () -> paymentSketchDailyRepository.ensureExists(s.tenantId(), today));
+        cases.put("PaymentSketchDailyRepository.findForUpdate",
+            () -> paymentSketchDailyRepository.findForUpdate(s.tenantId(), today));
+        cases.put("PaymentSketchDailyRepository.findRange",
+            () -> paymentSketchDailyRepository.findRange(s.tenantId(), today.minusDays(30), today));
+        cases.put("PaymentSketchDailyRepository.deleteByTenant",
+            () -> paymentSketchDailyRepository.deleteByTenant(s.tenantId()));
+
+        cases.put("ProductImageRepository.findByProduct_TenantId",
+            () -> productImageRepository.findByProduct_TenantId(s.tenantId()));
+        cases.put("ProductImageRepository.findByProductIdAndProduct_TenantId",
+            () -> productImageRepository.findByProductIdAndProduct_TenantId(s.productId(), s.tenantId()));
+
+        cases.put("ProductRepository.findByCategoryIdAndTenantId",
+            () -> productRepository.findByCategoryIdAndTenantId(s.categoryId(), s.tenantId()));
+        cases.put("ProductRepository.findForUpdate",
+            () -> productRepository.findForUpdate(s.productId()));
+        cases.put("ProductRepository.findByTenantId",
+            () -> productRepository.findByTenantId(s.tenantId()));
+        cases.put("ProductRepository.findOutOfStockPage",
+            () -> productRepository.findOutOfStockPage(s.tenantId(), page));
+        cases.put("ProductRepository.findStockRangePage",
+            () -> productRepository.findStockRangePage(s.tenantId(), 0, 10, page));
+
+        cases.put("RevenueDailyRepository.addCompletedPayment",
+            () -> revenueDailyRepository.addCompletedPayment(s.tenantId(), today, "CARD", BigDecimal.ONE));
+        cases.put("RevenueDailyRepository.deleteByTenant",
+            () -> revenueDailyRepository.deleteByTenant(s.tenantId()));
+        cases.put("RevenueDailyRepository.rebuildFromPayments", () -> {
+            // Rebuilding inserts every day again, so the existing rows go first
+            revenueDailyRepository.deleteByTenant(s.tenantId());
+            revenueDailyRepository.rebuildFromPayments(s.tenantId(), completed);
+        });
+        cases.put("RevenueDailyRepository.sumRevenue",
+            () -> revenueDailyRepository.sumRevenue(s.tenantId(), today.minusDays(30), today));
+        cases.put("RevenueDailyRepository.sumRevenueByDay",
+            () -> revenueDailyRepository.sumRevenueByDay(s.tenantId(), today.minusDays(30), today));
+
+        cases.put("RoleRepository.findByName",
+            () -> roleRepository.findByName(RoleEnum.ROLE_USER));
+
+        cases.put("StockAlertRepository.findPage",
+            () -> stockAlertRepository.findPage(s.tenantId(), Long.MAX_VALUE, page));
+        cases.put("StockAlertRepository.findAfter",
+            () -> stockAlertRepository.findAfter(0L, page));
+        cases.put("StockAlertRepository.findMaxId",
+            () -> stockAlertRepository.findMaxId());
+
+        cases.put("TenantRepository.findByDomain",
+            () -> tenantRepository.findByDomain(s.domain()));
+
+        cases.put("UserRepository.findByUsernameAndTenantId",
+            () -> userRepository.findByUsernameAndTenantId(s.username(), s.tenantId()));
+        cases.put("UserRepository.findByEmailAndTenantId",
+            () -> userRepository.findByEmailAndTenantId(s.email(), s.tenantId()));
+        cases.put("UserRepository.existsByUsernameAndTenantId",
+            () -> userRepository.existsByUsernameAndTenantId(s.username(), s.tenantId()));
+        cases.put("UserRepository.existsByEmailAndTenantId",
+            () -> userRepository.existsByEmailAndTenantId(s.email(), s.tenantId()));
+        cases.put("UserRepository.findByTenantId",
+            () -> userRepository.findByTenantId(s.tenantId()));
+        return cases;
+    }
+
+    private Sample sample() {
+        // The smallest tenant keeps the unbounded findByTenantId calls cheap
+        List<Long> tenants = jdbcTemplate.queryForList(
+            "SELECT tenant_id FROM payments GROUP BY tenant_id ORDER BY COUNT(*) LIMIT 1", Long.class);
+        if (tenants.isEmpty()) {
+            throw new IllegalStateException("No payments to take sample values from, seed the database first");
+        }
+        Long tenantId = tenants.get(0);
+        Long userId = firstId("SELECT user_id FROM payments WHERE tenant_id = ?", tenantId);
+        Long categoryId = firstId("SELECT category_id FROM products WHERE tenant_id = ? AND category_id IS NOT NULL",
+            tenantId);
+        Long parentId = firstId("SELECT parent_id FROM categories WHERE tenant_id = ? AND parent_id IS NOT NULL",
+            tenantId);
+        Map<String, Object> user = jdbcTemplate.queryForMap("SELECT username, email FROM users WHERE id = ?", userId);
+        return new Sample(tenantId,
+            jdbcTemplate.queryForObject("SELECT domain FROM tenants WHERE id = ?", String.class, tenantId),
+            categoryId, parentId != 0 ? parentId : categoryId,
+            firstId("SELECT id FROM products WHERE tenant_id = ?", tenantId),
+            firstId("SELECT id FROM payments WHERE tenant_id = ?", tenantId),
+            userId, (String) user.get("username"), (String) user.get("email"));
+    }
+
+    private Long firstId(String sql, Long tenantId) {
+        List<Long> ids = jdbcTemplate.queryForList(sql + " LIMIT 1", Long.class, tenantId);
+        return ids.isEmpty() ? 0L : ids.get(0);
+    }
+
+    private record Sample(Long tenantId, String domain, Long categoryId, Long parentId, Long productId,
+                          Long paymentId, Long userId, String username, String email) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.model.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+    private static final String HASH = "request-hash";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long tenantId;
+    private long userId;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = 'electronics.example.com'", Long.class);
+        String username = "idem" + SEQUENCE.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO users (username, email, password, tenant_id) VALUES (?, ?, 'hash', ?)",
+            username, username + "@example.com", tenantId);
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    @Test
+    void keyAbandonedPastItsLeaseIsTakenOver() {
+        String key = "abandoned-" + SEQUENCE.incrementAndGet();
+        insertKey(key, LocalDateTime.now().minusMinutes(1));
+
+        Payment payment = idempotencyService.execute(tenantId, key, HASH, createPayment());
+
+        assertEquals(1, runs.get());
+        assertEquals("COMPLETED", keyStatus(key));
+        assertEquals(payment.getId(), jdbcTemplate.queryForObject(
+            "SELECT payment_id FROM idempotency_keys WHERE idempotency_key = ?", Long.class, key));
+    }
+
+    @Test
+    void keyWithinItsLeaseIsStillInProgress() {
+        String key = "running-" + SEQUENCE.incrementAndGet();
+        insertKey(key, LocalDateTime.now().plusMinutes(1));
+
+        ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+            () -> idempotencyService.execute(tenantId, key, HASH, createPayment()));
+
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void holderThatLostItsLeaseCannotCompleteTheKey() {
+        String key = "overtaken-" + SEQUENCE.incrementAndGet();
+        Supplier<Payment> slowHolder = () -> {
+            Payment payment = createPayment().get();
+            // Meanwhile the lease expired and another request took the key over, in its own transaction
+            Thread takeOver = new Thread(() -> jdbcTemplate.update(
+                "UPDATE idempotency_keys SET locked_until = ? WHERE idempotency_key = ?",
+                LocalDateTime.now().plusHours(1), key));
+            takeOver.start();
+            try {
+                takeOver.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return payment;
+        };
+
+        ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+            () -> idempotencyService.execute(tenantId, key, HASH, slowHolder));
+
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        assertEquals("IN_PROGRESS", keyStatus(key));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE user_id = ?", Integer.class, userId));
+    }
+
+    private Supplier<Payment> createPayment() {
+        return () -> {
+            runs.incrementAndGet();
+            long id = SEQUENCE.incrementAndGet();
+            jdbcTemplate.update("INSERT INTO payments (id, user_id, amount, payment_method, transaction_id, status, " +
+                    "payment_date, tenant_id, attempt_count, next_attempt_at) " +
+                    "VALUES (?, ?, 5.00, 'CARD', ?, 'PENDING', ?, ?, 0, ?)",
+                id, userId, "TXN-IDEM-" + id, LocalDateTime.now(), tenantId, LocalDateTime.now().plusDays(1));
+            Payment payment = new Payment();
+            payment.setId(id);
+            return payment;
+        };
+    }
+
+    private void insertKey(String key, LocalDateTime lockedUntil) {
+        jdbcTemplate.update("INSERT INTO idempotency_keys (tenant_id, idempotency_key, request_hash, status, " +
+                "created_at, expires_at, locked_until) VALUES (?, ?, ?, 'IN_PROGRESS', ?, ?, ?)",
+            tenantId, key, HASH, LocalDateTime.now().minusMinutes(2), LocalDateTime.now().plusHours(1), lockedUntil);
+    }
+
+    private String keyStatus(String key) {
+        return jdbcTemplate.queryForObject("SELECT status FROM idempotency_keys WHERE idempotency_key = ?", String.class, key);
+    }
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.model.InventoryStats;
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Product;
+import com.ecommerce.api.model.Tenant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryStatsServiceTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private InventoryStatsService inventoryStatsService;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationSeededTheExistingTenants() {
+        Long tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = 'main.example.com'",
+            Long.class);
+
+        assertEquals(1, statsRows(tenantId));
+    }
+
+    @Test
+    void concurrentFirstWritesOfANewTenantAreAllCounted() throws Exception {
+        Tenant created = createTenant();
+        assertEquals(0L, inventoryStatsService.getStats(created.getId()).getTotalProducts());
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                int stock = i;
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    TenantContext.setCurrentTenant(created);
+                    try {
+                        return productService.createProduct(product(stock));
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Stock 0..7 at 2.00 each: all low, one out of stock
+        InventoryStats stats = inventoryStatsService.getStats(created.getId());
+        assertEquals(WRITERS, stats.getTotalProducts());
+        assertEquals(WRITERS, stats.getLowStockProducts());
+        assertEquals(1L, stats.getOutOfStockProducts());
+        assertEquals(28L, stats.getTotalStock());
+        assertEquals(0, new BigDecimal("56.00").compareTo(stats.getTotalInventoryValue()));
+    }
+
+    @Test
+    void concurrentUpdatesOfOneProductKeepTheCountersExact() throws Exception {
+        Tenant created = createTenant();
+        TenantContext.setCurrentTenant(created);
+        Product product;
+        try {
+            product = productService.createProduct(product(5));
+        } finally {
+            TenantContext.clear();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < WRITERS * 4; i++) {
+                // Alternate between out of stock, low and in stock so stale deltas would show
+                int stock = new int[] {0, 3, 50}[i % 3];
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    TenantContext.setCurrentTenant(created);
+                    try {
+                        return productService.updateProduct(product.getId(), product(stock));
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int finalStock = jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?",
+            Integer.class, product.getId());
+        InventoryStats stats = inventoryStatsService.getStats(created.getId());
+        assertEquals(1L, stats.getTotalProducts());
+        assertEquals(finalStock, stats.getTotalStock());
+        assertEquals(finalStock <= InventoryStatsService.LOW_STOCK_THRESHOLD ? 1L : 0L, stats.getLowStockProducts());
+        assertEquals(finalStock == 0 ? 1L : 0L, stats.getOutOfStockProducts());
+        assertEquals(0, BigDecimal.valueOf(finalStock * 2L).compareTo(stats.getTotalInventoryValue()));
+    }
+
+    @Test
+    void readingStatsNeverWrites() {
+        // A tenant inserted around TenantService has no counter row
+        String domain = "unseeded" + SEQUENCE.incrementAndGet() + ".example.com";
+        jdbcTemplate.update("INSERT INTO tenants (domain, name, is_active, created_at) VALUES (?, ?, TRUE, ?)",
+            domain, domain, LocalDateTime.now());
+        Long tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = ?", Long.class, domain);
+
+        assertThrows(RuntimeException.class, () -> inventoryStatsService.getStats(tenantId));
+        assertEquals(0, statsRows(tenantId));
+
+        inventoryStatsService.rebuild(tenantId);
+        assertEquals(1, statsRows(tenantId));
+        assertEquals(0L, inventoryStatsService.getStats(tenantId).getTotalProducts());
+    }
+
+    private Tenant createTenant() {
+        Tenant tenant = new Tenant();
+        tenant.setDomain("inventory" + SEQUENCE.incrementAndGet() + ".example.com");
+        tenant.setName("Inventory");
+        return tenantService.createTenant(tenant);
+    }
+
+    private Product product(int stock) {
+        Product product = new Product();
+        product.setName("Product " + SEQUENCE.incrementAndGet());
+        product.setPrice(Money.ofMinor(200));
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    private int statsRows(Long tenantId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_stats WHERE tenant_id = ?", Integer.class,
+            tenantId);
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Payment;
+import com.ecommerce.api.model.PaymentStatus;
+import com.ecommerce.api.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// A long batching window so the appends below land in one batch
+@SpringBootTest(properties = "payment.ledger.max-delay-micros=200000")
+@ActiveProfiles("test")
+class PaymentLedgerWriterTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private PaymentLedgerWriter ledgerWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long tenantId;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = 'main.example.com'", Long.class);
+        String username = "ledger" + SEQUENCE.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO users (username, email, password, tenant_id) VALUES (?, ?, 'hash', ?)",
+            username, username + "@example.com", tenantId);
+        user = new User();
+        user.setId(jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username));
+    }
+
+    @Test
+    void concurrentAppendsAreAllCommitted() throws Exception {
+        int threads = 8;
+        int perThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<CompletableFuture<Payment>> writes = new ArrayList<>();
+        try {
+            List<Future<List<CompletableFuture<Payment>>>> callers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                callers.add(executor.submit(() -> {
+                    List<CompletableFuture<Payment>> own = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        own.add(ledgerWriter.append(payment("TXN-LEDGER-" + SEQUENCE.incrementAndGet())));
+                    }
+                    return own;
+                }));
+            }
+            for (var caller : callers) {
+                writes.addAll(caller.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (CompletableFuture<Payment> write : writes) {
+            assertTrue(write.get(10, TimeUnit.SECONDS).getId() != null);
+        }
+        assertEquals(threads * perThread, count());
+    }
+
+    @Test
+    void failedBatchOnlyFailsTheOffendingRow() throws Exception {
+        String duplicate = "TXN-DUP-" + SEQUENCE.incrementAndGet();
+        CompletableFuture<Payment> first = ledgerWriter.append(payment(duplicate));
+        CompletableFuture<Payment> clash = ledgerWriter.append(payment(duplicate));
+        CompletableFuture<Payment> unrelated = ledgerWriter.append(payment("TXN-OK-" + SEQUENCE.incrementAndGet()));
+
+        assertEquals(duplicate, first.get(10, TimeUnit.SECONDS).getTransactionId());
+        assertTrue(unrelated.get(10, TimeUnit.SECONDS).getId() != null);
+        assertThrows(ExecutionException.class, () -> clash.get(10, TimeUnit.SECONDS));
+        assertEquals(2, count());
+    }
+
+    @Test
+    void stopFailsWritesStillQueued() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentLedgerWriter writer = blockingWriter(mock(JdbcTemplate.class), entered, release);
+
+        CompletableFuture<Payment> inFlight = writer.append(payment("TXN-STOP-" + SEQUENCE.incrementAndGet()));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Payment> queued = writer.append(payment("TXN-STOP-" + SEQUENCE.incrementAndGet()));
+
+        writer.stop();
+
+        ExecutionException stopped = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertTrue(stopped.getCause() instanceof IllegalStateException);
+        assertTrue(writer.append(payment("TXN-STOP-" + SEQUENCE.incrementAndGet())).isCompletedExceptionally());
+        release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void queuedWriteCanBeWithdrawnButNotOneBeingInserted() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JdbcTemplate blocking = mock(JdbcTemplate.class);
+        PaymentLedgerWriter writer = blockingWriter(blocking, entered, release);
+
+        CompletableFuture<Payment> inFlight = writer.append(payment("TXN-CANCEL-" + SEQUENCE.incrementAndGet()));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Payment> queued = writer.append(payment("TXN-CANCEL-" + SEQUENCE.incrementAndGet()));
+
+        assertFalse(inFlight.cancel(false));
+        assertTrue(queued.cancel(false));
+        release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+        writer.stop();
+
+        assertTrue(queued.isCancelled());
+        verify(blocking, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    private PaymentLedgerWriter blockingWriter(JdbcTemplate blocking, CountDownLatch entered, CountDownLatch release) {
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return 1;
+        }).when(blocking).update(anyString(), any(Object[].class));
+
+        PaymentLedgerWriter writer = new PaymentLedgerWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", blocking);
+        ReflectionTestUtils.setField(writer, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        ReflectionTestUtils.setField(writer, "maxDelayMicros", 0L);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMs", 100L);
+        writer.start();
+        return writer;
+    }
+
+    private Payment payment(String transactionId) {
+        Payment payment = new Payment();
+        payment.setId(SEQUENCE.incrementAndGet());
+        payment.setUser(user);
+        payment.setTenantId(tenantId);
+        payment.setAmount(Money.ofMinor(1999));
+        payment.setPaymentMethod("CARD");
+        payment.setTransactionId(transactionId);
+        payment.setStatus(PaymentStatus.PENDING.name());
+        payment.setAttemptCount(0);
+        payment.setPaymentDate(LocalDateTime.now());
+        // Far in the future so the sweeper leaves these rows alone
+        payment.setNextAttemptAt(LocalDateTime.now().plusDays(1));
+        return payment;
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE user_id = ?", Integer.class, user.getId());
+    }
+}
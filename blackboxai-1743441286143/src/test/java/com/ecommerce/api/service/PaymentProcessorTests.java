@@ -0,0 +1,163 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.gateway.GatewayResult;
+import com.ecommerce.api.gateway.PaymentGateway;
+import com.ecommerce.api.gateway.PaymentGatewayException;
+import com.ecommerce.api.model.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+    "payment.processing.lease-ms=300",
+    "payment.retry.base-delay-ms=60000"
+})
+@ActiveProfiles("test")
+class PaymentProcessorTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StubGateway gateway;
+
+    @SpyBean
+    private RevenueRollupService revenueRollupService;
+
+    private Long tenantId;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        gateway.reset();
+        tenantId = jdbcTemplate.queryForObject("SELECT id FROM tenants WHERE domain = 'main.example.com'", Long.class);
+        String username = "payer" + SEQUENCE.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO users (username, email, password, tenant_id) VALUES (?, ?, 'hash', ?)",
+            username, username + "@example.com", tenantId);
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    @Test
+    void approvedPaymentWhoseCompletionFailedIsRecoveredWithoutSecondCharge() throws Exception {
+        long paymentId = insertPayment("PENDING", LocalDateTime.now());
+        doThrow(new RuntimeException("rollup unavailable")).doCallRealMethod()
+            .when(revenueRollupService).completePayment(any(), anyInt());
+
+        paymentProcessor.process(paymentId);
+        assertEquals("PROCESSING", status(paymentId));
+
+        Thread.sleep(400);
+        paymentProcessor.process(paymentId);
+
+        assertEquals("COMPLETED", status(paymentId));
+        assertEquals(2, gateway.keys.size());
+        assertEquals(gateway.keys.get(0), gateway.keys.get(1));
+        assertEquals(1, gateway.charges.size());
+    }
+
+    @Test
+    void processingPaymentIsNotTakenOverWhileItsLeaseHolds() {
+        doCallRealMethod().when(revenueRollupService).completePayment(any(), anyInt());
+        long paymentId = insertPayment("PROCESSING", LocalDateTime.now().plusMinutes(1));
+
+        paymentProcessor.process(paymentId);
+
+        assertEquals("PROCESSING", status(paymentId));
+        assertEquals(0, gateway.keys.size());
+    }
+
+    @Test
+    void gatewayErrorSchedulesRetry() {
+        doCallRealMethod().when(revenueRollupService).completePayment(any(), anyInt());
+        gateway.failNext = true;
+        long paymentId = insertPayment("PENDING", LocalDateTime.now());
+
+        paymentProcessor.process(paymentId);
+
+        assertEquals("PENDING", status(paymentId));
+        assertEquals(0, gateway.charges.size());
+    }
+
+    private long insertPayment(String status, LocalDateTime nextAttemptAt) {
+        long id = SEQUENCE.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO payments (id, user_id, amount, payment_method, transaction_id, status, " +
+                "payment_date, tenant_id, attempt_count, next_attempt_at) VALUES (?, ?, 10.00, ?, ?, ?, ?, ?, 0, ?)",
+            id, userId, StubGateway.METHOD, "TXN-PROC-" + id, status, LocalDateTime.now(), tenantId, nextAttemptAt);
+        return id;
+    }
+
+    private String status(long paymentId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM payments WHERE id = ?", String.class, paymentId);
+    }
+
+    @TestConfiguration
+    static class StubGatewayConfig {
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        StubGateway stubGateway() {
+            return new StubGateway();
+        }
+    }
+
+    /**
+     * Provider stub that, like a real provider, charges once per idempotency key.
+     */
+    static class StubGateway implements PaymentGateway {
+        static final String METHOD = "STUB";
+
+        final List<String> keys = new CopyOnWriteArrayList<>();
+        final Map<String, GatewayResult> charges = new ConcurrentHashMap<>();
+        volatile boolean failNext;
+
+        void reset() {
+            keys.clear();
+            charges.clear();
+            failNext = false;
+        }
+
+        @Override
+        public String getName() {
+            return "stub";
+        }
+
+        @Override
+        public boolean supports(String paymentMethod) {
+            return METHOD.equals(paymentMethod);
+        }
+
+        @Override
+        public GatewayResult charge(Payment payment, String idempotencyKey) throws PaymentGatewayException {
+            keys.add(idempotencyKey);
+            if (failNext) {
+                failNext = false;
+                throw new PaymentGatewayException("Stub unavailable");
+            }
+            return charges.computeIfAbsent(idempotencyKey, key -> GatewayResult.approved("STUB-" + key));
+        }
+    }
+}
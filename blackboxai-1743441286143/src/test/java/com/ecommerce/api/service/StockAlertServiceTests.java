@@ -0,0 +1,110 @@
+package com.ecommerce.api.service;
+
+import com.ecommerce.api.interceptor.TenantContext;
+import com.ecommerce.api.model.Money;
+import com.ecommerce.api.model.Product;
+import com.ecommerce.api.model.StockAlert;
+import com.ecommerce.api.model.StockAlertLevel;
+import com.ecommerce.api.model.Tenant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockAlertServiceTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+    // Recovery margin is 5, so the product recovers above 15
+    private static final int THRESHOLD = 10;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Tenant tenant = new Tenant();
+        tenant.setDomain("stock" + SEQUENCE.incrementAndGet() + ".example.com");
+        tenant.setName("Stock");
+        TenantContext.setCurrentTenant(tenantService.createTenant(tenant));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void everyLevelChangeRaisesOneAlert() {
+        Product product = productService.createProduct(product(20));
+        assertEquals(List.of(), alerts(product));
+
+        update(product, 5);
+        update(product, 3);
+        assertEquals(List.of(StockAlert.LOW_STOCK), alerts(product));
+
+        // A product already alerted as low still alerts when it runs out
+        update(product, 0);
+        assertEquals(List.of(StockAlert.LOW_STOCK, StockAlert.OUT_OF_STOCK), alerts(product));
+
+        // Back in stock but within the recovery margin: low again, not restocked
+        update(product, 12);
+        update(product, 15);
+        assertEquals(List.of(StockAlert.LOW_STOCK, StockAlert.OUT_OF_STOCK, StockAlert.LOW_STOCK), alerts(product));
+
+        update(product, 16);
+        assertEquals(List.of(StockAlert.LOW_STOCK, StockAlert.OUT_OF_STOCK, StockAlert.LOW_STOCK,
+            StockAlert.RESTOCKED), alerts(product));
+        assertEquals(StockAlertLevel.NONE.name(), level(product));
+    }
+
+    @Test
+    void productRunningOutDirectlyAlertsOutOfStockOnce() {
+        Product product = productService.createProduct(product(20));
+
+        update(product, 0);
+        update(product, 0);
+        assertEquals(List.of(StockAlert.OUT_OF_STOCK), alerts(product));
+        assertEquals(StockAlertLevel.OUT.name(), level(product));
+
+        update(product, 30);
+        assertEquals(List.of(StockAlert.OUT_OF_STOCK, StockAlert.RESTOCKED), alerts(product));
+    }
+
+    private void update(Product product, int stock) {
+        productService.updateProduct(product.getId(), product(stock));
+    }
+
+    private Product product(int stock) {
+        Product product = new Product();
+        product.setName("Product " + SEQUENCE.incrementAndGet());
+        product.setPrice(Money.ofMinor(200));
+        product.setStockQuantity(stock);
+        product.setLowStockThreshold(THRESHOLD);
+        return product;
+    }
+
+    private List<String> alerts(Product product) {
+        return jdbcTemplate.queryForList("SELECT type FROM stock_alerts WHERE product_id = ? ORDER BY id",
+            String.class, product.getId());
+    }
+
+    private String level(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock_alert_level FROM products WHERE id = ?", String.class,
+            product.getId());
+    }
+}
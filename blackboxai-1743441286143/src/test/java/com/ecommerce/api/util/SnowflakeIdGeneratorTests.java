@@ -0,0 +1,93 @@
+package com.ecommerce.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTests {
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void concurrentCallersAcrossNodesNeverReceiveTheSameId() throws Exception {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                SnowflakeIdGenerator generator = t % 2 == 0 ? first : second;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    long previous = 0;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        long id = generator.nextId();
+                        // Each caller sees its node's ids in increasing order
+                        assertTrue(id > previous);
+                        previous = id;
+                        ids.add(id);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+    }
+
+    @Test
+    void encodedIdsRoundTripAndSortLikeTheIds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5);
+        long earlier = generator.nextId();
+        long later = generator.nextId();
+
+        assertEquals(earlier, SnowflakeIdGenerator.decode(SnowflakeIdGenerator.encode(earlier)));
+        assertTrue(SnowflakeIdGenerator.encode(earlier).compareTo(SnowflakeIdGenerator.encode(later)) < 0);
+    }
+
+    @Test
+    void explicitNodeIdWins() {
+        assertEquals(7, SnowflakeIdGenerator.resolveNodeId("7", "ordinal"));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+    }
+
+    @Test
+    void missingNodeIdFailsStartup() {
+        assertThrows(IllegalStateException.class, () -> SnowflakeIdGenerator.resolveNodeId("", ""));
+        assertThrows(IllegalStateException.class, () -> SnowflakeIdGenerator.resolveNodeId(null, "pid"));
+    }
+
+    @Test
+    void nodeIdIsDerivedFromStatefulSetOrdinal() {
+        assertEquals(3, SnowflakeIdGenerator.nodeIdFromHostname("api-3"));
+        assertEquals(12, SnowflakeIdGenerator.nodeIdFromHostname("ecommerce-api-12"));
+        assertThrows(IllegalStateException.class, () -> SnowflakeIdGenerator.nodeIdFromHostname("api-7d9f8-xk2lp"));
+        assertThrows(IllegalStateException.class, () -> SnowflakeIdGenerator.nodeIdFromHostname("api-1024"));
+    }
+
+    @Test
+    void nodeIdIsDerivedFromLowAddressBits() throws Exception {
+        assertEquals(0x105, SnowflakeIdGenerator.nodeIdFromAddress(InetAddress.getByName("10.0.5.5")));
+        assertEquals(0x3FF, SnowflakeIdGenerator.nodeIdFromAddress(InetAddress.getByName("10.0.7.255")));
+    }
+}